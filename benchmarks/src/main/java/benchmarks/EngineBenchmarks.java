@@ -0,0 +1,154 @@
+package	benchmarks;
+
+import	java.util.concurrent.TimeUnit;
+
+import	org.openjdk.jmh.annotations.Benchmark;
+import	org.openjdk.jmh.annotations.BenchmarkMode;
+import	org.openjdk.jmh.annotations.Fork;
+import	org.openjdk.jmh.annotations.Level;
+import	org.openjdk.jmh.annotations.Measurement;
+import	org.openjdk.jmh.annotations.Mode;
+import	org.openjdk.jmh.annotations.OutputTimeUnit;
+import	org.openjdk.jmh.annotations.Param;
+import	org.openjdk.jmh.annotations.Scope;
+import	org.openjdk.jmh.annotations.Setup;
+import	org.openjdk.jmh.annotations.State;
+import	org.openjdk.jmh.annotations.Warmup;
+import	org.openjdk.jmh.infra.Blackhole;
+
+import	game.Engine;
+
+
+/**
+* Benchmarks of the engine tick, run on headless engines with a given number
+* of ships and platforms, see <code>{@link World}</code>. Run from the game
+* directory, where the resources are.
+*
+* @author	Johan Liesn
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = "-Djava.awt.headless=true")
+public class EngineBenchmarks
+{
+	/**
+	* Worlds of a growing number of ships and platforms, the ships starting
+	* anywhere.
+	*
+	*/
+	@State(Scope.Thread)
+	public static class Flying
+	{
+		/** Ships x platforms */
+		@Param({ "2x6", "2x100", "2x400", "8x100", "32x100", "32x400", "64x400", "128x400" })
+		public String	world;
+		
+		World			built;
+		
+		
+		/**
+		* Builds the world anew for each iteration, so that the ticks of one
+		* iteration don't change what the next one measures, and lets the
+		* ships spread out.
+		*
+		*/
+		@Setup(Level.Iteration)
+		public void setUp()
+		{
+			built	= World.parse(world, false);
+			built.getEngine().step(Engine.TICKS_PER_SECOND);
+			built.save();
+		}
+	}
+	
+	
+	/**
+	* Worlds with the ships standing on platforms, so that each ship is
+	* tested against the edges of a platform every tick.
+	*
+	*/
+	@State(Scope.Thread)
+	public static class Landed
+	{
+		/** Ships x platforms */
+		@Param({ "32x100", "128x400" })
+		public String	world;
+		
+		World			built;
+		
+		
+		/**
+		* Builds the world and lets the ships settle on the platforms.
+		*
+		*/
+		@Setup(Level.Iteration)
+		public void setUp()
+		{
+			built	= World.parse(world, true);
+			built.getEngine().step(Engine.TICKS_PER_SECOND);
+			built.save();
+		}
+	}
+	
+	
+	
+	/**
+	* Times <code>{@link Engine#step(int)}</code>, i.e. one whole tick. The
+	* world plays on from tick to tick, as in a game.
+	*
+	* @param	state		the world
+	* @return				the tick count
+	*/
+	@Benchmark
+	public long tick(Flying state)
+	{
+		Engine	engine	= state.built.getEngine();
+		
+		engine.step(1);
+		
+		return engine.getTicks();
+	}
+	
+	
+	/**
+	* Times <code>{@link Engine#resolveCollisions()}</code> on its own. The
+	* ships are put back first, as resolving moves them, so each call resolves
+	* the same collisions; putting them back takes a few array copies.
+	*
+	* @param	state		the world
+	* @param	bh			consumes the number of pairs tested
+	*/
+	@Benchmark
+	public void resolveCollisions(Flying state, Blackhole bh)
+	{
+		Engine	engine	= state.built.getEngine();
+		
+		state.built.restore();
+		engine.resolveCollisions();
+		
+		bh.consume(engine.getBroadphase().getPairsTested());
+		bh.consume(engine.getEntities());
+	}
+	
+	
+	/**
+	* Times <code>{@link Engine#resolveCollisions()}</code> with the ships
+	* standing on platforms, put back before each call.
+	*
+	* @param	state		the world
+	* @param	bh			consumes the number of pairs tested
+	*/
+	@Benchmark
+	public void resolveCollisionsLanded(Landed state, Blackhole bh)
+	{
+		Engine	engine	= state.built.getEngine();
+		
+		state.built.restore();
+		engine.resolveCollisions();
+		
+		bh.consume(engine.getBroadphase().getPairsTested());
+		bh.consume(engine.getEntities());
+	}
+} //end EngineBenchmarks
@@ -0,0 +1,69 @@
+package	benchmarks;
+
+import	java.awt.Image;
+import	java.awt.Toolkit;
+import	java.awt.image.BufferedImage;
+import	java.awt.image.MemoryImageSource;
+import	java.util.concurrent.TimeUnit;
+
+import	org.openjdk.jmh.annotations.Benchmark;
+import	org.openjdk.jmh.annotations.BenchmarkMode;
+import	org.openjdk.jmh.annotations.Fork;
+import	org.openjdk.jmh.annotations.Level;
+import	org.openjdk.jmh.annotations.Measurement;
+import	org.openjdk.jmh.annotations.Mode;
+import	org.openjdk.jmh.annotations.OutputTimeUnit;
+import	org.openjdk.jmh.annotations.Scope;
+import	org.openjdk.jmh.annotations.Setup;
+import	org.openjdk.jmh.annotations.State;
+import	org.openjdk.jmh.annotations.Warmup;
+
+import	utilities.ImageHelper;
+
+
+/**
+* Benchmark of <code>{@link ImageHelper#toBufferedImage(Image)}</code>,
+* converting a platform sized toolkit image.
+*
+* @author	Johan Liesn
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ImageHelperBenchmark
+{
+	/** Image to convert */
+	private Image	image;
+	
+	
+	
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		int[]	pixels	= new int[52 * 9];
+		
+		for (int i = 0; i < pixels.length; i++)
+		{
+			pixels[i]	= (i % 3 == 0) ? 0 : 0xff808080;
+		}
+		
+		image	= Toolkit.getDefaultToolkit().createImage(
+								new MemoryImageSource(52, 9, pixels, 0, 52));
+	}
+	
+	
+	
+	/**
+	* Converts the image.
+	*
+	* @return				the converted image
+	*/
+	@Benchmark
+	public BufferedImage toBufferedImage()
+	{
+		return ImageHelper.toBufferedImage(image);
+	}
+} //end ImageHelperBenchmark
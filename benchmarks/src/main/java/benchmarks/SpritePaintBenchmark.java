@@ -0,0 +1,115 @@
+package	benchmarks;
+
+import	java.awt.Color;
+import	java.awt.Graphics2D;
+import	java.awt.Image;
+import	java.awt.image.BufferedImage;
+import	java.util.concurrent.TimeUnit;
+
+import	org.openjdk.jmh.annotations.Benchmark;
+import	org.openjdk.jmh.annotations.BenchmarkMode;
+import	org.openjdk.jmh.annotations.Fork;
+import	org.openjdk.jmh.annotations.Level;
+import	org.openjdk.jmh.annotations.Measurement;
+import	org.openjdk.jmh.annotations.Mode;
+import	org.openjdk.jmh.annotations.OutputTimeUnit;
+import	org.openjdk.jmh.annotations.Param;
+import	org.openjdk.jmh.annotations.Scope;
+import	org.openjdk.jmh.annotations.Setup;
+import	org.openjdk.jmh.annotations.State;
+import	org.openjdk.jmh.annotations.TearDown;
+import	org.openjdk.jmh.annotations.Warmup;
+
+import	game.graphics.Sprite;
+
+
+/**
+* Benchmark of <code>{@link Sprite#paint(Graphics2D)}</code> into an offscreen
+* image, with a ship sized sprite.
+*
+* @author	Johan Liesn
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpritePaintBenchmark
+{
+	/** Rotation of the sprite in degrees */
+	@Param({ "0", "15" })
+	public double			degrees;
+	
+	/** The sprite */
+	private Sprite			sprite;
+	
+	/** Offscreen image */
+	private BufferedImage	screen;
+	
+	/** Graphics context of the offscreen image */
+	private Graphics2D		g;
+	
+	/** Angle of the sweep, see <code>{@link #rotating()}</code> */
+	private int				step;
+	
+	
+	
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		BufferedImage	frame	= new BufferedImage(11, 14, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D		fg		= frame.createGraphics();
+		
+		fg.setColor(Color.BLUE);
+		fg.fillOval(0, 0, 11, 14);
+		fg.dispose();
+		
+		sprite	= new Sprite("default", new Image[] { frame }, 1);
+		sprite.setPosition(100, 100);
+		sprite.setVisible(true);
+		sprite.rotateTo(degrees);
+		
+		screen	= new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+		g		= screen.createGraphics();
+	}
+	
+	
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		g.dispose();
+	}
+	
+	
+	
+	/**
+	* Paints the sprite at a fixed angle.
+	*
+	* @return				the image painted into
+	*/
+	@Benchmark
+	public BufferedImage paint()
+	{
+		sprite.paint(g);
+		
+		return screen;
+	}
+	
+	
+	/**
+	* Paints the sprite at a new angle each time, sweeping back and forth as a
+	* ship does. Starts out at the fixed angle.
+	*
+	* @return				the image painted into
+	*/
+	@Benchmark
+	public BufferedImage rotating()
+	{
+		step	= (step + 1) % 160;
+		sprite.rotateTo(degrees + step - 80);
+		sprite.paint(g);
+		
+		return screen;
+	}
+} //end SpritePaintBenchmark
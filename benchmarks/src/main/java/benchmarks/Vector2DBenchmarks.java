@@ -0,0 +1,81 @@
+package	benchmarks;
+
+import	java.util.concurrent.TimeUnit;
+
+import	org.openjdk.jmh.annotations.Benchmark;
+import	org.openjdk.jmh.annotations.BenchmarkMode;
+import	org.openjdk.jmh.annotations.Fork;
+import	org.openjdk.jmh.annotations.Measurement;
+import	org.openjdk.jmh.annotations.Mode;
+import	org.openjdk.jmh.annotations.OutputTimeUnit;
+import	org.openjdk.jmh.annotations.Scope;
+import	org.openjdk.jmh.annotations.State;
+import	org.openjdk.jmh.annotations.Warmup;
+
+import	utilities.Vector2D;
+
+
+/**
+* Benchmarks of the vector arithmetic done for each ship every tick: adding
+* input and gravity, limiting the speed and bouncing off a surface. Once with
+* the allocating methods and once with the in-place ones.
+*
+* @author	Johan Liesn
+*/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class Vector2DBenchmarks
+{
+	private static final Vector2D	THRUST	= new Vector2D(0.2, -0.2),
+									GRAVITY	= new Vector2D(0, 0.075),
+									NORMAL	= new Vector2D(0, -1);
+	
+	/** Motion of the ship; mirrored each time, so it stays bounded */
+	private Vector2D	motion	= new Vector2D(1, 2);
+	
+	
+	
+	/**
+	* Uses <code>add</code>, <code>toLength</code> and <code>mirror</code>.
+	*
+	* @return				the new motion
+	*/
+	@Benchmark
+	public Vector2D allocating()
+	{
+		motion	= motion.add(THRUST).add(GRAVITY);
+		
+		if (motion.getLength() > 10)
+		{
+			motion	= motion.toLength(10);
+		}
+		
+		motion	= motion.mirror(NORMAL);
+		
+		return motion;
+	}
+	
+	
+	/**
+	* Uses <code>addLocal</code>, <code>toLengthLocal</code> and
+	* <code>mirrorLocal</code>.
+	*
+	* @return				the motion
+	*/
+	@Benchmark
+	public Vector2D inPlace()
+	{
+		motion.addLocal(THRUST).addLocal(GRAVITY);
+		
+		if (motion.getLength() > 10)
+		{
+			motion.toLengthLocal(10);
+		}
+		
+		return motion.mirrorLocal(NORMAL);
+	}
+} //end Vector2DBenchmarks
@@ -0,0 +1,231 @@
+package	benchmarks;
+
+import	java.awt.Color;
+import	java.awt.Dimension;
+import	java.awt.Point;
+import	java.util.ArrayList;
+import	java.util.List;
+import	java.util.Random;
+
+import	game.Engine;
+import	game.EntityStore;
+import	game.Player;
+import	game.inactor.Platform;
+import	utilities.DataPreLoader;
+
+
+/**
+* A headless engine with a given number of ships and platforms, for the
+* engine benchmarks. The world grows with the number of platforms so that
+* they are about as far apart as in the original level. The first ships and
+* platforms are those of the original level; the rest are placed randomly,
+* but the same way each time.
+*
+* <p>
+*   The state of the ships can be saved and restored, so that an operation
+*   which moves them can be measured on the same world over and over.
+* </p>
+*
+* @author	Johan Liesn
+*/
+public class World
+{
+	/** Size of the original level */
+	private static final Dimension	LEVEL_SIZE			= new Dimension(640, 480);
+	
+	/** Number of platforms in the original level */
+	private static final int		LEVEL_PLATFORMS		= 6;
+	
+	/** The engine */
+	private Engine		engine;
+	
+	/** Saved state of the ships; see <code>{@link #save()}</code> */
+	private double[][]	savedDoubles;
+	private int[][]		savedInts;
+	
+	
+	
+	/**
+	* Builds a world.
+	*
+	* @param	ships		number of ships (at least 2)
+	* @param	platforms	number of platforms (at least 6)
+	* @param	onPlatforms	whether the ships start just above the platforms
+	*/
+	public World(int ships, int platforms, boolean onPlatforms)
+	{
+		double	scale	= Math.sqrt((double) platforms / LEVEL_PLATFORMS);
+		int		width	= (int) (LEVEL_SIZE.width * scale);
+		int		height	= (int) (LEVEL_SIZE.height * scale);
+		Random	random	= new Random(42);
+		List	added	= new ArrayList();
+		
+		// The engine runs headless, with stand-ins for the images
+		DataPreLoader	data	= DataPreLoader.getInstance();
+		
+		if (!data.isHeadless())
+		{
+			data.setHeadless(true);
+			data.initiateLoad();
+		}
+		
+		engine	= new Engine(new Dimension(width, height));
+		engine.init();
+		
+		// Place the platforms in a grid, one in each cell, avoiding the
+		// original level in the top left corner
+		int		columns	= (int) Math.ceil(Math.sqrt(platforms * 2));
+		int		cellW	= width / columns;
+		int		cellH	= height / columns;
+		
+		for (int i = LEVEL_PLATFORMS, cell = 0; i < platforms; cell++)
+		{
+			int	x	= (cell % columns) * cellW;
+			int	y	= (cell / columns) * cellH;
+			
+			if ((x < LEVEL_SIZE.width) && (y < LEVEL_SIZE.height))	continue;
+			
+			Platform	platform	= new Platform(x + random.nextInt(Math.max(1, cellW - 60)),
+													   y + random.nextInt(Math.max(1, cellH - 20)));
+			
+			engine.addInactor(platform);
+			added.add(platform);
+			i++;
+		}
+		
+		for (int i = 2; i < ships; i++)
+		{
+			Point	position	= new Point(random.nextInt(width), random.nextInt(height));
+			
+			if (onPlatforms && !added.isEmpty())
+			{
+				position	= ((Platform) added.get(i % added.size())).getPosition();
+				position.translate(10, -22);
+			}
+			
+			engine.addPlayer(new Player("Player" + (i + 1), Color.GREEN), position);
+		}
+	}
+	
+	
+	/**
+	* Parses a world description.
+	*
+	* @param	world		"&lt;ships&gt;x&lt;platforms&gt;", e.g. "2x6"
+	* @param	onPlatforms	whether the ships start just above the platforms
+	* @return				the world
+	*/
+	public static World parse(String world, boolean onPlatforms)
+	{
+		int	x	= world.indexOf('x');
+		
+		return new World(Integer.parseInt(world.substring(0, x)),
+						 Integer.parseInt(world.substring(x + 1)), onPlatforms);
+	}
+	
+	
+	
+	/**
+	* Returns the engine.
+	*
+	* @return				the engine
+	*/
+	public Engine getEngine()
+	{
+		return engine;
+	}
+	
+	
+	/**
+	* Saves the positions, motion, energy and flags of the ships.
+	*
+	*/
+	public void save()
+	{
+		EntityStore	entities	= engine.getEntities();
+		
+		savedDoubles	= copy(getDoubles(entities));
+		savedInts		= copy(getInts(entities));
+	}
+	
+	
+	/**
+	* Puts the ships back the way they were when <code>save()</code> was
+	* called.
+	*
+	*/
+	public void restore()
+	{
+		EntityStore	entities	= engine.getEntities();
+		double[][]	doubles		= getDoubles(entities);
+		int[][]		ints		= getInts(entities);
+		
+		for (int i = 0; i < doubles.length; i++)
+		{
+			System.arraycopy(savedDoubles[i], 0, doubles[i], 0, savedDoubles[i].length);
+		}
+		
+		for (int i = 0; i < ints.length; i++)
+		{
+			System.arraycopy(savedInts[i], 0, ints[i], 0, savedInts[i].length);
+		}
+	}
+	
+	
+	/**
+	* Returns the arrays of the entity store holding doubles which the engine
+	* changes.
+	*
+	*/
+	private static double[][] getDoubles(EntityStore entities)
+	{
+		return new double[][] { entities.getX(), entities.getY(),
+								entities.getPreviousX(), entities.getPreviousY(),
+								entities.getMotionX(), entities.getMotionY() };
+	}
+	
+	
+	/**
+	* Returns the arrays of the entity store holding ints which the engine
+	* changes.
+	*
+	*/
+	private static int[][] getInts(EntityStore entities)
+	{
+		return new int[][] { entities.getEnergy(), entities.getFlags() };
+	}
+	
+	
+	/**
+	* Returns copies of arrays.
+	*
+	*/
+	private static double[][] copy(double[][] arrays)
+	{
+		double[][]	copies	= new double[arrays.length][];
+		
+		for (int i = 0; i < arrays.length; i++)
+		{
+			copies[i]	= (double[]) arrays[i].clone();
+		}
+		
+		return copies;
+	}
+	
+	
+	/**
+	* Returns copies of arrays.
+	*
+	*/
+	private static int[][] copy(int[][] arrays)
+	{
+		int[][]	copies	= new int[arrays.length][];
+		
+		for (int i = 0; i < arrays.length; i++)
+		{
+			copies[i]	= (int[]) arrays[i].clone();
+		}
+		
+		return copies;
+	}
+} //end World
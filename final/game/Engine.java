@@ -1,728 +1,1796 @@
-package	game;
-
-import 	java.awt.Color;
-import	java.awt.Dimension;
-import	java.awt.Graphics2D;
-import	java.awt.Point;
-import	java.awt.Rectangle;
-import	java.util.ArrayList;
-import	java.util.Iterator;
-import 	java.util.List;
-
-import	game.actor.Actor;
-import	game.actor.Ship;
-import	game.actor.Passenger;
-import	game.audio.AudioPlayer;
-import 	game.graphics.screens.PlayScreen;
-import 	game.graphics.Sprite;
-import 	game.graphics.NoSuchStateException;
-import 	game.inactor.Arrow;
-import 	game.inactor.Inactor;
-import	game.inactor.Platform;
-import	game.inactor.RefuelPlatform;
-import 	utilities.Vector2D;
-
-
-/**
-* Engine handles all the game objects and respond to situations in the world 
-* such as collisions, ship movement, painting, and so on...
-* 
-* @author		Karl Olofsson
-* @author		Jimmy Stridh
-* @author		Johan "Rocco" Liesn
-* @version		2004-05-14 01:18
-*/
-public class Engine implements Runnable
-{
-	/** Array of players */
-	private Player[] players;
-
-	/** List of passengers */
-	private List	passengers;
-
-	/**	List of inactors */
-	private List	inactors;
-
-	/** Play screen */
-	private PlayScreen		playScreen;
-
-	private boolean[] movesLeft;
-
-	private boolean[] movesRight;
-
-	private boolean[] movesUp;
-
-	private boolean[] movesDown;
-
-	/** decides wheter the engine is running or not */
-	private boolean isRunning;
-
-	private long	engineStartTime;
-
-	/** The time in millis since the engine was started */
-	private long	dTime;
-
-	private int		dSecsSincePassengerSpawn;
-
-	private long 	lastPassengerSpawnTime;
-
-	private Vector2D	gravity	= new Vector2D(0, 0.075);
-
-	private volatile Thread gameLoop;
-	
-	/** Audio system */
-	private AudioPlayer audio = AudioPlayer.getInstance();
-	
-	
-
-	/**
-	* Constructor for the engine.
-	*
-	* @param	gc			the game controller
-	*/
-	public	Engine(GameController gc)
-	{
-
-	}
-	
-	
-	
-	/**
-	* Initializes data and all the game objects.
-	*
-	*/
-	public void init()
-	{
-		players			= new Player[2];
-		players[0]		= new Player("Player1", Color.BLUE);
-		players[1]		= new Player("Player2", Color.RED);
-
-		Ship[] ships	= new Ship[2];
-		ships[0]		= new Ship(players[0], new Point(200, 100));
-		ships[1]		= new Ship(players[1], new Point(100, 300));
-
-		players[0].setShip(ships[0]);
-		players[1].setShip(ships[1]);
-		
-		// Movement shit
-		movesLeft 		= new boolean[2];
-		movesRight		= new boolean[2];
-		movesUp 		= new boolean[2];
-		movesDown 		= new boolean[2];
-                    	
-		passengers		= new ArrayList();
-
-		// Different platforms need different positions
-		inactors		= new ArrayList();
-		inactors.add(new Platform(new Point(100, 100)));
-		inactors.add(new Platform(new Point(500, 400)));
-		inactors.add(new Platform(new Point(300, 300)));
-		inactors.add(new Platform(new Point(100, 450)));
-		inactors.add(new Platform(new Point(50, 320)));
-		inactors.add(new RefuelPlatform(new Point(200, 200)));
-	}
-	
-	
-	/**
-	* Runs the game.
-	*
-	*/
-	public void run()
-	{
-		long roundStartTime, roundTime;
-		
-		while (isRunning)
-		{
-			// Start timer
-			roundStartTime = System.currentTimeMillis();
-			
-			// Update playscreen
-			playScreen.repaint();
-
-			// Update the game world
-			update();
-
-			// Give other threads some space (also slows the game down)
-			Thread.currentThread().yield();
-			
-			// Uphold a good FPS value
-			roundTime = System.currentTimeMillis() - roundStartTime;
-			
-			if(roundTime < 17)
-			{
-				try
-				{
-					Thread.sleep(17 - roundTime); //~60 FPS
-				}
-				catch(InterruptedException e)
-				{
-					System.err.println(e);
-				}
-			}
-		}
-	}
-	
-	
-	/**
-	* Starts the engine (game).
-	*
-	*/
-	public void start()
-	{
-		engineStartTime	= System.currentTimeMillis();
-		dTime			= System.currentTimeMillis() - engineStartTime;
-		isRunning		= true;
-		lastPassengerSpawnTime = dTime;
-
-		// Initialize
-		if(passengers == null)
-		{
-			init();
-		}
-
-		Thread gameLoop = new Thread(this);
-		
-		if (gameLoop != null)
-		{
-			gameLoop.start();
-		}
-	}
-	
-	
-	/**
-	* Stops the engine.
-	*
-	*/
-	public void stop()
-	{
-		isRunning	= false;
-		gameLoop 	= null;
-	}
-	
-
-	/**
-	* Render paints the objects.
-	*
-	* @param	g			graphics context
-	*/
-	public void render(Graphics2D g)
-	{	
-		// Paint all inactors		
-		for(int i = 0; i < inactors.size(); i++)
-		{
-			((Inactor) inactors.get(i)).paint(g);
-		}
-		
-		// Paint all passengers
-		for (int i = 0; i < passengers.size(); i++)
-		{
-			((Passenger) passengers.get(i)).paint(g);
-		}
-		
-		// Paint all ships
-		for (int i = 0; i < players.length; i++)
-		{
-			players[i].getShip().paint(g);
-		}
-	}
-
-	/**
-	*	Updates
-	*/
-	private void update()
-	{
-		dTime = System.currentTimeMillis() - engineStartTime;
-		dSecsSincePassengerSpawn = (int)Math.round(
-									 (dTime - lastPassengerSpawnTime) / 1000.0);
-
-		updateShipPositions();
-		//collisionDetect();
-
-		resolveCollisions();
-		//newPassengerPlatformSelect();
-
-		spawnPassenger();
-		// kolla efter "osynliga" object och ta bort dem?
-		
-		removeDeadActors();
-	}
-	
-	
-	/**
-	* Returns an array of players.
-	*
-	* @return				the players
-	*/
-	public Player[] getPlayers()
-	{
-		return players;
-	}
-	
-	
-	/**
-	* Handles the removal of dead/inactive actors.
-	*
-	*/
-	public void removeDeadActors()
-	{
-		for (int i = 0; i < players.length; i++)
-		{
-			Ship	ship	= players[i].getShip();
-			
-			if (ship.getEnergy() <= 0)
-			{
-				// ship.implode();
-			}
-		}
-	}
-
-	/**
-	* Updates ship positions and motion vectors.
-	*
-	*/
-	private void updateShipPositions()
-	{
-		for (int i = 0; i < players.length; i++)
-		{
-			Ship		ship 	= players[i].getShip();
-			Vector2D 	motion	= ship.getMotionVector();
-		
-			// Affect ship movement vector
-			if (movesLeft[i] && !ship.hasLanded())	motion	= motion.add(ShipMovement.LEFT);
-			if (movesRight[i] && !ship.hasLanded())	motion	= motion.add(ShipMovement.RIGHT);
-			if (movesDown[i] && !ship.hasLanded())	motion	= motion.add(ShipMovement.DOWN);
-			
-			// When the ship throttles then the image should be updated
-			try
-			{
-				if (movesUp[i])
-				{
-					motion	= motion.add(ShipMovement.UP);
-					
-					if (ship.hasLanded())
-						ship.liftOff();
-					
-					ship.setState("thrust");
-				}
-				else
-				{
-					ship.setState("default");
-				}
-			}
-			catch (NoSuchStateException e)
-			{
-				System.out.println(e);
-			}
-			
-			
-			// Apply gravity
-			motion	= motion.add(gravity);
-			
-			// Speed limit
-			if (motion.getLength() > 10)
-			{
-				motion	= motion.toLength(10);
-			}
-
-			// Alter movement
-			ship.setMotionVector(motion);
-				
-			// Move ship
-			Point shipPosition	= ship.getPosition();
-
-			shipPosition.translate((int) Math.round(motion.getX()),
-								   (int) Math.round(motion.getY()));
-
-			// Wrap around screen
-			Dimension	screen	= playScreen.getSize();
-
-			if(shipPosition.x > screen.width)	shipPosition.x = 0;
-			if(shipPosition.x < 0)				shipPosition.x = screen.width;
-			if(shipPosition.y > screen.height)	shipPosition.y = 0;
-			if(shipPosition.y < 0)				shipPosition.y = screen.height;
-
-			// Set new position
-			ship.setPosition(shipPosition);
-		}
-	}
-	
-	
-	/**
-	* Spawns a passenger 
-	*
-	*/
-	private void spawnPassenger()
-	{
-		if ((dSecsSincePassengerSpawn >= 5) && (passengers.size() < players.length))
-		{			
-			Platform	source		= getEmptyPlatform();
-			Platform	destination	= null;
-			
-			// Make sure that the destination isn't the same as the source
-			do
-			{
-				destination	= getEmptyPlatform();
-			}
-			while (source == destination);
-			
-			
-			// Notify destination platform that it's a destination
-			destination.setDestination(true);
-        	
-			// Create passenger					
-			Passenger	passenger	= new Passenger(source, destination);
-        	
-			//Tell the source platform which it's passenger.
-			source.setPassenger(passenger);
-			
-			// Add passenger to list of passengers
-			passengers.add(passenger);
-			
-			// Show passenger
-			passenger.setVisible(true);
-			
-			lastPassengerSpawnTime = dTime;
-			
-			audio.playEffect("Taxi" + ((int) (Math.random() * 3) + 1), false);
-		}
-	}
-	
-
-	/**
-	* Returns a platform which is not inhabited, a destination and is not of
-	* type <code>{@link RefuelPlatform}</code>.
-	*
-	* @return				empty platform
-	*/
-	private Platform getEmptyPlatform()
-	{
-		Platform	pf	= null;
-		int			pfs	= inactors.size();	// Number of platforms
-		
-		do
-		{
-			pf	= (Platform) inactors.get((int) (Math.random() * pfs));
-		}
-		while (pf.isInhabited() || (pf instanceof RefuelPlatform) || pf.isDestination());
-		
-		return pf;
-	}
-
-
-	/**
-	* Sets a reference to which screen to update.
-	*
-	* @param	playScreen	the play screen
-	*/
-	public void setPlayScreen(PlayScreen playScreen)
-	{
-		this.playScreen = playScreen;
-	}
-
-
-	/**
-	* Lands a ship on a specific platform.
-	*
-	* @param	s			ship to land
-	* @param	pf			the platform
-	*/
-	public void land(Ship s, Platform pf)
-	{
-		s.land();
-		Player player = s.getOwner();
-		
-		if (pf instanceof RefuelPlatform)
-		{
-			// Fill the player with the special sauce
-			((RefuelPlatform) pf).refuel(s);
-		}
-		else 
-		{
-			if (pf.isInhabited() && !s.hasPassenger())
-			{
-				Passenger	p	= pf.getPassenger();
-				
-				// Add passenger to ship
-				s.pickUpPassenger(p);
-				//pf.setInhabited(false);
-				pf.setPassenger(null);
-				p.setVisible(false);
-				
-				// Show arrow @ the passenger's destination platform
-				p.getDestination().showArrow(player.getArrow());
-			}
-			
-			// Check for a passenger dropoff
-			if (s.hasPassenger() && s.getPassenger().getDestination() == pf)
-			{
-				pf.setDestination(false);
-				Passenger	p	= s.getPassenger();
-
-				// Remove it from the list of passengers
-				passengers.remove(s.getPassenger());
-				
-				// Let the passenger out of the ship
-				s.dropOffPassenger();
-				
-				lastPassengerSpawnTime = dTime;				
-				
-				pf.setDestination(false);
-				
-				// Hide arrow above platform
-				pf.hideArrow();
-				
-				// Reward the player
-				player.addScore(1);
-				player.addCredits(100);
-			}
-		}
-	}
-
-
-	public void p1Left(boolean activation)
-	{
-		movesLeft[0] = activation;
-	}
-
-	public void p1Right(boolean activation)
-	{
-		movesRight[0] = activation;
-	}
-
-	public void p1Up(boolean activation)
-	{
-		movesUp[0] = activation;
-	}
-
-	public void p1Down(boolean activation)
-	{
-		movesDown[0] = activation;
-	}
-
-	public void p2Left(boolean activation)
-	{
-		movesLeft[1] = activation;
-	}
-
-	public void p2Right(boolean activation)
-	{
-		movesRight[1] = activation;
-	}
-
-	public void p2Up(boolean activation)
-	{
-		movesUp[1] = activation;
-	}
-
-	public void p2Down(boolean activation)
-	{
-		movesDown[1] = activation;
-	}
-
-	
-	/**
-	* Detects and resolves collisions in the world.
-	*
-	*/
-	
-	// http://www.gamasutra.com/features/20020118/vandenhuevel_01.htm
-	// http://www.gamedev.net/reference/articles/article1026.asp
-	
-	private void resolveCollisions()
-	{
-		// Go through each player
-		for (int i = 0; i < players.length; i++)
-		{
-			Ship	ship	= players[i].getShip();
-			
-			Point	center	= ship.getCenterPoint();
-			
-			// Check collision between current and other ships
-			for (int j = i + 1; j < players.length; j++)
-			{
-				Ship		ship2		= players[j].getShip();
-				
-				// Skip collisions when one of the ship has landed
-				if (ship.hasLanded() || ship2.hasLanded())	continue;
-				
-				double		distance	= center.distance(ship2.getCenterPoint());
-				
-				if (distance <= (ship.getRadius() + ship2.getRadius()))
-				{					
-					// Collision between two ships
-					
-					/*	Lagen om rrelsemngdens bevarande:
-						
-						m och M r massa
-						u, u', v och v' r rrelse(vektorer)
-						
-							mv + Mu = mv' + Mu'
-							
-						Massorna, m och M, r samma fr bda skeppen, dvs
-						
-							v + u = v' + u'									  */
-					// Get motion vectors for both ships
-					Vector2D	v1		= ship.getMotionVector();
-					Vector2D	v2		= ship2.getMotionVector();
-					
-					// The line of contact runs from one centerpoint to the 
-					// other
-					Vector2D	n		= new Vector2D(center,
-											   		   ship2.getCenterPoint());
-										
-					// Normalize vector
-					n	= n.toLength(1);
-					
-					// Get length of the ship's motion vectors projected on the
-					// line of contact
-					double		a1		= v1.dot(n);
-					double		a2		= v2.dot(n);
-						
-					/*	P r "lngden" p kraften lngs kontaktlinjen,					
-							P		= 2 * m * M * (a1 - a2) / (m + M)
-									= 2 * m^2 * (a1 - a2) / 2m
-									= m * (a1 - a2),
-						och
-							v'		= v  (P / m) * n,						
-						dvs						
-							v'		= v  (a1 - a2) * n.
-													
-						force	= (a1 - a2) * n.							  */					
-					Vector2D	force	= n.multiply(a1 - a2);
-					
-					// Set a minimum value to the force vector
-					if (force.getLength() < 1)
-					{
-						force	= force.toLength(1);
-					}
-					
-					// Add or remove the force at contact
-					ship.setMotionVector(v1.subtract(force));
-					ship2.setMotionVector(v2.add(force));
-					
-					// Inflict damage
-					ship.addEnergy((int) -force.getLength());
-					ship2.addEnergy((int) -force.getLength());
-					
-					// Activate both shields
-					ship.setShielded(true);
-					ship2.setShielded(true);
-					
-					audio.playEffect("shieldBump", false);					
-				}
-			} // !for each (other) ship
-			
-			
-			// Ship - Inactor collision
-			Iterator	it	= inactors.iterator();
-			
-			while (it.hasNext())
-			{
-				Inactor		inactor	= (Inactor) it.next();
-				Vector2D	normal	= null;
-				
-				if (ship.getBounds().intersects(inactor.getBounds()))
-				{
-					// We probably have an intersection
-					
-					// Get the edges of the inactor
-					Point[]	vertices	= inactor.getVertices();
-					
-					// Initialize points
-					Point	closest		= vertices[0],
-							test		= null;
-				
-					// Loop through all the vertices
-					for (int k = 0; k < vertices.length; k++)
-					{
-						// q is the next vertex
-						Point		p				= vertices[k],
-									q				= vertices[(k + 1) % vertices.length];
-						
-						// Vector from the first vertex to the next
-						Vector2D	pq				= new Vector2D(q, p);
-						
-						double		pqLength		= pq.getLength();
-						
-						// Normalized vector along the line from p to q
-						Vector2D	n				= pq.toLength(1);
-									
-						// Vector from p to the center of the ship
-						Vector2D	c				= new Vector2D(center, p);
-						
-						// The ...
-						double		factor			= n.dot(c);
-						
-						// Get the closest point
-						if (factor < 0)
-						{
-							// Closest point lies outside the start of the line
-							test	= p;
-						}
-						else if (factor > pqLength)
-						{
-							// Closest point lies outside the end of the line
-							test	= q;
-						}
-						else // Closest point lies on the line between p and q
-						{
-							// px travels from p to the intersection point, x
-							Vector2D	px	= n.multiply(factor);
-							
-							// Translate point so that it lies on the line, pq
-							test			= new Point(p.x + (int) px.getX(),
-														p.y + (int) px.getY());
-						}
-						
-						// Test if the closest point on the line is the closest 
-						// of each line
-						if (test.distance(center) <= closest.distance(center))
-						{
-							closest	= test;
-							normal	= (new Vector2D(n.getY(), n.getX())).negate();
-							
-							// Test special case: if ship collides with a vertex
-							if ((factor < 0) || (factor > pqLength))
-							{
-								normal	= new Vector2D(center, closest);
-								normal	= normal.toLength(1);
-							}
-						}
-					} // !for each vertex
-				
-					// Collision between circle and plane
-					if (closest.distance(center) <= ship.getRadius())
-					{
-						Vector2D	motion		= ship.getMotionVector();
-						Point		inactorP	= inactor.getPosition();
-						Rectangle	inactorB	= inactor.getBounds();
-						
-						// Land the ship if the ship's velocity is lower than 2
-						// _and_ the ship is above the platform
-						if ((motion.getLength() < 2) && 
-							(center.y < closest.y) && 
-							(center.x > inactorP.x) && 
-							(center.x < inactorB.width + inactorP.x))
-						{
-							land(ship, (Platform) inactor);
-						}
-						
-						// Bounce if the ship hasn't landed
-						if (!ship.hasLanded())
-						{
-							audio.playEffect("shieldBump", false);						
-						
-							// Inflict damage upon ship
-							ship.addEnergy((int) -motion.getLength());
-							
-							// Change the motion vector
-							motion	= motion.mirror(normal);					
-							ship.setMotionVector(motion);
-							ship.setShielded(true);
-						}
-					}
-				} // !while each inactor
-			} // !if bounds intersect
-		} // !for each player
-	}
+package	game;
+
+import 	java.awt.Color;
+import	java.awt.Dimension;
+import	java.awt.Graphics2D;
+import	java.awt.Point;
+import	java.awt.Rectangle;
+import	java.io.IOException;
+import	java.util.ArrayList;
+import 	java.util.List;
+
+import	game.actor.Actor;
+import	game.actor.Ship;
+import	game.actor.Passenger;
+import	game.audio.AudioPlayer;
+import 	game.graphics.screens.PlayScreen;
+import 	game.graphics.Sprite;
+import 	game.graphics.NoSuchStateException;
+import 	game.inactor.Arrow;
+import	game.inactor.Edges;
+import 	game.inactor.Inactor;
+import	game.inactor.Platform;
+import	game.inactor.PlatformPool;
+import	game.inactor.RefuelPlatform;
+import	game.level.Level;
+import 	utilities.Vector2D;
+
+
+/**
+* Engine handles all the game objects and respond to situations in the world 
+* such as collisions, ship movement, painting, and so on...
+* 
+* @author		Karl Olofsson
+* @author		Jimmy Stridh
+* @author		Johan "Rocco" Liesén
+* @version		2004-05-14 01:18
+*/
+public class Engine implements Runnable
+{
+	/** Number of simulation ticks per second */
+	public static final int		TICKS_PER_SECOND	= 60;
+	
+	/** Length of one simulation tick in nanoseconds */
+	private static final long	TICK_NANOS			= 1000000000L / TICKS_PER_SECOND;
+	
+	/** Maximum number of ticks simulated to catch up before a frame is 
+	*   painted. If the engine falls further behind the remaining time is 
+	*   dropped, i.e. the game slows down instead of spiralling. */
+	private static final int	MAX_TICKS_PER_FRAME	= 5;
+	
+	/** Number of frames painted per second, at most. Frames between two
+	*   ticks are interpolated. */
+	public static final int		FRAMES_PER_SECOND	= 120;
+	
+	/** Time between two frames in nanoseconds */
+	private static final long	FRAME_NANOS			= 1000000000L / FRAMES_PER_SECOND;
+	
+	/** Input bits of a player, as passed to <code>{@link #setInput}</code> */
+	public static final int		INPUT_LEFT			= 1,
+								INPUT_RIGHT			= 2,
+								INPUT_UP			= 4,
+								INPUT_DOWN			= 8;
+	
+	/** Colors of the players, repeated when there are more players */
+	private static final Color[]	PLAYER_COLORS	= { Color.BLUE, Color.RED, 
+														Color.GREEN, Color.YELLOW,
+														Color.MAGENTA, Color.CYAN,
+														Color.ORANGE, Color.PINK };
+	
+	/** Distance between ships which share a spawn point */
+	private static final int		SPAWN_SPACING	= 40;
+	
+	/** Array of players */
+	private Player[] players;
+	
+	/** The players' ships, indexed by entity id */
+	private Ship[]		ships;
+	
+	/** State of the ships, which the tick works on */
+	private EntityStore	entities;
+
+	/** List of passengers */
+	private List	passengers;
+
+	/**	List of inactors */
+	private List	inactors;
+	
+	/** The platforms passengers can be spawned on or sent to */
+	private PlatformPool	freePlatforms;
+	
+	/** Broadphase holding the inactors and ships */
+	private SpatialHash	broadphase;
+	
+	/** Changed whenever the inactors are, so that a cached static layer 
+	*   knows to repaint itself */
+	private volatile int	staticLayerVersion;
+	
+	/** Cell size of the broadphase grid */
+	private int			cellSize	= SpatialHash.DEFAULT_CELL_SIZE;
+	
+
+	/** Play screen, or <em>null</em> when running headless */
+	private PlayScreen		playScreen;
+	
+	/** Size of the world if given, or <em>null</em> to use the level's */
+	private Dimension		worldSize;
+	
+	/** Size of the level being played, set by <code>init()</code> */
+	private Dimension		levelSize;
+
+	/** Number of players <code>init()</code> creates */
+	private int		playerCount		= 2;
+	
+	/** The level, or <em>null</em> to play the default level */
+	private Level	level;
+	
+	/** Where the ships start, in the order of the players */
+	private Point[]	spawnPoints;
+	
+	/** Input of each player as sampled at the start of the current tick */
+	private int[]	input;
+	
+	/** Random generator of the game, restarted by <code>init()</code>; the 
+	*   game is reproduced by its seed and the input of each tick */
+	private RandomSource	random	= new RandomSource(System.currentTimeMillis());
+	
+	/** Replay being recorded, or <em>null</em> */
+	private Replay	replay;
+
+	/** decides wheter the engine is running or not */
+	private volatile boolean isRunning;
+
+	/** Number of ticks simulated since the engine was started */
+	private long	ticks;
+
+	/** The simulated time in millis since the engine was started */
+	private long	dTime;
+	
+	/** How far (0 to 1) the wall clock is between the last tick and the next */
+	private volatile double	interpolation;
+
+	private int		dSecsSincePassengerSpawn;
+
+	private long 	lastPassengerSpawnTime;
+
+	private Vector2D	gravity	= new Vector2D(0, 0);
+
+	private volatile Thread gameLoop;
+	
+	/** Audio system, or <em>null</em> when running headless */
+	private AudioPlayer audio;
+	
+	// Timers of the tick phases
+	private final PhaseTimer	tickTimer,
+								shipPositionsTimer,
+								passengersTimer,
+								collisionsTimer,
+								spawnTimer,
+								deadActorsTimer,
+								frameIntervalTimer;
+	
+	// Scratch objects reused by the tick so that it doesn't allocate
+	private final Vector2D	motion		= new Vector2D(0, 0),
+							motion2		= new Vector2D(0, 0),
+							n			= new Vector2D(0, 0),
+							normal		= new Vector2D(0, 0),
+							sweepNormal	= new Vector2D(0, 0);
+	private double			sweepY;
+	private final Point		position	= new Point(),
+							center		= new Point(),
+							center2		= new Point();
+	private final Rectangle	shipBounds	= new Rectangle(),
+							inactorBounds = new Rectangle(),
+							area		= new Rectangle();
+	private final List		candidates	= new ArrayList();
+	
+	
+
+	/**
+	* Constructor for the engine.
+	*
+	* @param	gc			the game controller
+	*/
+	public	Engine(GameController gc)
+	{
+		this();
+		
+		audio	= AudioPlayer.getInstance();
+	}
+	
+	
+	/**
+	* Creates a headless engine, i.e. one without a play screen or sound. The
+	* world is simulated by calling <code>{@link #step(int)}</code>.
+	*
+	* @param	worldSize	size of the world (ships wrap around its edges)
+	*/
+	public	Engine(Dimension worldSize)
+	{
+		this();
+		
+		this.worldSize	= new Dimension(worldSize);
+	}
+	
+	
+	/**
+	* Creates a headless engine playing a level, with the level's world size.
+	*
+	* @param	level		the level
+	*/
+	public	Engine(Level level)
+	{
+		this();
+		
+		this.level		= level;
+	}
+	
+	
+	/**
+	* Creates a headless engine with its own random generator.
+	*
+	* @param	worldSize	size of the world (ships wrap around its edges)
+	* @param	random		random generator of the game
+	*/
+	public	Engine(Dimension worldSize, RandomSource random)
+	{
+		this(worldSize);
+		
+		this.random		= random;
+	}
+	
+	
+	/**
+	* Looks up the timers of the tick phases.
+	*
+	*/
+	private	Engine()
+	{
+		PerformanceMonitor	monitor	= PerformanceMonitor.getInstance();
+		
+		tickTimer			= monitor.getTimer(PerformanceMonitor.TICK);
+		shipPositionsTimer	= monitor.getTimer(PerformanceMonitor.UPDATE_SHIP_POSITIONS);
+		passengersTimer		= monitor.getTimer(PerformanceMonitor.UPDATE_PASSENGERS);
+		collisionsTimer		= monitor.getTimer(PerformanceMonitor.RESOLVE_COLLISIONS);
+		spawnTimer			= monitor.getTimer(PerformanceMonitor.SPAWN_PASSENGER);
+		deadActorsTimer		= monitor.getTimer(PerformanceMonitor.REMOVE_DEAD_ACTORS);
+		frameIntervalTimer	= monitor.getTimer(PerformanceMonitor.FRAME_INTERVAL);
+	}
+	
+	
+	
+	/**
+	* Initializes data and all the game objects.
+	*
+	*/
+	public void init()
+	{
+		if (level == null)
+		{
+			level	= readDefaultLevel();
+		}
+		
+		levelSize		= level.getSize();
+		gravity.set(level.getGravityX(), level.getGravityY());
+		spawnPoints		= level.getSpawnPoints();
+		
+		if (spawnPoints.length == 0)
+		{
+			spawnPoints	= new Point[] { new Point(getWorldWidth() / 2, getWorldHeight() / 2) };
+		}
+		
+		players			= new Player[playerCount];
+		ships			= new Ship[playerCount];
+		
+		// The ship of player i is entity i
+		entities		= new EntityStore(playerCount);
+		
+		for (int i = 0; i < playerCount; i++)
+		{
+			players[i]	= new Player("Player" + (i + 1), 
+									 PLAYER_COLORS[i % PLAYER_COLORS.length]);
+			ships[i]	= new Ship(players[i], getSpawnPoint(i), entities);
+			
+			players[i].setShip(ships[i]);
+		}
+		
+		// Movement shit
+		input			= new int[playerCount];
+		random.reset();
+		replay			= null;
+                    	
+		passengers		= new ArrayList();
+
+		// New inactors each round so that the platforms start out empty
+		inactors		= level.createInactors();
+		staticLayerVersion++;
+		
+		freePlatforms	= new PlatformPool();
+		
+		for (int i = 0; i < inactors.size(); i++)
+		{
+			if (inactors.get(i) instanceof Platform)
+			{
+				freePlatforms.add((Platform) inactors.get(i));
+			}
+		}
+		
+		buildBroadphase();
+	}
+	
+	
+	/**
+	* Adds an inactor to the world. Must be called after <code>init()</code>.
+	*
+	* @param	inactor		the inactor
+	*/
+	public void addInactor(Inactor inactor)
+	{
+		inactors.add(inactor);
+		staticLayerVersion++;
+		broadphase.add(inactor, inactor.getBounds(inactorBounds));
+		
+		if (inactor instanceof Platform)
+		{
+			freePlatforms.add((Platform) inactor);
+		}
+	}
+	
+	
+	/**
+	* Adds a player to the game and gives it a ship. Must be called after 
+	* <code>init()</code>.
+	*
+	* @param	player		the player
+	* @param	position	where the player's ship starts
+	*/
+	public void addPlayer(Player player, Point position)
+	{
+		Ship		ship		= new Ship(player, position, entities);
+		int			count		= players.length;
+		Player[]	grown		= new Player[count + 1];
+		Ship[]		grownShips	= new Ship[count + 1];
+		
+		player.setShip(ship);
+		
+		System.arraycopy(players, 0, grown, 0, count);
+		grown[count]	= player;
+		players			= grown;
+		
+		System.arraycopy(ships, 0, grownShips, 0, count);
+		grownShips[count]	= ship;
+		ships				= grownShips;
+		
+		input			= grow(input);
+		
+		broadphase.add(ship, getCollisionArea(count, area));
+	}
+	
+	
+	/**
+	* Sets the number of players <code>init()</code> creates.
+	*
+	* @param	count		number of players
+	*/
+	public void setPlayerCount(int count)
+	{
+		playerCount	= count;
+	}
+	
+	
+	/**
+	* Sets the level to play. Takes effect on the next <code>init()</code>.
+	*
+	* @param	level		the level
+	*/
+	public void setLevel(Level level)
+	{
+		this.level	= level;
+	}
+	
+	
+	/**
+	* Returns the level being played.
+	*
+	* @return				the level, or <em>null</em> before the first 
+	*						<code>init()</code> if none was set
+	*/
+	public Level getLevel()
+	{
+		return level;
+	}
+	
+	
+	/**
+	* Reads the default level, or returns an empty one if it can't be read.
+	*
+	*/
+	private static Level readDefaultLevel()
+	{
+		try
+		{
+			return Level.readDefault();
+		}
+		catch (IOException e)
+		{
+			System.err.println("Couldn't read the level: " + e);
+			
+			return new Level();
+		}
+	}
+	
+	
+	/**
+	* Returns where the ship of a player starts. If there are more players 
+	* than spawn points in the level the ships are lined up to the right of 
+	* them.
+	*
+	* @param	player		index of the player
+	* @return				the spawn point
+	*/
+	public Point getSpawnPoint(int player)
+	{
+		Point	p	= new Point(spawnPoints[player % spawnPoints.length]);
+		
+		p.translate((player / spawnPoints.length) * SPAWN_SPACING, 0);
+		
+		return p;
+	}
+	
+	
+	/**
+	* Returns a copy of an array with one more element.
+	*
+	*/
+	private static int[] grow(int[] a)
+	{
+		int[]	grown	= new int[a.length + 1];
+		
+		System.arraycopy(a, 0, grown, 0, a.length);
+		
+		return grown;
+	}
+	
+	
+	/**
+	* Registers all inactors and ships in a new broadphase.
+	*
+	*/
+	private void buildBroadphase()
+	{
+		broadphase	= new SpatialHash(cellSize);
+		
+		// Inactors never move so they are only added once
+		for (int i = 0; i < inactors.size(); i++)
+		{
+			Inactor	inactor	= (Inactor) inactors.get(i);
+			
+			broadphase.add(inactor, inactor.getBounds(inactorBounds));
+		}
+		
+		for (int i = 0; i < ships.length; i++)
+		{
+			broadphase.add(ships[i], getCollisionArea(i, area));
+		}
+	}
+	
+	
+	/**
+	* Returns the area a ship may collide within, i.e. its bounds and its 
+	* shield.
+	*
+	* @param	id			entity id of the ship
+	* @param	r			rectangle to store the area in
+	* @return				<code>r</code>
+	*/
+	private Rectangle getCollisionArea(int id, Rectangle r)
+	{
+		r.setBounds((int) entities.getX()[id], (int) entities.getY()[id],
+					entities.getWidth()[id], entities.getHeight()[id]);
+		
+		int	radius	= entities.getRadius()[id];
+		int	x		= r.x + r.width / 2;
+		int	y		= r.y + r.height / 2;
+		
+		r.add(x - radius, y - radius);
+		r.add(x + radius, y + radius);
+		
+		return r;
+	}
+	
+	
+	/**
+	* Returns the area a ship may have collided within during the tick, i.e.
+	* its collision area both where it started and where it is.
+	*
+	* @param	id			entity id of the ship
+	* @param	r			rectangle to store the area in
+	* @return				<code>r</code>
+	*/
+	private Rectangle getSweptArea(int id, Rectangle r)
+	{
+		getCollisionArea(id, r);
+		
+		if (hasWrapped(id))
+		{
+			return r;
+		}
+		
+		int	dx	= (int) entities.getPreviousX()[id] - (int) entities.getX()[id];
+		int	dy	= (int) entities.getPreviousY()[id] - (int) entities.getY()[id];
+		int	x1	= r.x + r.width;
+		int	y1	= r.y + r.height;
+		
+		r.add(r.x + dx, r.y + dy);
+		r.add(x1 + dx, y1 + dy);
+		
+		return r;
+	}
+	
+	
+	/**
+	* Tells if a ship has wrapped around the screen this tick, in which case
+	* it didn't travel the line from where it started and isn't swept.
+	*
+	* @param	id			entity id of the ship
+	* @return				<em>true</em> if it has moved further than it can
+	*/
+	private boolean hasWrapped(int id)
+	{
+		// Moves are rounded, and lifting off moves the ship a little extra
+		double	limit	= ShipMovement.MAX_SPEED + 4;
+		
+		return (Math.abs(entities.getX()[id] - entities.getPreviousX()[id]) > limit) ||
+			   (Math.abs(entities.getY()[id] - entities.getPreviousY()[id]) > limit);
+	}
+	
+	
+	/**
+	* Moves a ship back along its path during the tick.
+	*
+	* @param	id			entity id of the ship
+	* @param	t			how far along the path, from 0 (where it started)
+	*						to 1 (where it is)
+	*/
+	private void rewind(int id, double t)
+	{
+		double[]	x		= entities.getX(),
+					y		= entities.getY(),
+					prevX	= entities.getPreviousX(),
+					prevY	= entities.getPreviousY();
+		
+		x[id]	= prevX[id] + t * (x[id] - prevX[id]);
+		y[id]	= prevY[id] + t * (y[id] - prevY[id]);
+	}
+	
+	
+	/**
+	* Sets the cell size of the collision broadphase. Larger cells mean fewer 
+	* cells to update but more pairs to test in detail.
+	*
+	* @param	size		cell width and height in pixels
+	*/
+	public void setBroadphaseCellSize(int size)
+	{
+		cellSize	= size;
+		
+		if (broadphase != null)
+		{
+			buildBroadphase();
+		}
+	}
+	
+	
+	/**
+	* Returns the collision broadphase, e.g. to read its pair statistics.
+	*
+	* @return				the broadphase
+	*/
+	public SpatialHash getBroadphase()
+	{
+		return broadphase;
+	}
+	
+	
+	/**
+	* Returns the state of the ships, e.g. to save and restore it.
+	*
+	* @return				the entity store
+	*/
+	public EntityStore getEntities()
+	{
+		return entities;
+	}
+	
+	
+	/**
+	* Runs the game. The world is simulated in fixed steps of 
+	* <code>1 / {@link #TICKS_PER_SECOND}</code> seconds no matter how often the
+	* screen is painted; the time left over between two ticks is handed to the
+	* renderer as an interpolation factor. Frames are painted on their own
+	* schedule, <code>{@link #FRAMES_PER_SECOND}</code> times a second.
+	*
+	*/
+	public void run()
+	{
+		long	lastTime	= System.nanoTime();
+		long	lag			= 0;
+		long	lastFrame	= 0;
+		long	nextFrame	= lastTime;
+		
+		while (isRunning)
+		{
+			long	now		= System.nanoTime();
+			
+			lag			+= now - lastTime;
+			lastTime	= now;
+			
+			// Catch up with the wall clock
+			for (int steps = 0; (lag >= TICK_NANOS) && (steps < MAX_TICKS_PER_FRAME); steps++)
+			{
+				update();
+				lag	-= TICK_NANOS;
+			}
+			
+			// Too far behind; drop the rest rather than trying to catch up
+			if (lag >= TICK_NANOS)
+			{
+				lag	%= TICK_NANOS;
+			}
+			
+			// Paint the playscreen from this thread
+			interpolation	= (double) lag / TICK_NANOS;
+			
+			if (lastFrame != 0)
+			{
+				frameIntervalTimer.record(now - lastFrame);
+			}
+			
+			lastFrame	= now;
+			playScreen.renderFrame();
+			
+			// Sleep until the next frame is due; if painting has fallen 
+			// behind, paint the next one at once and go on from there
+			nextFrame	+= FRAME_NANOS;
+			
+			long	sleep	= nextFrame - System.nanoTime();
+			
+			if (sleep <= 0)
+			{
+				nextFrame	= System.nanoTime();
+			}
+			else
+			{
+				try
+				{
+					Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
+				}
+				catch(InterruptedException e)
+				{
+					System.err.println(e);
+				}
+			}
+		}
+	}
+	
+	
+	/**
+	* Simulates a number of ticks at once, as fast as possible.
+	*
+	* @param	n			number of ticks
+	*/
+	public void step(int n)
+	{
+		for (int i = 0; i < n; i++)
+		{
+			update();
+		}
+	}
+	
+	
+	/**
+	* Returns the number of ticks simulated since the engine was started.
+	*
+	* @return				tick count
+	*/
+	public long getTicks()
+	{
+		return ticks;
+	}
+	
+	
+	/**
+	* Starts the engine (game).
+	*
+	*/
+	public void start()
+	{
+		ticks			= 0;
+		dTime			= 0;
+		isRunning		= true;
+		lastPassengerSpawnTime = dTime;
+
+		// Initialize
+		if(passengers == null)
+		{
+			init();
+		}
+		
+		// Record the game so that it can be replayed
+		record();
+
+		gameLoop = new Thread(this);
+		gameLoop.start();
+	}
+	
+	
+	/**
+	* Stops the engine.
+	*
+	*/
+	public void stop()
+	{
+		isRunning	= false;
+		gameLoop 	= null;
+	}
+	
+
+	/**
+	* Render paints the objects, interpolated between the last two ticks.
+	*
+	* @param	g			graphics context
+	*/
+	public void render(Graphics2D g)
+	{
+		render(g, interpolation);
+	}
+	
+	
+	/**
+	* Render paints the objects.
+	*
+	* @param	g			graphics context
+	* @param	alpha		how far (0 to 1) between the previous and the 
+	*						current tick the moving objects are painted
+	*/
+	public void render(Graphics2D g, double alpha)
+	{	
+		renderStatic(g);
+		renderDynamic(g, alpha);
+	}
+	
+	
+	/**
+	* Paints the parts of the world which don't change during a round, i.e. 
+	* the static parts of the inactors.
+	*
+	* @param	g			graphics context
+	* @see		#getStaticLayerVersion()
+	*/
+	public void renderStatic(Graphics2D g)
+	{
+		for(int i = 0; i < inactors.size(); i++)
+		{
+			((Inactor) inactors.get(i)).paintStatic(g);
+		}
+	}
+	
+	
+	/**
+	* Paints everything but the static parts, interpolated between the last 
+	* two ticks.
+	*
+	* @param	g			graphics context
+	*/
+	public void renderDynamic(Graphics2D g)
+	{
+		renderDynamic(g, interpolation);
+	}
+	
+	
+	/**
+	* Paints everything but the static parts.
+	*
+	* @param	g			graphics context
+	* @param	alpha		how far (0 to 1) between the previous and the 
+	*						current tick the moving objects are painted
+	*/
+	public void renderDynamic(Graphics2D g, double alpha)
+	{	
+		// Paint the dynamic parts of the inactors (arrows)
+		for(int i = 0; i < inactors.size(); i++)
+		{
+			((Inactor) inactors.get(i)).paintDynamic(g);
+		}
+		
+		// Paint all passengers
+		for (int i = 0; i < passengers.size(); i++)
+		{
+			Passenger	passenger	= (Passenger) passengers.get(i);
+			
+			passenger.setInterpolation(alpha);
+			passenger.paint(g);
+		}
+		
+		// Paint all ships
+		for (int i = 0; i < players.length; i++)
+		{
+			Ship	ship	= players[i].getShip();
+			
+			ship.setInterpolation(alpha);
+			ship.paint(g);
+		}
+	}
+
+	/**
+	* Returns a number which changes whenever what 
+	* <code>{@link #renderStatic(Graphics2D)}</code> paints does, e.g. on a 
+	* new level.
+	*
+	* @return				version of the static layer
+	*/
+	public int getStaticLayerVersion()
+	{
+		return staticLayerVersion;
+	}
+	
+	
+	/**
+	* Advances the world one tick.
+	*
+	*/
+	private void update()
+	{
+		ticks++;
+		dTime = ticks * 1000 / TICKS_PER_SECOND;
+		dSecsSincePassengerSpawn = (int)Math.round(
+									 (dTime - lastPassengerSpawnTime) / 1000.0);
+
+		long	start	= System.nanoTime();
+		long	time	= start;
+		
+		// Sample the input once so that the whole tick sees the same
+		for (int i = 0; i < players.length; i++)
+		{
+			input[i]	= players[i].getInput();
+		}
+		
+		if (replay != null)
+		{
+			replay.record(ticks, input);
+		}
+		
+		updateShipPositions();
+		time	= shipPositionsTimer.stop(time);
+		
+		updatePassengers();
+		time	= passengersTimer.stop(time);
+		//collisionDetect();
+
+		resolveCollisions();
+		time	= collisionsTimer.stop(time);
+		//newPassengerPlatformSelect();
+
+		spawnPassenger();
+		time	= spawnTimer.stop(time);
+		// kolla efter "osynliga" object och ta bort dem?
+		
+		removeDeadActors();
+		deadActorsTimer.stop(time);
+		
+		if ((replay != null) && replay.isCheckpoint(ticks))
+		{
+			replay.checkpoint(ticks, getStateHash());
+		}
+		
+		tickTimer.stop(start);
+	}
+	
+	
+	/**
+	* Returns an array of players.
+	*
+	* @return				the players
+	*/
+	public Player[] getPlayers()
+	{
+		return players;
+	}
+	
+	
+	/**
+	* Handles the removal of dead/inactive actors.
+	*
+	*/
+	public void removeDeadActors()
+	{
+		int[]	energy	= entities.getEnergy();
+		
+		for (int i = 0; i < entities.size(); i++)
+		{
+			if (energy[i] <= 0)
+			{
+				// ships[i].implode();
+			}
+		}
+	}
+
+	/**
+	* Updates ship positions and motion vectors.
+	*
+	*/
+	private void updateShipPositions()
+	{
+		double[]	x		= entities.getX(),
+					y		= entities.getY(),
+					motionX	= entities.getMotionX(),
+					motionY	= entities.getMotionY();
+		int[]		flags	= entities.getFlags();
+		int			width	= getWorldWidth();
+		int			height	= getWorldHeight();
+		
+		for (int i = 0; i < entities.size(); i++)
+		{
+			boolean	landed	= (flags[i] & EntityStore.LANDED) != 0;
+			int		moves	= input[i];
+			
+			motion.set(motionX[i], motionY[i]);
+			entities.rememberPosition(i);
+			ships[i].updateShield();
+		
+			// Affect ship movement vector
+			if (((moves & INPUT_LEFT) != 0) && !landed)		motion.addLocal(ShipMovement.LEFT);
+			if (((moves & INPUT_RIGHT) != 0) && !landed)	motion.addLocal(ShipMovement.RIGHT);
+			if (((moves & INPUT_DOWN) != 0) && !landed)		motion.addLocal(ShipMovement.DOWN);
+			
+			// When the ship throttles then the image should be updated
+			try
+			{
+				if ((moves & INPUT_UP) != 0)
+				{
+					motion.addLocal(ShipMovement.UP);
+					
+					if (landed)
+						ships[i].liftOff();
+					
+					ships[i].setState("thrust");
+				}
+				else
+				{
+					ships[i].setState("default");
+				}
+				
+				ships[i].nextFrame();
+			}
+			catch (NoSuchStateException e)
+			{
+				System.out.println(e);
+			}
+			
+			
+			// Apply gravity
+			motion.addLocal(gravity);
+			
+			// Speed limit
+			if (motion.getLength() > ShipMovement.MAX_SPEED)
+			{
+				motion.toLengthLocal(ShipMovement.MAX_SPEED);
+			}
+
+			// Alter movement
+			motionX[i]	= motion.getX();
+			motionY[i]	= motion.getY();
+				
+			// Move ship
+			double	px	= x[i] + Math.round(motion.getX());
+			double	py	= y[i] + Math.round(motion.getY());
+
+			// Wrap around screen
+			if(px > width)	px = 0;
+			if(px < 0)		px = width;
+			if(py > height)	py = 0;
+			if(py < 0)		py = height;
+
+			// Set new position
+			x[i]	= px;
+			y[i]	= py;
+		}
+	}
+	
+	
+	/**
+	* Lets the passengers walk around on their platforms.
+	*
+	*/
+	private void updatePassengers()
+	{
+		for (int i = 0; i < passengers.size(); i++)
+		{
+			Passenger	passenger	= (Passenger) passengers.get(i);
+			
+			passenger.rememberPosition();
+			passenger.update();
+		}
+	}
+	
+	
+	/**
+	* Spawns a passenger 
+	*
+	*/
+	private void spawnPassenger()
+	{
+		if ((dSecsSincePassengerSpawn >= 5) && (passengers.size() < players.length))
+		{			
+			Platform	source		= freePlatforms.draw(random);
+			Platform	destination	= freePlatforms.draw(random, source);
+			
+			// Too few free platforms; try again next tick
+			if (destination == null)
+			{
+				return;
+			}
+			
+			
+			// Notify destination platform that it's a destination
+			destination.setDestination(true);
+        	
+			// Create passenger					
+			Passenger	passenger	= new Passenger(source, destination, random);
+        	
+			//Tell the source platform which it's passenger.
+			source.setPassenger(passenger);
+			
+			// Add passenger to list of passengers
+			passengers.add(passenger);
+			
+			// Show passenger
+			passenger.setVisible(true);
+			
+			lastPassengerSpawnTime = dTime;
+			
+			// Drawn even when headless so that the game plays out the same
+			playEffect("Taxi" + (random.nextInt(3) + 1));
+		}
+	}
+	
+
+	/**
+	* Returns the platforms passengers can currently be spawned on or sent to.
+	*
+	* @return				the free platforms
+	*/
+	public PlatformPool getFreePlatforms()
+	{
+		return freePlatforms;
+	}
+
+
+	/**
+	* Sets a reference to which screen to update.
+	*
+	* @param	playScreen	the play screen
+	*/
+	public void setPlayScreen(PlayScreen playScreen)
+	{
+		this.playScreen = playScreen;
+	}
+	
+	
+	/**
+	* Returns the width of the world, i.e. of the level unless given to the
+	* constructor. The play screen scales the world to fit. Only valid after
+	* <code>init()</code> unless given.
+	*
+	* @return				world width
+	*/
+	public int getWorldWidth()
+	{
+		return (worldSize != null) ? worldSize.width : levelSize.width;
+	}
+	
+	
+	/**
+	* Returns the height of the world, i.e. of the level unless given to the
+	* constructor. The play screen scales the world to fit. Only valid after
+	* <code>init()</code> unless given.
+	*
+	* @return				world height
+	*/
+	public int getWorldHeight()
+	{
+		return (worldSize != null) ? worldSize.height : levelSize.height;
+	}
+	
+	
+	/**
+	* Plays a sound effect unless running headless.
+	*
+	* @param	key			name of the effect
+	*/
+	private void playEffect(String key)
+	{
+		if (audio != null)
+		{
+			audio.playEffect(key, false);
+		}
+	}
+
+
+	/**
+	* Lands a ship on a specific platform.
+	*
+	* @param	s			ship to land
+	* @param	pf			the platform
+	*/
+	public void land(Ship s, Platform pf)
+	{
+		s.land();
+		Player player = s.getOwner();
+		
+		if (pf instanceof RefuelPlatform)
+		{
+			// Fill the player with the special sauce
+			((RefuelPlatform) pf).refuel(s);
+		}
+		else 
+		{
+			if (pf.isInhabited() && !s.hasPassenger())
+			{
+				Passenger	p	= pf.getPassenger();
+				
+				// Add passenger to ship
+				s.pickUpPassenger(p);
+				//pf.setInhabited(false);
+				pf.setPassenger(null);
+				p.setVisible(false);
+				
+				// Show arrow @ the passenger's destination platform
+				p.getDestination().showArrow(player.getArrow());
+			}
+			
+			// Check for a passenger dropoff
+			if (s.hasPassenger() && s.getPassenger().getDestination() == pf)
+			{
+				pf.setDestination(false);
+				Passenger	p	= s.getPassenger();
+
+				// Remove it from the list of passengers
+				passengers.remove(s.getPassenger());
+				
+				// Let the passenger out of the ship
+				s.dropOffPassenger();
+				
+				lastPassengerSpawnTime = dTime;				
+				
+				pf.setDestination(false);
+				
+				// Hide arrow above platform
+				pf.hideArrow();
+				
+				// Reward the player
+				player.addScore(1);
+				player.addCredits(100);
+				
+				if (audio != null)
+				{
+					audio.playStream("thankYou", false);
+				}
+			}
+		}
+	}
+
+
+	/**
+	* Sets all input of a player at once. It takes effect from the next tick.
+	*
+	* @param	player		index of the player
+	* @param	mask		<code>INPUT_*</code> bits
+	*/
+	public void setInput(int player, int mask)
+	{
+		players[player].setInput(mask);
+	}
+	
+	
+	/**
+	* Returns the input of a player.
+	*
+	* @param	player		index of the player
+	* @return				<code>INPUT_*</code> bits
+	*/
+	public int getInput(int player)
+	{
+		return players[player].getInput();
+	}
+	
+	
+	/**
+	* Gives the engine a new random generator. Takes effect on the next 
+	* <code>init()</code>, which restarts it from its seed.
+	*
+	* @param	random		the random generator
+	*/
+	public void setRandom(RandomSource random)
+	{
+		this.random	= random;
+	}
+	
+	
+	/**
+	* Returns the random generator.
+	*
+	* @return				the random generator
+	*/
+	public RandomSource getRandom()
+	{
+		return random;
+	}
+	
+	
+	/**
+	* Gives the engine a new random generator with a specific seed. Takes 
+	* effect on the next <code>init()</code>.
+	*
+	* @param	seed		the seed
+	*/
+	public void setSeed(long seed)
+	{
+		setRandom(new RandomSource(seed));
+	}
+	
+	
+	/**
+	* Returns the seed of the random generator.
+	*
+	* @return				the seed
+	*/
+	public long getSeed()
+	{
+		return random.getSeed();
+	}
+	
+	
+	/**
+	* Starts recording the game from the current tick, which should be the 
+	* first. <code>start()</code> does this; headless engines which are 
+	* stepped need to call it themselves.
+	*
+	* @return				the replay being recorded
+	*/
+	public Replay record()
+	{
+		replay	= new Replay(random.getSeed(), new Dimension(getWorldWidth(), getWorldHeight()),
+							 players.length);
+		replay.setLevel(level.getName(), level.getChecksum());
+		
+		return replay;
+	}
+	
+	
+	/**
+	* Returns the replay being recorded.
+	*
+	* @return				the replay, or <em>null</em> if nothing has been 
+	*						recorded since <code>init()</code>
+	*/
+	public Replay getReplay()
+	{
+		return replay;
+	}
+	
+	
+	/**
+	* Returns a hash of the state of the game: the ships, the passengers and
+	* the players' scores. Two games with equal hashes at the same tick have
+	* played out the same.
+	*
+	* @return				state hash
+	*/
+	public long getStateHash()
+	{
+		double[]	x		= entities.getX(),
+					y		= entities.getY(),
+					motionX	= entities.getMotionX(),
+					motionY	= entities.getMotionY();
+		int[]		energy	= entities.getEnergy(),
+					flags	= entities.getFlags();
+		long		hash	= ticks;
+		
+		for (int i = 0; i < entities.size(); i++)
+		{
+			hash	= hash * 31 + Double.doubleToLongBits(x[i]);
+			hash	= hash * 31 + Double.doubleToLongBits(y[i]);
+			hash	= hash * 31 + Double.doubleToLongBits(motionX[i]);
+			hash	= hash * 31 + Double.doubleToLongBits(motionY[i]);
+			hash	= hash * 31 + energy[i];
+			hash	= hash * 31 + flags[i];
+		}
+		
+		for (int i = 0; i < passengers.size(); i++)
+		{
+			Passenger	passenger	= (Passenger) passengers.get(i);
+			Point		p			= passenger.getPosition(position);
+			
+			hash	= hash * 31 + p.x;
+			hash	= hash * 31 + p.y;
+			hash	= hash * 31 + inactors.indexOf(passenger.getSource());
+			hash	= hash * 31 + inactors.indexOf(passenger.getDestination());
+		}
+		
+		for (int i = 0; i < players.length; i++)
+		{
+			hash	= hash * 31 + players[i].getScore();
+			hash	= hash * 31 + players[i].getCredits();
+		}
+		
+		return hash;
+	}
+
+	
+	/**
+	* Detects and resolves collisions in the world. Public so that it can be
+	* benchmarked on its own; the engine calls it every tick.
+	*
+	*/
+	
+	// http://www.gamasutra.com/features/20020118/vandenhuevel_01.htm
+	// http://www.gamedev.net/reference/articles/article1026.asp
+	
+	public void resolveCollisions()
+	{
+		double[]	x		= entities.getX(),
+					y		= entities.getY(),
+					prevX	= entities.getPreviousX(),
+					prevY	= entities.getPreviousY(),
+					motionX	= entities.getMotionX(),
+					motionY	= entities.getMotionY();
+		int[]		width	= entities.getWidth(),
+					height	= entities.getHeight(),
+					radius	= entities.getRadius(),
+					energy	= entities.getEnergy(),
+					flags	= entities.getFlags();
+		
+		// Move the ships in the broadphase
+		for (int i = 0; i < entities.size(); i++)
+		{
+			broadphase.update(ships[i], getSweptArea(i, area));
+		}
+		
+		// Go through each ship
+		for (int i = 0; i < entities.size(); i++)
+		{
+			Ship	ship	= ships[i];
+			
+			center.setLocation((int) x[i] + width[i] / 2, (int) y[i] + height[i] / 2);
+			
+			// Find ships and inactors nearby
+			broadphase.query(getSweptArea(i, area), ship, candidates);
+			
+			// Check collision between current and other ships
+			for (int j = 0; j < candidates.size(); j++)
+			{
+				if (!(candidates.get(j) instanceof Ship))	continue;
+				
+				Ship		ship2		= (Ship) candidates.get(j);
+				int			k			= ship2.getEntityId();
+				
+				// Each pair is only handled once, by the first ship
+				if (k < i)	continue;
+				
+				// Skip collisions when one of the ship has landed
+				if (((flags[i] | flags[k]) & EntityStore.LANDED) != 0)	continue;
+				
+				center2.setLocation((int) x[k] + width[k] / 2, (int) y[k] + height[k] / 2);
+				
+				double		distance	= center.distance(center2);
+				boolean		hit			= distance <= (radius[i] + radius[k]);
+				
+				if (!hit)
+				{
+					// They may have met and passed each other during the tick
+					double	t	= sweep(i, k, radius[i] + radius[k]);
+					
+					if (t >= 0)
+					{
+						// Move both back to where they met
+						rewind(i, t);
+						rewind(k, t);
+						
+						center.setLocation((int) x[i] + width[i] / 2, (int) y[i] + height[i] / 2);
+						center2.setLocation((int) x[k] + width[k] / 2, (int) y[k] + height[k] / 2);
+						
+						hit	= true;
+					}
+				}
+				
+				if (hit)
+				{					
+					// Collision between two ships
+					
+					/*	Lagen om rörelsemängdens bevarande:
+						
+						m och M är massa
+						u, u', v och v' är rörelse(vektorer)
+						
+							mv + Mu = mv' + Mu'
+							
+						Massorna, m och M, är samma för båda skeppen, dvs
+						
+							v + u = v' + u'									  */
+					// Get motion vectors for both ships
+					Vector2D	v1		= motion.set(motionX[i], motionY[i]);
+					Vector2D	v2		= motion2.set(motionX[k], motionY[k]);
+					
+					// The line of contact runs from one centerpoint to the 
+					// other; normalize it
+					n.set(center.x - center2.x, center.y - center2.y).normalizeLocal();
+					
+					// Get length of the ship's motion vectors projected on the
+					// line of contact
+					double		a1		= v1.dot(n);
+					double		a2		= v2.dot(n);
+						
+					/*	P är "längden" på kraften längs kontaktlinjen,					
+							P		= 2 * m * M * (a1 - a2) / (m + M)
+									= 2 * m^2 * (a1 - a2) / 2m
+									= m * (a1 - a2),
+						och
+							v'		= v ± (P / m) * n,						
+						dvs						
+							v'		= v ± (a1 - a2) * n.
+													
+						force	= (a1 - a2) * n.							  */					
+					Vector2D	force	= n.multiplyLocal(a1 - a2);
+					
+					// Set a minimum value to the force vector
+					if (force.getLength() < 1)
+					{
+						force.toLengthLocal(1);
+					}
+					
+					// Add or remove the force at contact
+					v1.subtractLocal(force);
+					v2.addLocal(force);
+					
+					entities.setMotion(i, v1.getX(), v1.getY());
+					entities.setMotion(k, v2.getX(), v2.getY());
+					
+					// Inflict damage
+					energy[i]	+= (int) -force.getLength();
+					energy[k]	+= (int) -force.getLength();
+					
+					// Activate both shields
+					ship.setShielded(true);
+					ship2.setShielded(true);
+					
+					playEffect("shieldBump");					
+				}
+			} // !for each (other) ship
+			
+			
+			// Ship - Inactor collision
+			
+			// Sweep the ship along its path first, so that a fast ship which
+			// has passed through an inactor during the tick is caught where
+			// it hit it
+			Inactor	swept	= null;
+			
+			if (((x[i] != prevX[i]) || (y[i] != prevY[i])) && !hasWrapped(i))
+			{
+				double	first		= 2,
+						contactY	= 0,
+						c0x			= prevX[i] + width[i] / 2,
+						c0y			= prevY[i] + height[i] / 2,
+						dx			= x[i] - prevX[i],
+						dy			= y[i] - prevY[i];
+				
+				for (int m = 0; m < candidates.size(); m++)
+				{
+					if (!(candidates.get(m) instanceof Inactor))	continue;
+					
+					Inactor	inactor	= (Inactor) candidates.get(m);
+					
+					// The area still holds the ship's swept area
+					if (!area.intersects(inactor.getBounds(inactorBounds)))	continue;
+					
+					double	t		= sweep(inactor.getEdges(), c0x, c0y, dx, dy, radius[i]);
+					
+					if ((t >= 0) && (t < first))
+					{
+						first		= t;
+						swept		= inactor;
+						contactY	= sweepY;
+						normal.set(sweepNormal.getX(), sweepNormal.getY());
+					}
+				}
+				
+				if (swept != null)
+				{
+					rewind(i, first);
+					
+					center.setLocation((int) x[i] + width[i] / 2, (int) y[i] + height[i] / 2);
+					swept.getBounds(inactorBounds);
+					touch(i, swept, (int) Math.round(contactY));
+				}
+			}
+			
+			shipBounds.setBounds((int) x[i], (int) y[i], width[i], height[i]);
+			
+			for (int m = 0; m < candidates.size(); m++)
+			{
+				if (!(candidates.get(m) instanceof Inactor))	continue;
+				
+				Inactor		inactor	= (Inactor) candidates.get(m);
+				
+				// Already resolved by the sweep
+				if (inactor == swept)	continue;
+				
+				if (shipBounds.intersects(inactor.getBounds(inactorBounds)))
+				{
+					// We probably have an intersection
+					
+					// Find the point of the outline closest to the center of
+					// the ship, and the normal there
+					Edges		edges		= inactor.getEdges();
+					int[]		startX		= edges.getStartX(),
+								startY		= edges.getStartY(),
+								endX		= edges.getEndX(),
+								endY		= edges.getEndY();
+					double[]	dirX		= edges.getDirectionX(),
+								dirY		= edges.getDirectionY(),
+								length		= edges.getLength(),
+								normalX		= edges.getNormalX(),
+								normalY		= edges.getNormalY();
+					int			cx			= center.x,
+								cy			= center.y,
+								closestX	= startX[0],
+								closestY	= startY[0],
+								testX,
+								testY;
+					
+					// Distances are compared squared, which needs no root
+					long		closest		= distanceSq(cx, cy, closestX, closestY);
+					
+					for (int k = 0; k < edges.size(); k++)
+					{
+						// The distance along the edge to the point closest to
+						// the center of the ship
+						double	factor	= dirX[k] * (cx - startX[k]) + 
+										  dirY[k] * (cy - startY[k]);
+						boolean	corner	= (factor < 0) || (factor > length[k]);
+						
+						if (factor < 0)
+						{
+							// Closest point lies outside the start of the edge
+							testX	= startX[k];
+							testY	= startY[k];
+						}
+						else if (factor > length[k])
+						{
+							// Closest point lies outside the end of the edge
+							testX	= endX[k];
+							testY	= endY[k];
+						}
+						else
+						{
+							testX	= startX[k] + (int) (dirX[k] * factor);
+							testY	= startY[k] + (int) (dirY[k] * factor);
+						}
+						
+						long	d	= distanceSq(cx, cy, testX, testY);
+						
+						// Test if the closest point on the edge is the closest
+						// of each edge
+						if (d <= closest)
+						{
+							closest		= d;
+							closestX	= testX;
+							closestY	= testY;
+							
+							if (corner)
+							{
+								// The ship hits a vertex; the normal points from
+								// it to the center
+								normal.set(cx - closestX, cy - closestY).normalizeLocal();
+							}
+							else
+							{
+								normal.set(normalX[k], normalY[k]);
+							}
+						}
+					} // !for each edge
+				
+					// Collision between circle and plane
+					if (closest <= (long) radius[i] * radius[i])
+					{
+						touch(i, inactor, closestY);
+					}
+				} // !if bounds intersect
+			} // !for each inactor
+		} // !for each player
+	}
+	
+	
+	/**
+	* Lands a ship which touches an inactor, or bounces it off. 
+	* <code>center</code> must hold the center of the ship,
+	* <code>inactorBounds</code> the bounds of the inactor and
+	* <code>normal</code> the normal at the point of contact.
+	*
+	* @param	id			entity id of the ship
+	* @param	inactor		the inactor
+	* @param	contactY	y position of the point of contact
+	*/
+	private void touch(int id, Inactor inactor, int contactY)
+	{
+		Ship	ship	= ships[id];
+		
+		motion.set(entities.getMotionX()[id], entities.getMotionY()[id]);
+		
+		// Land the ship if the ship's velocity is lower than 2
+		// _and_ the ship is above the platform
+		if ((inactor instanceof Platform) &&
+			(motion.getLength() < 2) && 
+			(center.y < contactY) && 
+			(center.x > inactorBounds.x) && 
+			(center.x < inactorBounds.width + inactorBounds.x))
+		{
+			land(ship, (Platform) inactor);
+		}
+		
+		// Bounce if the ship hasn't landed
+		if ((entities.getFlags()[id] & EntityStore.LANDED) == 0)
+		{
+			playEffect("shieldBump");						
+		
+			// Inflict damage upon ship
+			entities.getEnergy()[id]	+= (int) -motion.getLength();
+			
+			// Change the motion vector
+			motion.mirrorLocal(normal);
+			entities.setMotion(id, motion.getX(), motion.getY());
+			ship.setShielded(true);
+		}
+	}
+	
+	
+	/**
+	* Sweeps a ship's circle along its path against the outline of an 
+	* inactor, i.e. against each edge moved out by the radius and against a
+	* circle around each vertex. On a hit the y position of the point of
+	* contact is left in <code>sweepY</code> and the normal there in
+	* <code>sweepNormal</code>.
+	*
+	* @param	edges		edges of the inactor
+	* @param	cx			x position of the ship's center where it started
+	* @param	cy			y position of the ship's center where it started
+	* @param	dx			horizontal distance travelled
+	* @param	dy			vertical distance travelled
+	* @param	r			radius of the ship
+	* @return				how far along the path the ship first touches the
+	*						outline, from 0 to 1, or -1 if it doesn't or already
+	*						overlapped it where it started
+	*/
+	private double sweep(Edges edges, double cx, double cy, double dx, double dy, double r)
+	{
+		int[]		startX		= edges.getStartX(),
+					startY		= edges.getStartY();
+		double[]	dirX		= edges.getDirectionX(),
+					dirY		= edges.getDirectionY(),
+					length		= edges.getLength(),
+					normalX		= edges.getNormalX(),
+					normalY		= edges.getNormalY();
+		double		first		= 2;
+		boolean		inside		= true;
+		
+		for (int k = 0; k < edges.size(); k++)
+		{
+			double	sx		= cx - startX[k],
+					sy		= cy - startY[k];
+			
+			// Signed distance from the line of the edge, positive outside
+			double	d0		= normalX[k] * sx + normalY[k] * sy;
+			
+			if (d0 > 0)	inside	= false;
+			
+			// Already overlapping the edge where it started; that is left to
+			// the test at the end of the tick. Just touching it is swept, 
+			// since the bounds of the two then don't intersect
+			double	factor	= Math.max(0, Math.min(length[k], dirX[k] * sx + dirY[k] * sy));
+			double	ex		= sx - dirX[k] * factor,
+					ey		= sy - dirY[k] * factor;
+			
+			if (ex * ex + ey * ey < r * r)
+			{
+				return -1;
+			}
+			
+			// The face: when the distance from the line shrinks to the radius
+			double	closing	= normalX[k] * dx + normalY[k] * dy;
+			
+			if ((d0 >= r) && (closing < 0))
+			{
+				double	t	= (d0 - r) / -closing;
+				
+				factor	= dirX[k] * (sx + t * dx) + dirY[k] * (sy + t * dy);
+				
+				if ((t < first) && (factor >= 0) && (factor <= length[k]))
+				{
+					first	= t;
+					sweepY	= startY[k] + dirY[k] * factor;
+					sweepNormal.set(normalX[k], normalY[k]);
+				}
+			}
+			
+			// The vertex at the start of the edge: solve 
+			// |s + t * d| = r for t
+			double	a		= dx * dx + dy * dy,
+					b		= 2 * (sx * dx + sy * dy),
+					c		= sx * sx + sy * sy - r * r,
+					disc	= b * b - 4 * a * c;
+			
+			if ((b < 0) && (disc >= 0))
+			{
+				double	t	= (-b - Math.sqrt(disc)) / (2 * a);
+				
+				if (t < first)
+				{
+					first	= t;
+					sweepY	= startY[k];
+					sweepNormal.set(sx + t * dx, sy + t * dy).normalizeLocal();
+				}
+			}
+		} // !for each edge
+		
+		return (!inside && (first <= 1)) ? first : -1;
+	}
+	
+	
+	/**
+	* Sweeps two ships along their paths against each other.
+	*
+	* @param	i			entity id of one ship
+	* @param	k			entity id of the other
+	* @param	distance	distance between the centers at which they touch
+	* @return				how far along the paths they first touch, from 0 to
+	*						1, or -1 if they don't or already touched where they
+	*						started
+	*/
+	private double sweep(int i, int k, double distance)
+	{
+		if (hasWrapped(i) || hasWrapped(k))
+		{
+			return -1;
+		}
+		
+		double[]	x		= entities.getX(),
+					y		= entities.getY(),
+					prevX	= entities.getPreviousX(),
+					prevY	= entities.getPreviousY();
+		int[]		width	= entities.getWidth(),
+					height	= entities.getHeight();
+		
+		// Move along with the second ship, from center to center
+		double		sx		= (prevX[i] + width[i] / 2) - (prevX[k] + width[k] / 2),
+					sy		= (prevY[i] + height[i] / 2) - (prevY[k] + height[k] / 2),
+					dx		= (x[i] - prevX[i]) - (x[k] - prevX[k]),
+					dy		= (y[i] - prevY[i]) - (y[k] - prevY[k]);
+		double		a		= dx * dx + dy * dy,
+					b		= 2 * (sx * dx + sy * dy),
+					c		= sx * sx + sy * sy - distance * distance,
+					disc	= b * b - 4 * a * c;
+		
+		if ((c <= 0) || (b >= 0) || (disc < 0))
+		{
+			return -1;
+		}
+		
+		double		t		= (-b - Math.sqrt(disc)) / (2 * a);
+		
+		return (t <= 1) ? t : -1;
+	}
+	
+	
+	/**
+	* Returns the squared distance between two points.
+	*
+	*/
+	private static long distanceSq(int x1, int y1, int x2, int y2)
+	{
+		long	dx	= x2 - x1;
+		long	dy	= y2 - y1;
+		
+		return dx * dx + dy * dy;
+	}
 }//end Engine
\ No newline at end of file
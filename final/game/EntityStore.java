@@ -0,0 +1,328 @@
+package	game;
+
+
+/**
+* Keeps the state the tick works on (position, motion, size, energy and 
+* flags) of a number of entities in primitive arrays indexed by entity id, 
+* rather than spread over objects. The engine loops over the arrays; the 
+* game objects, e.g. <code>{@link game.actor.Ship}</code>, are views of one 
+* entity each which are used for painting and game logic.
+*
+* <p>
+*   The arrays returned by the getters are the store's own and are replaced
+*   when the store grows, so they should not be kept past a call to 
+*   <code>{@link #add(double, double, int, int, int, int)}</code>.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class EntityStore
+{
+	/** Flag set when the entity has landed */
+	public static final int	LANDED		= 1;
+	
+	/** Flag set when the entity's shield is up */
+	public static final int	SHIELDED	= 2;
+	
+	/** Position of the top left corner */
+	private double[]	x, y;
+	
+	/** Position at the start of the current tick */
+	private double[]	previousX, previousY;
+	
+	/** Motion vector */
+	private double[]	motionX, motionY;
+	
+	/** Size of the bounds */
+	private int[]		width, height;
+	
+	/** Collision radius */
+	private int[]		radius;
+	
+	/** Energy level */
+	private int[]		energy;
+	
+	/** Flags, see <code>{@link #LANDED}</code> and <code>{@link #SHIELDED}</code> */
+	private int[]		flags;
+	
+	/** Number of entities */
+	private int			size;
+	
+	
+	
+	/**
+	* Creates an empty store.
+	*
+	*/
+	public EntityStore()
+	{
+		this(8);
+	}
+	
+	
+	/**
+	* Creates an empty store with room for a number of entities.
+	*
+	* @param	capacity	initial capacity
+	*/
+	public EntityStore(int capacity)
+	{
+		allocate(Math.max(1, capacity));
+	}
+	
+	
+	
+	/**
+	* Adds an entity at rest.
+	*
+	* @param	x			x position
+	* @param	y			y position
+	* @param	width		width of the bounds
+	* @param	height		height of the bounds
+	* @param	radius		collision radius
+	* @param	energy		energy level
+	* @return				id of the entity
+	*/
+	public int add(double x, double y, int width, int height, int radius, int energy)
+	{
+		if (size == this.x.length)
+		{
+			allocate(size * 2);
+		}
+		
+		int	id	= size++;
+		
+		this.x[id]			= x;
+		this.y[id]			= y;
+		this.previousX[id]	= x;
+		this.previousY[id]	= y;
+		this.motionX[id]	= 0;
+		this.motionY[id]	= 0;
+		this.width[id]		= width;
+		this.height[id]		= height;
+		this.radius[id]		= radius;
+		this.energy[id]		= energy;
+		this.flags[id]		= 0;
+		
+		return id;
+	}
+	
+	
+	/**
+	* Returns the number of entities.
+	*
+	* @return				entity count
+	*/
+	public int size()
+	{
+		return size;
+	}
+	
+	
+	/**
+	* Removes all entities.
+	*
+	*/
+	public void clear()
+	{
+		size	= 0;
+	}
+	
+	
+	/**
+	* Moves an entity.
+	*
+	* @param	id			entity id
+	* @param	x			x position
+	* @param	y			y position
+	*/
+	public void setPosition(int id, double x, double y)
+	{
+		this.x[id]	= x;
+		this.y[id]	= y;
+	}
+	
+	
+	/**
+	* Remembers the position of an entity as the start of a tick.
+	*
+	* @param	id			entity id
+	*/
+	public void rememberPosition(int id)
+	{
+		previousX[id]	= x[id];
+		previousY[id]	= y[id];
+	}
+	
+	
+	/**
+	* Sets the motion vector of an entity.
+	*
+	* @param	id			entity id
+	* @param	x			x composant
+	* @param	y			y composant
+	*/
+	public void setMotion(int id, double x, double y)
+	{
+		motionX[id]	= x;
+		motionY[id]	= y;
+	}
+	
+	
+	/**
+	* Sets the energy level of an entity.
+	*
+	* @param	id			entity id
+	* @param	energy		energy level
+	*/
+	public void setEnergy(int id, int energy)
+	{
+		this.energy[id]	= energy;
+	}
+	
+	
+	/**
+	* Returns whether a flag is set for an entity.
+	*
+	* @param	id			entity id
+	* @param	flag		the flag
+	* @return				<code>true</code> if set
+	*/
+	public boolean isSet(int id, int flag)
+	{
+		return (flags[id] & flag) != 0;
+	}
+	
+	
+	/**
+	* Sets or clears a flag of an entity.
+	*
+	* @param	id			entity id
+	* @param	flag		the flag
+	* @param	set			<code>true</code> to set the flag
+	*/
+	public void setFlag(int id, int flag, boolean set)
+	{
+		if (set)
+		{
+			flags[id]	|= flag;
+		}
+		else
+		{
+			flags[id]	&= ~flag;
+		}
+	}
+	
+	
+	public double[] getX()
+	{
+		return x;
+	}
+	
+	
+	public double[] getY()
+	{
+		return y;
+	}
+	
+	
+	public double[] getPreviousX()
+	{
+		return previousX;
+	}
+	
+	
+	public double[] getPreviousY()
+	{
+		return previousY;
+	}
+	
+	
+	public double[] getMotionX()
+	{
+		return motionX;
+	}
+	
+	
+	public double[] getMotionY()
+	{
+		return motionY;
+	}
+	
+	
+	public int[] getWidth()
+	{
+		return width;
+	}
+	
+	
+	public int[] getHeight()
+	{
+		return height;
+	}
+	
+	
+	public int[] getRadius()
+	{
+		return radius;
+	}
+	
+	
+	public int[] getEnergy()
+	{
+		return energy;
+	}
+	
+	
+	public int[] getFlags()
+	{
+		return flags;
+	}
+	
+	
+	/**
+	* Replaces the arrays with arrays of a given length, keeping the entities.
+	*
+	* @param	capacity	new length
+	*/
+	private void allocate(int capacity)
+	{
+		x			= grow(x, capacity);
+		y			= grow(y, capacity);
+		previousX	= grow(previousX, capacity);
+		previousY	= grow(previousY, capacity);
+		motionX		= grow(motionX, capacity);
+		motionY		= grow(motionY, capacity);
+		width		= grow(width, capacity);
+		height		= grow(height, capacity);
+		radius		= grow(radius, capacity);
+		energy		= grow(energy, capacity);
+		flags		= grow(flags, capacity);
+	}
+	
+	
+	private double[] grow(double[] a, int capacity)
+	{
+		double[]	grown	= new double[capacity];
+		
+		if (a != null)
+		{
+			System.arraycopy(a, 0, grown, 0, size);
+		}
+		
+		return grown;
+	}
+	
+	
+	private int[] grow(int[] a, int capacity)
+	{
+		int[]	grown	= new int[capacity];
+		
+		if (a != null)
+		{
+			System.arraycopy(a, 0, grown, 0, size);
+		}
+		
+		return grown;
+	}
+} //end EntityStore
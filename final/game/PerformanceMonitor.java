@@ -0,0 +1,212 @@
+package	game;
+
+import	java.lang.management.ManagementFactory;
+import	java.util.ArrayList;
+import	java.util.HashMap;
+import	java.util.List;
+import	java.util.Map;
+import	javax.management.JMException;
+import	javax.management.MBeanServer;
+import	javax.management.ObjectName;
+
+
+/**
+* Keeps the timers of the tick and frame phases. The timers can be read in 
+* game (F3 on the play screen) or, once <code>{@link #registerMBeans()}</code>
+* has been called, through JMX, e.g. with <code>jconsole</code>.
+*
+* @author	Johan Liesén
+*/
+public class PerformanceMonitor
+{
+	/** A whole tick, <code>Engine.update()</code> */
+	public static final String	TICK					= "tick";
+	
+	public static final String	UPDATE_SHIP_POSITIONS	= "tick.updateShipPositions";
+	
+	public static final String	UPDATE_PASSENGERS		= "tick.updatePassengers";
+	
+	public static final String	RESOLVE_COLLISIONS		= "tick.resolveCollisions";
+	
+	public static final String	SPAWN_PASSENGER			= "tick.spawnPassenger";
+	
+	public static final String	REMOVE_DEAD_ACTORS		= "tick.removeDeadActors";
+	
+	/** Time between two actively rendered frames */
+	public static final String	FRAME_INTERVAL			= "frame.interval";
+	
+	/** Painting the play screen, <code>PlayScreen.render()</code> */
+	public static final String	FRAME_RENDER			= "frame.render";
+	
+	/** A whole actively rendered frame, including showing it */
+	public static final String	CANVAS_RENDER_FRAME		= "canvas.renderFrame";
+	
+	/** A whole passively rendered frame, <code>BufferedCanvas.update()</code> */
+	public static final String	CANVAS_UPDATE			= "canvas.update";
+	
+	/** Domain of the MBean names */
+	private static final String	DOMAIN					= "itaxi";
+	
+	/** Timers in the order they were created */
+	private List				timers		= new ArrayList();
+	
+	/** Timers by name */
+	private Map					timerMap	= new HashMap();
+	
+	/** Server the timers are registered with, if any */
+	private MBeanServer			server;
+	
+	/** Set if durations are recorded */
+	private volatile boolean	enabled		= true;
+	
+	private static PerformanceMonitor	singleton	= new PerformanceMonitor();
+	
+	
+	
+	/**
+	* Creates the monitor with the timers of the tick and frame phases.
+	*
+	*/
+	private PerformanceMonitor()
+	{
+		String[]	names	= { TICK, UPDATE_SHIP_POSITIONS, UPDATE_PASSENGERS,
+								RESOLVE_COLLISIONS, SPAWN_PASSENGER,
+								REMOVE_DEAD_ACTORS, FRAME_INTERVAL, FRAME_RENDER,
+								CANVAS_RENDER_FRAME, CANVAS_UPDATE };
+		
+		for (int i = 0; i < names.length; i++)
+		{
+			getTimer(names[i]);
+		}
+	}
+	
+	
+	
+	/**
+	* Returns the performance monitor.
+	*
+	* @return				the monitor
+	*/
+	public static PerformanceMonitor getInstance()
+	{
+		return singleton;
+	}
+	
+	
+	/**
+	* Returns a timer, creating it if needed.
+	*
+	* @param	name		name of the phase
+	* @return				the timer
+	*/
+	public synchronized PhaseTimer getTimer(String name)
+	{
+		PhaseTimer	timer	= (PhaseTimer) timerMap.get(name);
+		
+		if (timer == null)
+		{
+			timer	= new PhaseTimer(name, this);
+			
+			timers.add(timer);
+			timerMap.put(name, timer);
+			
+			if (server != null)
+			{
+				register(timer);
+			}
+		}
+		
+		return timer;
+	}
+	
+	
+	/**
+	* Returns all timers.
+	*
+	* @return				list of <code>{@link PhaseTimer}</code>s
+	*/
+	public synchronized List getTimers()
+	{
+		return new ArrayList(timers);
+	}
+	
+	
+	/**
+	* Turns recording on or off. It is on by default.
+	*
+	* @param	enabled		<code>true</code> to record durations
+	*/
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled	= enabled;
+	}
+	
+	
+	/**
+	* Returns whether durations are recorded.
+	*
+	* @return				<code>true</code> if recording
+	*/
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+	
+	
+	/**
+	* Forgets the durations recorded by all timers.
+	*
+	*/
+	public synchronized void reset()
+	{
+		for (int i = 0; i < timers.size(); i++)
+		{
+			((PhaseTimer) timers.get(i)).reset();
+		}
+	}
+	
+	
+	/**
+	* Registers the timers, and any created later, with the platform MBean 
+	* server.
+	*
+	*/
+	public synchronized void registerMBeans()
+	{
+		if (server != null)
+		{
+			return;
+		}
+		
+		server	= ManagementFactory.getPlatformMBeanServer();
+		
+		for (int i = 0; i < timers.size(); i++)
+		{
+			register((PhaseTimer) timers.get(i));
+		}
+	}
+	
+	
+	/**
+	* Registers a timer as <code>itaxi:type=PhaseTimer,name=</code><em>name</em>.
+	*
+	* @param	timer		the timer
+	*/
+	private void register(PhaseTimer timer)
+	{
+		try
+		{
+			ObjectName	name	= new ObjectName(DOMAIN + ":type=PhaseTimer,name=" 
+												 + timer.getName());
+			
+			if (!server.isRegistered(name))
+			{
+				server.registerMBean(timer, name);
+			}
+		}
+		catch (JMException e)
+		{
+			System.err.println(e);
+		}
+	}
+} //end PerformanceMonitor
@@ -0,0 +1,139 @@
+package	game;
+
+import	utilities.Histogram;
+
+
+/**
+* Records how long a phase of the tick or of painting a frame takes. 
+* Typically used as
+*
+* <pre>
+*	long	time	= System.nanoTime();
+*	doSomething();
+*	time	= timer.stop(time);
+*	doSomethingElse();
+*	time	= otherTimer.stop(time);
+* </pre>
+*
+* @author	Johan Liesén
+*/
+public class PhaseTimer implements PhaseTimerMBean
+{
+	/** Name of the phase */
+	private String				name;
+	
+	/** Durations in nanoseconds */
+	private Histogram			histogram	= new Histogram();
+	
+	/** The monitor this timer belongs to */
+	private PerformanceMonitor	monitor;
+	
+	
+	
+	/**
+	* Creates a timer.
+	*
+	* @param	name		name of the phase
+	* @param	monitor		the monitor the timer belongs to
+	*/
+	PhaseTimer(String name, PerformanceMonitor monitor)
+	{
+		this.name		= name;
+		this.monitor	= monitor;
+	}
+	
+	
+	
+	/**
+	* Records the time passed since a phase started.
+	*
+	* @param	start		<code>System.nanoTime()</code> when the phase 
+	*						started
+	* @return				<code>System.nanoTime()</code> now, i.e. when the
+	*						next phase starts
+	*/
+	public long stop(long start)
+	{
+		long	now	= System.nanoTime();
+		
+		if (monitor.isEnabled())
+		{
+			histogram.record(now - start);
+		}
+		
+		return now;
+	}
+	
+	
+	/**
+	* Records a duration.
+	*
+	* @param	nanos		duration in nanoseconds
+	*/
+	public void record(long nanos)
+	{
+		if (monitor.isEnabled())
+		{
+			histogram.record(nanos);
+		}
+	}
+	
+	
+	/**
+	* Returns the recorded durations.
+	*
+	* @return				histogram of durations in nanoseconds
+	*/
+	public Histogram getHistogram()
+	{
+		return histogram;
+	}
+	
+	
+	public String getName()
+	{
+		return name;
+	}
+	
+	
+	public long getCount()
+	{
+		return histogram.getCount();
+	}
+	
+	
+	public double getMeanMicros()
+	{
+		return histogram.getMean() / 1000;
+	}
+	
+	
+	public double getP50Micros()
+	{
+		return histogram.getPercentile(50) / 1000.0;
+	}
+	
+	
+	public double getP99Micros()
+	{
+		return histogram.getPercentile(99) / 1000.0;
+	}
+	
+	
+	public double getP999Micros()
+	{
+		return histogram.getPercentile(99.9) / 1000.0;
+	}
+	
+	
+	public double getMaxMicros()
+	{
+		return histogram.getMax() / 1000.0;
+	}
+	
+	
+	public void reset()
+	{
+		histogram.reset();
+	}
+} //end PhaseTimer
@@ -0,0 +1,27 @@
+package	game;
+
+
+/**
+* Management interface of a <code>{@link PhaseTimer}</code>. All times are in
+* microseconds.
+*
+* @author	Johan Liesén
+*/
+public interface PhaseTimerMBean
+{
+	public String getName();
+	
+	public long getCount();
+	
+	public double getMeanMicros();
+	
+	public double getP50Micros();
+	
+	public double getP99Micros();
+	
+	public double getP999Micros();
+	
+	public double getMaxMicros();
+	
+	public void reset();
+} //end PhaseTimerMBean
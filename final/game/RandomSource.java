@@ -0,0 +1,92 @@
+package	game;
+
+import	java.util.SplittableRandom;
+
+
+/**
+* The random generator of one game. Unlike <code>Math.random()</code> it isn't
+* shared or synchronized, so engines running side by side don't contend on it,
+* and it remembers its seed so that a game can be played out again.
+*
+* @author	Johan Liesén
+*/
+public class RandomSource
+{
+	/** The seed */
+	private final long			seed;
+
+	/** The generator */
+	private SplittableRandom	random;
+
+
+
+	/**
+	* Creates a generator.
+	*
+	* @param	seed		the seed
+	*/
+	public RandomSource(long seed)
+	{
+		this.seed	= seed;
+
+		reset();
+	}
+
+
+
+	/**
+	* Starts the sequence over from the seed.
+	*
+	*/
+	public void reset()
+	{
+		random	= new SplittableRandom(seed);
+	}
+
+
+	/**
+	* Returns the seed.
+	*
+	* @return				the seed
+	*/
+	public long getSeed()
+	{
+		return seed;
+	}
+
+
+	/**
+	* Returns a random number from 0 (inclusive) to <code>bound</code>
+	* (exclusive).
+	*
+	* @param	bound		upper bound; must be positive
+	* @return				the number
+	*/
+	public int nextInt(int bound)
+	{
+		return random.nextInt(bound);
+	}
+
+
+	/**
+	* Returns a random number from 0 (inclusive) to 1 (exclusive).
+	*
+	* @return				the number
+	*/
+	public double nextDouble()
+	{
+		return random.nextDouble();
+	}
+
+
+	/**
+	* Returns a new generator seeded from this one, e.g. one for each of many
+	* simulated games which are all reproduced by the first seed.
+	*
+	* @return				the new generator
+	*/
+	public RandomSource split()
+	{
+		return new RandomSource(random.nextLong());
+	}
+} //end RandomSource
@@ -0,0 +1,519 @@
+package	game;
+
+import	java.awt.Dimension;
+import	java.io.BufferedInputStream;
+import	java.io.BufferedOutputStream;
+import	java.io.DataInputStream;
+import	java.io.DataOutputStream;
+import	java.io.FileInputStream;
+import	java.io.FileOutputStream;
+import	java.io.IOException;
+
+
+/**
+* A recorded game: the seed of the engine's random generator and the input
+* of every tick, which is all it takes to play the game out again exactly,
+* plus hashes of the engine's state at checkpoints to tell whether it did.
+*
+* <p>
+*   Only changes of input are stored. The file starts with the magic number,
+*   the version, the seed, the world size, the number of players, the path
+*   of the level (empty if it wasn't read from a file) and its checksum, the 
+*   number of ticks and the checkpoint interval. Then follow the input changes, each
+*   as the ticks since the previous change (a variable-length integer of
+*   seven bits per byte), the player and the new input bits, and last the
+*   state hashes. Everything is big-endian.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class Replay
+{
+	/** "ITXR" */
+	public static final int		MAGIC				= 0x49545852;
+
+	/** Version of the format */
+	public static final int		VERSION				= 2;
+
+	/** Ticks between two state hashes, i.e. one per second */
+	public static final int		CHECKPOINT_INTERVAL	= Engine.TICKS_PER_SECOND;
+
+	/** Seed of the engine's random generator */
+	private long		seed;
+
+	/** Size of the world */
+	private Dimension	worldSize;
+
+	/** Path of the level, or <em>null</em> */
+	private String		levelName;
+
+	/** Checksum of the level */
+	private long		levelChecksum;
+
+	/** Input of each player as of the last change */
+	private int[]		input;
+
+	/** Number of ticks recorded */
+	private long		length;
+
+	/** Ticks between two state hashes */
+	private int			checkpointInterval;
+
+	// The input changes
+	private long[]		changeTicks		= new long[64];
+	private byte[]		changePlayers	= new byte[64];
+	private byte[]		changeInput		= new byte[64];
+	private int			changes;
+
+	// The state hashes, the first one at tick checkpointInterval
+	private long[]		hashes			= new long[64];
+	private int			checkpoints;
+
+
+
+	/**
+	* Creates an empty replay to record a game in.
+	*
+	* @param	seed		seed of the engine's random generator
+	* @param	worldSize	size of the world
+	* @param	players		number of players
+	*/
+	public Replay(long seed, Dimension worldSize, int players)
+	{
+		this(seed, worldSize, players, CHECKPOINT_INTERVAL);
+	}
+
+
+	/**
+	* Creates an empty replay.
+	*
+	*/
+	private Replay(long seed, Dimension worldSize, int players, int checkpointInterval)
+	{
+		this.seed				= seed;
+		this.worldSize			= new Dimension(worldSize);
+		this.input				= new int[players];
+		this.checkpointInterval	= checkpointInterval;
+	}
+
+
+
+	/**
+	* Records the input of a tick, i.e. whatever has changed since the last.
+	*
+	* @param	tick		the tick, starting at 1
+	* @param	input		<code>Engine.INPUT_*</code> bits of each player
+	*/
+	public synchronized void record(long tick, int[] input)
+	{
+		for (int i = 0; i < input.length; i++)
+		{
+			if (input[i] != getInput(i))
+			{
+				addChange(tick, i, input[i]);
+			}
+		}
+
+		length	= tick;
+	}
+
+
+	/**
+	* Returns the last recorded input of a player.
+	*
+	*/
+	private int getInput(int player)
+	{
+		if (player >= input.length)
+		{
+			int[]	grown	= new int[player + 1];
+
+			System.arraycopy(input, 0, grown, 0, input.length);
+			input	= grown;
+		}
+
+		return input[player];
+	}
+
+
+	/**
+	* Appends an input change.
+	*
+	*/
+	private void addChange(long tick, int player, int mask)
+	{
+		if (changes == changeTicks.length)
+		{
+			long[]	ticks	= new long[changes * 2];
+			byte[]	players	= new byte[changes * 2];
+			byte[]	masks	= new byte[changes * 2];
+
+			System.arraycopy(changeTicks, 0, ticks, 0, changes);
+			System.arraycopy(changePlayers, 0, players, 0, changes);
+			System.arraycopy(changeInput, 0, masks, 0, changes);
+
+			changeTicks		= ticks;
+			changePlayers	= players;
+			changeInput		= masks;
+		}
+
+		changeTicks[changes]	= tick;
+		changePlayers[changes]	= (byte) player;
+		changeInput[changes]	= (byte) mask;
+		changes++;
+
+		getInput(player);
+		input[player]	= mask;
+	}
+
+
+	/**
+	* Returns whether the state should be hashed after a tick.
+	*
+	* @param	tick		the tick
+	* @return				<em>true</em> at every checkpoint
+	*/
+	public boolean isCheckpoint(long tick)
+	{
+		return (tick % checkpointInterval) == 0;
+	}
+
+
+	/**
+	* Records the state hash of a checkpoint.
+	*
+	* @param	tick		the tick; must be a checkpoint
+	* @param	hash		<code>{@link Engine#getStateHash()}</code>
+	*/
+	public synchronized void checkpoint(long tick, long hash)
+	{
+		if (checkpoints == hashes.length)
+		{
+			long[]	grown	= new long[checkpoints * 2];
+
+			System.arraycopy(hashes, 0, grown, 0, checkpoints);
+			hashes	= grown;
+		}
+
+		hashes[checkpoints++]	= hash;
+	}
+
+
+	/**
+	* Returns the seed of the engine's random generator.
+	*
+	* @return				the seed
+	*/
+	public long getSeed()
+	{
+		return seed;
+	}
+
+
+	/**
+	* Returns the size of the world.
+	*
+	* @return				world size
+	*/
+	public Dimension getWorldSize()
+	{
+		return new Dimension(worldSize);
+	}
+
+
+	/**
+	* Returns the number of players.
+	*
+	* @return				number of players
+	*/
+	public int getPlayerCount()
+	{
+		return input.length;
+	}
+
+
+	/**
+	* Sets the level the game is played on.
+	*
+	* @param	name		path of the level, or <em>null</em> if it wasn't 
+	*						read from a file
+	* @param	checksum	checksum of the level
+	*/
+	public void setLevel(String name, long checksum)
+	{
+		levelName		= name;
+		levelChecksum	= checksum;
+	}
+
+
+	/**
+	* Returns the path of the level the game was played on.
+	*
+	* @return				the path, or <em>null</em> if the level wasn't 
+	*						read from a file
+	*/
+	public String getLevelName()
+	{
+		return levelName;
+	}
+
+
+	/**
+	* Returns the checksum of the level the game was played on.
+	*
+	* @return				the checksum
+	*/
+	public long getLevelChecksum()
+	{
+		return levelChecksum;
+	}
+
+
+	/**
+	* Returns the number of ticks recorded.
+	*
+	* @return				length in ticks
+	*/
+	public synchronized long getLength()
+	{
+		return length;
+	}
+
+
+	/**
+	* Returns the number of input changes.
+	*
+	* @return				number of changes
+	*/
+	public synchronized int getChangeCount()
+	{
+		return changes;
+	}
+
+
+	/**
+	* Returns the tick an input change takes effect at.
+	*
+	* @param	i			index of the change
+	* @return				the tick
+	*/
+	public synchronized long getChangeTick(int i)
+	{
+		return changeTicks[i];
+	}
+
+
+	/**
+	* Returns the player whose input changed.
+	*
+	* @param	i			index of the change
+	* @return				index of the player
+	*/
+	public synchronized int getChangePlayer(int i)
+	{
+		return changePlayers[i];
+	}
+
+
+	/**
+	* Returns the input of a player as of a change.
+	*
+	* @param	i			index of the change
+	* @return				<code>Engine.INPUT_*</code> bits
+	*/
+	public synchronized int getChangeInput(int i)
+	{
+		return changeInput[i];
+	}
+
+
+	/**
+	* Returns the number of recorded state hashes.
+	*
+	* @return				number of checkpoints
+	*/
+	public synchronized int getCheckpointCount()
+	{
+		return checkpoints;
+	}
+
+
+	/**
+	* Returns the tick of a checkpoint.
+	*
+	* @param	i			index of the checkpoint
+	* @return				the tick
+	*/
+	public long getCheckpointTick(int i)
+	{
+		return (long) (i + 1) * checkpointInterval;
+	}
+
+
+	/**
+	* Returns the state hash of a checkpoint.
+	*
+	* @param	i			index of the checkpoint
+	* @return				the hash
+	*/
+	public synchronized long getCheckpointHash(int i)
+	{
+		return hashes[i];
+	}
+
+
+	/**
+	* Writes the replay to a file.
+	*
+	* @param	path		path to the file
+	* @throws	IOException	if the file can't be written
+	*/
+	public synchronized void write(String path) throws IOException
+	{
+		DataOutputStream	out	= new DataOutputStream(new BufferedOutputStream(
+														 new FileOutputStream(path)));
+
+		try
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(seed);
+			out.writeInt(worldSize.width);
+			out.writeInt(worldSize.height);
+			out.writeInt(input.length);
+			out.writeUTF((levelName != null) ? levelName : "");
+			out.writeLong(levelChecksum);
+			out.writeLong(length);
+			out.writeInt(checkpointInterval);
+
+			out.writeInt(changes);
+
+			long	tick	= 0;
+
+			for (int i = 0; i < changes; i++)
+			{
+				writeVarLong(out, changeTicks[i] - tick);
+				out.writeByte(changePlayers[i]);
+				out.writeByte(changeInput[i]);
+
+				tick	= changeTicks[i];
+			}
+
+			out.writeInt(checkpoints);
+
+			for (int i = 0; i < checkpoints; i++)
+			{
+				out.writeLong(hashes[i]);
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+
+	/**
+	* Reads a replay from a file.
+	*
+	* @param	path		path to the file
+	* @return				the replay
+	* @throws	IOException	if the file can't be read or isn't a replay
+	*/
+	public static Replay read(String path) throws IOException
+	{
+		DataInputStream	in	= new DataInputStream(new BufferedInputStream(
+												   new FileInputStream(path)));
+
+		try
+		{
+			if ((in.readInt() != MAGIC) || (in.readInt() != VERSION))
+			{
+				throw new IOException(path + ": not a replay of version " + VERSION);
+			}
+
+			long		seed		= in.readLong();
+			Dimension	worldSize	= new Dimension(in.readInt(), in.readInt());
+			int			players		= in.readInt();
+			String		levelName	= in.readUTF();
+			long		checksum	= in.readLong();
+			long		length		= in.readLong();
+			Replay		replay		= new Replay(seed, worldSize, players, in.readInt());
+
+			replay.setLevel((levelName.length() > 0) ? levelName : null, checksum);
+			int			changes		= in.readInt();
+			long		tick		= 0;
+
+			for (int i = 0; i < changes; i++)
+			{
+				tick	+= readVarLong(in);
+
+				int	player	= in.readUnsignedByte();
+
+				if (player >= players)
+				{
+					throw new IOException(path + ": input of player " + (player + 1) +
+										  " in a game of " + players);
+				}
+
+				replay.addChange(tick, player, in.readUnsignedByte());
+			}
+
+			int			checkpoints	= in.readInt();
+
+			for (int i = 0; i < checkpoints; i++)
+			{
+				replay.checkpoint(replay.getCheckpointTick(i), in.readLong());
+			}
+
+			replay.length	= length;
+
+			return replay;
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+
+	/**
+	* Writes a non-negative number seven bits at a time, low bits first, with
+	* the high bit set on all but the last byte.
+	*
+	*/
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value	>>>= 7;
+		}
+
+		out.writeByte((int) value);
+	}
+
+
+	/**
+	* Reads a number written by <code>writeVarLong</code>.
+	*
+	*/
+	private static long readVarLong(DataInputStream in) throws IOException
+	{
+		long	value	= 0;
+
+		for (int shift = 0; shift < 64; shift += 7)
+		{
+			int	b	= in.readUnsignedByte();
+
+			value	|= (long) (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+
+		throw new IOException("malformed replay");
+	}
+} //end Replay
@@ -0,0 +1,192 @@
+package	game;
+
+import	java.io.IOException;
+
+import	game.level.Level;
+import	utilities.DataPreLoader;
+
+
+/**
+* Plays recorded games out again without a screen, sound or input, as fast as
+* the CPU allows, and checks that the engine reaches the same state at every
+* checkpoint. Used to reproduce reported games and as a regression test:
+*
+* <pre>
+*   java -Djava.awt.headless=true game.ReplayPlayer replay...
+* </pre>
+*
+* Exits with status 1 if any replay diverges or can't be read.
+*
+* @author	Johan Liesén
+*/
+public class ReplayPlayer
+{
+	/** The replay */
+	private Replay		replay;
+
+	/** The engine playing it */
+	private Engine		engine;
+
+	/** Tick of the first checkpoint whose hash didn't match, or -1 */
+	private long		divergence	= -1;
+
+
+
+	/**
+	* Creates a player of a replay. The data repository must already be
+	* loaded.
+	*
+	* @param	replay		the replay
+	* @throws	IOException	if the level can't be read or isn't the one the 
+	*						game was played on
+	* @throws	IllegalArgumentException
+	*						if the engine can't play as many players as the
+	*						replay has
+	*/
+	public ReplayPlayer(Replay replay) throws IOException
+	{
+		this.replay	= replay;
+
+		// Levels not read from a file can only be the default one
+		String	name	= replay.getLevelName();
+		Level	level	= (name != null) ? Level.read(name) : Level.readDefault();
+
+		if (level.getChecksum() != replay.getLevelChecksum())
+		{
+			throw new IOException(level.getName() + 
+								  " isn't the level the game was played on");
+		}
+
+		engine		= new Engine(replay.getWorldSize(), new RandomSource(replay.getSeed()));
+		engine.setLevel(level);
+		engine.setPlayerCount(replay.getPlayerCount());
+		engine.init();
+
+		if (engine.getPlayers().length != replay.getPlayerCount())
+		{
+			throw new IllegalArgumentException("Replay of " + replay.getPlayerCount() +
+											   " players played by " + 
+											   engine.getPlayers().length);
+		}
+	}
+
+
+
+	/**
+	* Plays the whole replay, stopping at the first checkpoint where the
+	* engine's state differs from the recorded.
+	*
+	* @return				<em>true</em> if every checkpoint matched
+	*/
+	public boolean play()
+	{
+		long	length		= replay.getLength();
+		int		changes		= replay.getChangeCount();
+		int		checkpoints	= replay.getCheckpointCount();
+		int		change		= 0;
+		int		checkpoint	= 0;
+
+		for (long tick = 1; tick <= length; tick++)
+		{
+			// Input recorded for this tick is set before it's simulated
+			while ((change < changes) && (replay.getChangeTick(change) == tick))
+			{
+				engine.setInput(replay.getChangePlayer(change),
+								replay.getChangeInput(change));
+				change++;
+			}
+
+			engine.step(1);
+
+			if ((checkpoint < checkpoints) && (replay.getCheckpointTick(checkpoint) == tick))
+			{
+				if (engine.getStateHash() != replay.getCheckpointHash(checkpoint))
+				{
+					divergence	= tick;
+
+					return false;
+				}
+
+				checkpoint++;
+			}
+		}
+
+		return true;
+	}
+
+
+	/**
+	* Returns the tick where the game diverged from the recording.
+	*
+	* @return				tick of the first mismatching checkpoint, or -1
+	*/
+	public long getDivergence()
+	{
+		return divergence;
+	}
+
+
+	/**
+	* Returns the engine playing the replay.
+	*
+	* @return				the engine
+	*/
+	public Engine getEngine()
+	{
+		return engine;
+	}
+
+
+	/**
+	* Plays replays and prints whether each matched.
+	*
+	* @param	args		paths to the replays
+	*/
+	public static void main(String[] args)
+	{
+		DataPreLoader	data	= DataPreLoader.getInstance();
+
+		data.setHeadless(true);
+		data.initiateLoad();
+
+		boolean	failed	= false;
+
+		for (int i = 0; i < args.length; i++)
+		{
+			try
+			{
+				Replay			replay	= Replay.read(args[i]);
+				ReplayPlayer	player	= new ReplayPlayer(replay);
+				long			start	= System.nanoTime();
+				boolean			ok		= player.play();
+				double			seconds	= (System.nanoTime() - start) / 1e9;
+
+				if (ok)
+				{
+					System.out.println(args[i] + ": ok, " + replay.getLength() +
+									   " ticks and " + replay.getCheckpointCount() +
+									   " checkpoints in " + seconds + " s (" +
+									   (long) (replay.getLength() / seconds / Engine.TICKS_PER_SECOND) +
+									   "x real-time)");
+				}
+				else
+				{
+					System.out.println(args[i] + ": diverged at tick " + player.getDivergence());
+					failed	= true;
+				}
+			}
+			catch (IOException e)
+			{
+				System.out.println(args[i] + ": " + e);
+				failed	= true;
+			}
+			catch (IllegalArgumentException e)
+			{
+				System.out.println(args[i] + ": " + e.getMessage());
+				failed	= true;
+			}
+		}
+
+		System.exit(failed ? 1 : 0);
+	}
+} //end ReplayPlayer
@@ -0,0 +1,138 @@
+package	game;
+
+import	java.awt.Dimension;
+
+import	utilities.DataPreLoader;
+
+
+/**
+* Runs games without a screen, sound or input, as fast as the CPU allows. Used
+* to batch-simulate games for balancing and regression tests, e.g. on machines
+* without a display:
+*
+* <pre>
+*   java -Djava.awt.headless=true game.Simulation [ticks] [games] [seed]
+* </pre>
+*
+* Each game has its own random generator, split from one seeded by 
+* <code>seed</code>, so the same arguments play the same games.
+* The data repository must be loaded headless before the first simulation is
+* created, which <code>main</code> takes care of.
+*
+* @author	Johan Liesén
+*/
+public class Simulation
+{
+	/** Size of the world; the same as the play screen */
+	public static final Dimension	WORLD_SIZE	= new Dimension(640, 480);
+	
+	/** The simulated engine */
+	private Engine		engine;
+	
+	
+	
+	/**
+	* Creates a simulation of a new game.
+	*
+	* @param	worldSize	size of the world
+	*/
+	public Simulation(Dimension worldSize)
+	{
+		engine	= new Engine(worldSize);
+		engine.init();
+	}
+	
+	
+	/**
+	* Creates a simulation of a new game with its own random generator.
+	*
+	* @param	worldSize	size of the world
+	* @param	random		random generator of the game
+	*/
+	public Simulation(Dimension worldSize, RandomSource random)
+	{
+		engine	= new Engine(worldSize, random);
+		engine.init();
+	}
+	
+	
+	
+	/**
+	* Simulates a number of ticks.
+	*
+	* @param	ticks		number of ticks
+	*/
+	public void run(int ticks)
+	{
+		engine.step(ticks);
+	}
+	
+	
+	/**
+	* Returns the simulated engine.
+	*
+	* @return				the engine
+	*/
+	public Engine getEngine()
+	{
+		return engine;
+	}
+	
+	
+	/**
+	* Simulates games and prints the outcome of each.
+	*
+	* @param	args		number of ticks per game (default one minute of
+	*						play), number of games (default 1) and seed 
+	*						(default the current time)
+	*/
+	public static void main(String[] args)
+	{
+		int	ticks	= (args.length > 0) ? Integer.parseInt(args[0]) 
+										: 60 * Engine.TICKS_PER_SECOND;
+		int	games	= (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+		long	seed	= (args.length > 2) ? Long.parseLong(args[2]) 
+										: System.currentTimeMillis();
+		
+		RandomSource	random	= new RandomSource(seed);
+		
+		DataPreLoader	data	= DataPreLoader.getInstance();
+		
+		data.setHeadless(true);
+		data.initiateLoad();
+		
+		long	start	= System.nanoTime();
+		
+		for (int i = 0; i < games; i++)
+		{
+			Simulation	simulation	= new Simulation(WORLD_SIZE, random.split());
+			
+			simulation.run(ticks);
+			
+			Engine		engine	= simulation.getEngine();
+			Player[]	players	= engine.getPlayers();
+			
+			for (int j = 0; j < players.length; j++)
+			{
+				System.out.println("game " + i + " (seed " + engine.getSeed() + "): " +
+								   players[j].getName() + 
+								   " score " + players[j].getScore() +
+								   " energy " + players[j].getShip().getEnergy());
+			}
+		}
+		
+		double	seconds	= (System.nanoTime() - start) / 1e9;
+		
+		System.out.println("seed " + seed);
+		
+		System.out.println(((long) ticks * games) + " ticks in " + seconds + 
+						   " s (" + (long) (ticks * games / seconds) + " ticks/s, " +
+						   (long) (ticks * games / seconds / Engine.TICKS_PER_SECOND) + 
+						   "x real-time)");
+		
+		PhaseTimer	tick	= PerformanceMonitor.getInstance().getTimer(PerformanceMonitor.TICK);
+		
+		System.out.println("tick p50 " + tick.getP50Micros() + " us, p99 " + 
+						   tick.getP99Micros() + " us, max " + tick.getMaxMicros() + " us");
+	}
+} //end Simulation
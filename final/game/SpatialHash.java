@@ -0,0 +1,403 @@
+package	game;
+
+import	java.awt.Rectangle;
+import	java.util.ArrayList;
+import	java.util.HashMap;
+import	java.util.List;
+import	java.util.Map;
+
+
+/**
+* A uniform grid of square cells used to find objects which may collide (the
+* <em>broadphase</em>). Each object is registered in every cell its bounds
+* overlap; an area query returns the objects found in the cells overlapping the
+* area, so that only those have to be tested in detail.
+*
+* <p>
+*   The grid is unbounded. Cells are hashed into a fixed number of buckets,
+*   so objects from far away cells may occasionally be returned as well.
+* </p>
+*
+* <p>
+*   Static objects are added once; moving objects are passed to 
+*   <code>{@link #update}</code> whenever they have moved, which does nothing 
+*   unless they have entered or left a cell.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class SpatialHash
+{
+	/** Default cell width and height in pixels */
+	public static final int	DEFAULT_CELL_SIZE	= 64;
+	
+	/** Default number of buckets (must be a power of two) */
+	private static final int	DEFAULT_BUCKETS		= 1024;
+	
+	/** Cell width and height */
+	private int				cellSize;
+	
+	/** Entries of the objects in each bucket. An object is listed once for
+	*   each of its cells which hashes to the bucket. */
+	private ArrayList[]		buckets;
+	
+	/** Used to map a hash to a bucket */
+	private int				mask;
+	
+	/** Entry of each object */
+	private Map				entries;
+	
+	/** Stamp of the latest query, used to list each object only once */
+	private int				stamp;
+	
+	/** Number of candidate pairs returned by queries */
+	private long			pairsTested;
+	
+	/** Number of pairs ruled out by queries */
+	private long			pairsCulled;
+	
+	
+	
+	/**
+	* Creates a spatial hash.
+	*
+	* @param	cellSize	cell width and height in pixels
+	*/
+	public SpatialHash(int cellSize)
+	{
+		this(cellSize, DEFAULT_BUCKETS);
+	}
+	
+	
+	/**
+	* Creates a spatial hash.
+	*
+	* @param	cellSize	cell width and height in pixels
+	* @param	buckets		number of buckets; rounded up to a power of two
+	*/
+	public SpatialHash(int cellSize, int buckets)
+	{
+		if (cellSize <= 0)
+		{
+			throw new IllegalArgumentException("Cell size must be positive");
+		}
+		
+		int	size	= 1;
+		
+		while (size < buckets)
+		{
+			size	<<= 1;
+		}
+		
+		this.cellSize	= cellSize;
+		this.buckets	= new ArrayList[size];
+		this.mask		= size - 1;
+		this.entries	= new HashMap();
+	}
+	
+	
+	
+	/**
+	* Returns the cell width and height.
+	*
+	* @return				cell size in pixels
+	*/
+	public int getCellSize()
+	{
+		return cellSize;
+	}
+	
+	
+	/**
+	* Returns the number of registered objects.
+	*
+	* @return				object count
+	*/
+	public int size()
+	{
+		return entries.size();
+	}
+	
+	
+	/**
+	* Registers an object. If it's already registered it is moved instead.
+	*
+	* @param	o			the object
+	* @param	bounds		area covered by the object
+	*/
+	public void add(Object o, Rectangle bounds)
+	{
+		if (entries.containsKey(o))
+		{
+			update(o, bounds);
+			return;
+		}
+		
+		Entry	entry	= new Entry(o);
+		
+		setRange(entry.range, bounds);
+		entries.put(o, entry);
+		insert(entry);
+	}
+	
+	
+	/**
+	* Moves a registered object. Nothing happens unless the object has moved
+	* into other cells.
+	*
+	* @param	o			the object
+	* @param	bounds		new area covered by the object
+	*/
+	public void update(Object o, Rectangle bounds)
+	{
+		Entry	entry	= (Entry) entries.get(o);
+		
+		if (entry == null)
+		{
+			add(o, bounds);
+			return;
+		}
+		
+		int[]	range	= entry.range;
+		
+		int		minX	= cell(bounds.x),
+				minY	= cell(bounds.y),
+				maxX	= cell(bounds.x + bounds.width),
+				maxY	= cell(bounds.y + bounds.height);
+		
+		if ((minX == range[0]) && (minY == range[1]) && 
+			(maxX == range[2]) && (maxY == range[3]))
+		{
+			return;
+		}
+		
+		erase(entry);
+		setRange(range, bounds);
+		insert(entry);
+	}
+	
+	
+	/**
+	* Unregisters an object.
+	*
+	* @param	o			the object
+	*/
+	public void remove(Object o)
+	{
+		Entry	entry	= (Entry) entries.remove(o);
+		
+		if (entry != null)
+		{
+			erase(entry);
+		}
+	}
+	
+	
+	/**
+	* Unregisters all objects.
+	*
+	*/
+	public void clear()
+	{
+		for (int i = 0; i < buckets.length; i++)
+		{
+			if (buckets[i] != null)
+			{
+				buckets[i].clear();
+			}
+		}
+		
+		entries.clear();
+	}
+	
+	
+	/**
+	* Finds the objects which may overlap an area.
+	*
+	* @param	area		area to search
+	* @param	exclude		object to leave out of the result (typically the
+	*						one doing the query), or <em>null</em>
+	* @param	result		list to which the objects are added; it is 
+	*						cleared first
+	* @return				<code>result</code>
+	*/
+	public List query(Rectangle area, Object exclude, List result)
+	{
+		int		minX	= cell(area.x),
+				minY	= cell(area.y),
+				maxX	= cell(area.x + area.width),
+				maxY	= cell(area.y + area.height);
+		
+		result.clear();
+		stamp++;
+		
+		for (int y = minY; y <= maxY; y++)
+		{
+			for (int x = minX; x <= maxX; x++)
+			{
+				ArrayList	bucket	= buckets[hash(x, y)];
+				
+				if (bucket == null)	continue;
+				
+				for (int i = 0; i < bucket.size(); i++)
+				{
+					Entry	entry	= (Entry) bucket.get(i);
+					
+					// Objects in several of the cells are only listed once
+					if (entry.stamp == stamp)	continue;
+					
+					entry.stamp	= stamp;
+					
+					if (entry.object != exclude)
+					{
+						result.add(entry.object);
+					}
+				}
+			}
+		}
+		
+		int	others	= entries.containsKey(exclude) ? size() - 1 : size();
+		
+		pairsTested	+= result.size();
+		pairsCulled	+= others - result.size();
+		
+		return result;
+	}
+	
+	
+	/**
+	* Returns the number of candidate pairs returned by queries since the 
+	* statistics were last reset.
+	*
+	* @return				pairs passed on to the narrowphase
+	*/
+	public long getPairsTested()
+	{
+		return pairsTested;
+	}
+	
+	
+	/**
+	* Returns the number of pairs ruled out by queries since the statistics 
+	* were last reset.
+	*
+	* @return				pairs which didn't have to be tested
+	*/
+	public long getPairsCulled()
+	{
+		return pairsCulled;
+	}
+	
+	
+	/**
+	* Resets the pair counters.
+	*
+	*/
+	public void resetStatistics()
+	{
+		pairsTested	= 0;
+		pairsCulled	= 0;
+	}
+	
+	
+	/**
+	* Adds an object to the buckets of its cells, once for each cell so that
+	* <code>erase</code> takes out as many.
+	*
+	*/
+	private void insert(Entry entry)
+	{
+		int[]	range	= entry.range;
+		
+		for (int y = range[1]; y <= range[3]; y++)
+		{
+			for (int x = range[0]; x <= range[2]; x++)
+			{
+				int	i	= hash(x, y);
+				
+				if (buckets[i] == null)
+				{
+					buckets[i]	= new ArrayList();
+				}
+				
+				buckets[i].add(entry);
+			}
+		}
+	}
+	
+	
+	/**
+	* Removes an object from the buckets of its cells.
+	*
+	*/
+	private void erase(Entry entry)
+	{
+		int[]	range	= entry.range;
+		
+		for (int y = range[1]; y <= range[3]; y++)
+		{
+			for (int x = range[0]; x <= range[2]; x++)
+			{
+				ArrayList	bucket	= buckets[hash(x, y)];
+				
+				if (bucket != null)
+				{
+					bucket.remove(entry);
+				}
+			}
+		}
+	}
+	
+	
+	/**
+	* Stores the range of cells covered by an area.
+	*
+	*/
+	private void setRange(int[] range, Rectangle bounds)
+	{
+		range[0]	= cell(bounds.x);
+		range[1]	= cell(bounds.y);
+		range[2]	= cell(bounds.x + bounds.width);
+		range[3]	= cell(bounds.y + bounds.height);
+	}
+	
+	
+	/**
+	* Returns the cell containing a coordinate.
+	*
+	*/
+	private int cell(int coordinate)
+	{
+		return (int) Math.floor((double) coordinate / cellSize);
+	}
+	
+	
+	/**
+	* Maps a cell to a bucket.
+	*
+	*/
+	private int hash(int x, int y)
+	{
+		return ((x * 73856093) ^ (y * 19349663)) & mask;
+	}
+	
+	
+	
+	/**
+	* A registered object, the range of cells (min x, min y, max x, max y) it
+	* covers and the stamp of the last query which listed it.
+	*
+	*/
+	private static class Entry
+	{
+		final Object	object;
+		final int[]		range	= new int[4];
+		int				stamp;
+		
+		
+		Entry(Object object)
+		{
+			this.object	= object;
+		}
+	}
+} //end SpatialHash
@@ -1,310 +1,507 @@
-package	game.actor;
-
-import	java.awt.Point;
-import	java.awt.Graphics2D;
-import 	java.awt.Image;
-import 	java.awt.Color;
-
-import	game.inactor.Arrow;
-import 	game.GameObject;
-import 	game.Player;
-import 	utilities.DataPreLoader;
-import	utilities.Vector2D;
-
-
-/**
-* Ship is the <code>{@link Player}</code>'s tool in the game which he controls.
-* 
-* @author	Karl Olofsson
-* @author	Jimmy Stridh
-* @author	Johan Liesn
-* @version	5/11/2004 7:21PM
-*/
-public class Ship extends Actor
-{	
-	/** The maximum value of the ship's energy level */
-	public static final int	MAX_ENERGY	= 100;
-	
-	/** Energy level */
-	private int				energy;
-	
-	/** Credits */
-	private	int				credits;
-	
-	/** Indicator of the ship's shield */
-	private boolean			shielded;
-	
-	/** Radius of the shield in pixels */
-	private int				shieldRadius;
-	
-	// Ah...
-	private int				shieldDropoffCounter;
-	
-	/** Passenger in the ship */
-	private Passenger		passenger;
-	
-	/** Set if the ship has landed*/
-	private boolean			landed;	
-	
-	/** Ship owner */
-	private Player			owner;
-	
-	
-	
-	/**
-	* Create ship at (<em>0</em>, <em>0</em>).
-	*
-	* @param	player		ship owner
-	*/
-	public Ship(Player player)
-	{
-		this(player, new Point(0, 0));
-	}
-	
-	
-	/**
-	* Create ship at a given position.
-	*
-	* @param	player		ship owner
-	* @param	position	starting position
-	*/
-	public Ship(Player player, Point position)
-	{
-		super("default",
-			  new Image[] { DataPreLoader.getInstance().getImage("ship"+player.getName()) },
-			  1,
-			  position);
-		
-		// Add thrust state
-		addState("thrust", 
-				new Image[] { DataPreLoader.getInstance().getImage("ship_thrust"+player.getName()) });		
-		
-		// Initialize variables
-		energy			= Ship.MAX_ENERGY;
-		credits			= 0;
-		landed			= false;
-		owner			= player;
-		
-		shieldDropoffCounter	= 0;
-		
-		// Shield radius is set to the longer of the image axes / 2
-		shieldRadius 	= Math.max(frames[0].getWidth(), frames[0].getHeight()) / 2;
-				
-		setVisible(true);  // DEBUG
-	}
-	
-	
-	
-	/**
-	* Makes the ship implode. Used when the ship runs out of energy.
-	* 
-	*/
-	public void implode()
-	{
-		
-	}
-	
-	
-	/**
-	* Set a new energy level for the ship.
-	*
-	* @param				new energy level
-	*/
-	public void setEnergy(int energy)
-	{
-		this.energy	= energy;
-	}
-	
-	
-	/**
-	* Add energy to the ship. The added number can be negative to reduce the
-	* ship's energy.
-	*
-	* @param				energy to add
-	*/
-	public void addEnergy(int energy)
-	{
-		this.energy	+= energy;
-	}
-	
-	
-	/**
-	* Returns the ship's energy level.
-	*
-	* @param				ship's energy
-	*/
-	public int getEnergy()
-	{
-		return energy;
-	}
-	
-	
-	/**
-	* Activates or deactivates the ship's shield.
-	*
-	* @param	shielded	activate shield?
-	*/
-	public void setShielded(boolean shielded)
-	{
-		this.shielded			= shielded;
-		shieldDropoffCounter	= 50;
-	}
-	
-	
-	/**
-	* Returns the ship's shield status.
-	*
-	* @return				<code>true</code> if the ship's shield are up,
-	*						<code>false</code> otherwise
-	*/
-	public boolean isShielded()
-	{
-		return shielded;
-	}
-	
-	
-	/**
-	* Lands the ship.
-	*
-	*/
-	public void land()
-	{
-		setMotionVector(new Vector2D(0, 0));
-		landed = true;
-	}
-	
-	
-	/**
-	* Helps the ship at lift off.
-	*
-	*/
-	public void liftOff()
-	{
-		// Lift off help
-		setMotionVector(new Vector2D(0, -2));
-		
-		// Move ship a bit
-		Point	position = getPosition();
-		position.translate(0, -3);
-		setPosition(position);
-		
-		// We're off
-		landed = false;
-	}
-	
-	
-	/**
-	* Returns whether the eagle has landed or not.
-	*
-	* @return				<code>true</code> if the ship has landed, 
-	*						<code>false</code> otherwise
-	*/
-	public boolean hasLanded()
-	{
-		return landed;
-	}
-	
-	
-	/**
-	*
-	*
-	*/
-	public void pickUpPassenger(Passenger p)
-	{
-		passenger	= p;
-	}
-	
-	
-	/**
-	* Leaves a passenger.
-	*
-	*/
-	public void dropOffPassenger()
-	{
-		passenger	= null;
-	}
-	
-	
-	/**
-	* Returns wether the ship has a passenger or not.
-	*
-	* @return				<code>true</code> if the ship has a passenger, 
-	*						<code>false</code> otherwise
-	*/
-	public boolean hasPassenger()
-	{
-		return (passenger != null);
-	}
-	
-	
-	/**
-	* Returns the passenger.
-	*
-	* @return				the ship's passenger, or <em>null</em> if the ship
-	*						doesn't carry one
-	*/
-	public Passenger getPassenger()
-	{
-		return passenger;
-	}
-	
-	
-	/**
-	* Returns a reference to the player responsible for whatever this ship has
-	* done.
-	*
-	* @return				the player
-	*/
-	public Player getOwner()
-	{
-		return owner;
-	}
-	
-	
-	/**
-	* Returns ship's shield radius.
-	*
-	* @return				shield radius
-	*/
-	public int getRadius()
-	{
-		return shieldRadius;
-	}
-	
-	
-	/**
-	* Paints the ship and its shield.
-	*
-	* @param	g			graphics context
-	*/
-	public void paint(Graphics2D g)
-	{
-		Vector2D shipV = getMotionVector();
-		rotateTo(shipV.getX() * 8);
-		
-		super.paint(g);
-		
-		// Paint shield?
-		if (shielded)
-		{
-			if (shieldDropoffCounter > 0)
-			{
-				// Paint shield
-				Point	center	= getCenterPoint();
-				center.translate(-shieldRadius, -shieldRadius);
-				
-				g.setColor(owner.getColor());
-				g.drawOval(center.x - 2,
-						   center.y - 2,
-						   shieldRadius * 2 + 4,
-						   shieldRadius * 2 + 4);
-				
-				shieldDropoffCounter--;
-			}
-			else
-			{
-				setShielded(false);
-			}
-		}
-	}
+package	game.actor;
+
+import	java.awt.Point;
+import	java.awt.Graphics2D;
+import	java.awt.Rectangle;
+import 	java.awt.Image;
+import 	java.awt.Color;
+
+import	game.inactor.Arrow;
+import	game.EntityStore;
+import 	game.GameObject;
+import 	game.Player;
+import 	utilities.DataPreLoader;
+import	utilities.Vector2D;
+
+
+/**
+* Ship is the <code>{@link Player}</code>'s tool in the game which he controls.
+* 
+* <p>
+*   The position, motion, energy and landed and shield flags of the ship are
+*   kept in an <code>{@link EntityStore}</code>, which the engine updates
+*   directly. The sprite's own position and motion are only brought up to 
+*   date when the ship is painted.
+* </p>
+* 
+* @author	Karl Olofsson
+* @author	Jimmy Stridh
+* @author	Johan Liesén
+* @version	5/11/2004 7:21PM
+*/
+public class Ship extends Actor
+{	
+	/** The maximum value of the ship's energy level */
+	public static final int	MAX_ENERGY	= 100;
+	
+	/** Store holding the ship's state */
+	private EntityStore		store;
+	
+	/** Id of the ship in the store */
+	private int				entity;
+	
+	/** Credits */
+	private	int				credits;
+	
+	/** Ticks the shield stays up after a bump */
+	private static final int	SHIELD_TICKS	= 50;
+	
+	/** Ticks left until the shield drops */
+	private int				shieldDropoffCounter;
+	
+	/** Passenger in the ship */
+	private Passenger		passenger;
+	
+	/** Ship owner */
+	private Player			owner;
+	
+	
+	
+	/**
+	* Create ship at (<em>0</em>, <em>0</em>).
+	*
+	* @param	player		ship owner
+	*/
+	public Ship(Player player)
+	{
+		this(player, new Point(0, 0));
+	}
+	
+	
+	/**
+	* Create ship at a given position, with a store of its own.
+	*
+	* @param	player		ship owner
+	* @param	position	starting position
+	*/
+	public Ship(Player player, Point position)
+	{
+		this(player, position, new EntityStore(1));
+	}
+	
+	
+	/**
+	* Create ship at a given position and add it to a store.
+	*
+	* @param	player		ship owner
+	* @param	position	starting position
+	* @param	store		store to keep the ship's state in
+	*/
+	public Ship(Player player, Point position, EntityStore store)
+	{
+		super("default",
+			  new Image[] { getImage("ship", player) },
+			  1,
+			  position);
+		
+		// Add thrust state
+		addState("thrust", 
+				new Image[] { getImage("ship_thrust", player) });		
+		
+		// Initialize variables
+		credits			= 0;
+		owner			= player;
+		
+		shieldDropoffCounter	= 0;
+		
+		// Shield radius is set to the longer of the image axes / 2
+		int	shieldRadius	= Math.max(frames[0].getWidth(), frames[0].getHeight()) / 2;
+		
+		this.store		= store;
+		this.entity		= store.add(position.x, position.y, bounds.width, 
+									bounds.height, shieldRadius, Ship.MAX_ENERGY);
+				
+		setVisible(true);  // DEBUG
+	}
+	
+	
+	
+	/**
+	* Returns the image of a player's ship, or the plain one if the player 
+	* has none of its own.
+	*
+	* @param	key			name of the plain image
+	* @param	player		ship owner
+	* @return				the image
+	*/
+	private static Image getImage(String key, Player player)
+	{
+		DataPreLoader	data	= DataPreLoader.getInstance();
+		Image			image	= data.getImage(key + player.getName());
+		
+		return (image != null) ? image : data.getImage(key);
+	}
+	
+	
+	
+	/**
+	* Makes the ship implode. Used when the ship runs out of energy.
+	* 
+	*/
+	public void implode()
+	{
+		
+	}
+	
+	
+	/**
+	* Set a new energy level for the ship.
+	*
+	* @param				new energy level
+	*/
+	public void setEnergy(int energy)
+	{
+		store.setEnergy(entity, energy);
+	}
+	
+	
+	/**
+	* Add energy to the ship. The added number can be negative to reduce the
+	* ship's energy.
+	*
+	* @param				energy to add
+	*/
+	public void addEnergy(int energy)
+	{
+		store.getEnergy()[entity]	+= energy;
+	}
+	
+	
+	/**
+	* Returns the ship's energy level.
+	*
+	* @param				ship's energy
+	*/
+	public int getEnergy()
+	{
+		return store.getEnergy()[entity];
+	}
+	
+	
+	/**
+	* Activates or deactivates the ship's shield.
+	*
+	* @param	shielded	activate shield?
+	*/
+	public void setShielded(boolean shielded)
+	{
+		store.setFlag(entity, EntityStore.SHIELDED, shielded);
+		shieldDropoffCounter	= SHIELD_TICKS;
+	}
+	
+	
+	/**
+	* Lets the shield drop after a while. Called by the engine once a tick,
+	* so that the shield is part of the simulated state and doesn't depend 
+	* on how often the ship is painted.
+	*
+	*/
+	public void updateShield()
+	{
+		if (isShielded() && (--shieldDropoffCounter <= 0))
+		{
+			store.setFlag(entity, EntityStore.SHIELDED, false);
+		}
+	}
+	
+	
+	/**
+	* Returns the ship's shield status.
+	*
+	* @return				<code>true</code> if the ship's shield are up,
+	*						<code>false</code> otherwise
+	*/
+	public boolean isShielded()
+	{
+		return store.isSet(entity, EntityStore.SHIELDED);
+	}
+	
+	
+	/**
+	* Lands the ship.
+	*
+	*/
+	public void land()
+	{
+		setMotionVector(0, 0);
+		store.setFlag(entity, EntityStore.LANDED, true);
+	}
+	
+	
+	/**
+	* Helps the ship at lift off.
+	*
+	*/
+	public void liftOff()
+	{
+		// Lift off help
+		setMotionVector(0, -2);
+		
+		// Move ship a bit
+		store.getY()[entity]	-= 3;
+		
+		// We're off
+		store.setFlag(entity, EntityStore.LANDED, false);
+	}
+	
+	
+	/**
+	* Returns whether the eagle has landed or not.
+	*
+	* @return				<code>true</code> if the ship has landed, 
+	*						<code>false</code> otherwise
+	*/
+	public boolean hasLanded()
+	{
+		return store.isSet(entity, EntityStore.LANDED);
+	}
+	
+	
+	/**
+	*
+	*
+	*/
+	public void pickUpPassenger(Passenger p)
+	{
+		passenger	= p;
+	}
+	
+	
+	/**
+	* Leaves a passenger.
+	*
+	*/
+	public void dropOffPassenger()
+	{
+		passenger	= null;
+	}
+	
+	
+	/**
+	* Returns wether the ship has a passenger or not.
+	*
+	* @return				<code>true</code> if the ship has a passenger, 
+	*						<code>false</code> otherwise
+	*/
+	public boolean hasPassenger()
+	{
+		return (passenger != null);
+	}
+	
+	
+	/**
+	* Returns the passenger.
+	*
+	* @return				the ship's passenger, or <em>null</em> if the ship
+	*						doesn't carry one
+	*/
+	public Passenger getPassenger()
+	{
+		return passenger;
+	}
+	
+	
+	/**
+	* Returns a reference to the player responsible for whatever this ship has
+	* done.
+	*
+	* @return				the player
+	*/
+	public Player getOwner()
+	{
+		return owner;
+	}
+	
+	
+	/**
+	* Returns ship's shield radius.
+	*
+	* @return				shield radius
+	*/
+	public int getRadius()
+	{
+		return store.getRadius()[entity];
+	}
+	
+	
+	/**
+	* Returns the store holding the ship's state.
+	*
+	* @return				entity store
+	*/
+	public EntityStore getEntityStore()
+	{
+		return store;
+	}
+	
+	
+	/**
+	* Returns the id of the ship in its store.
+	*
+	* @return				entity id
+	*/
+	public int getEntityId()
+	{
+		return entity;
+	}
+	
+	
+	/**
+	* Moves the ship.
+	*
+	* @param	x			x position
+	* @param	y			y position
+	*/
+	public void setPosition(int x, int y)
+	{
+		// The sprite constructor places the ship before it has a store
+		if (store == null)
+		{
+			super.setPosition(x, y);
+		}
+		else
+		{
+			store.setPosition(entity, x, y);
+		}
+	}
+	
+	
+	public Point getPosition()
+	{
+		return getPosition(new Point());
+	}
+	
+	
+	public Point getPosition(Point p)
+	{
+		p.setLocation((int) store.getX()[entity], (int) store.getY()[entity]);
+		
+		return p;
+	}
+	
+	
+	public Point getCenterPoint()
+	{
+		return getCenterPoint(new Point());
+	}
+	
+	
+	public Point getCenterPoint(Point p)
+	{
+		getPosition(p).translate(bounds.width / 2, bounds.height / 2);
+		
+		return p;
+	}
+	
+	
+	public Rectangle getBounds()
+	{
+		return getBounds(new Rectangle());
+	}
+	
+	
+	public Rectangle getBounds(Rectangle r)
+	{
+		r.setBounds((int) store.getX()[entity], (int) store.getY()[entity], 
+					bounds.width, bounds.height);
+		
+		return r;
+	}
+	
+	
+	public boolean detectCollision(Rectangle r)
+	{
+		return getBounds().intersects(r);
+	}
+	
+	
+	public void rememberPosition()
+	{
+		store.rememberPosition(entity);
+	}
+	
+	
+	public void setMotionVector(Vector2D v)
+	{
+		store.setMotion(entity, v.getX(), v.getY());
+	}
+	
+	
+	public void setMotionVector(double x, double y)
+	{
+		store.setMotion(entity, x, y);
+	}
+	
+	
+	public Vector2D getMotionVector()
+	{
+		return getMotionVector(new Vector2D(0, 0));
+	}
+	
+	
+	public Vector2D getMotionVector(Vector2D v)
+	{
+		return v.set(store.getMotionX()[entity], store.getMotionY()[entity]);
+	}
+	
+	
+	/**
+	* Returns the position where the ship is painted.
+	*
+	* @return				paint position
+	*/
+	public Point getRenderPosition()
+	{
+		updateSprite();
+		
+		return super.getRenderPosition();
+	}
+	
+	
+	/**
+	* Copies the ship's state from the store to the sprite, for painting.
+	*
+	*/
+	private void updateSprite()
+	{
+		if (previousPosition == null)
+		{
+			previousPosition	= new Point();
+		}
+		
+		previousPosition.setLocation((int) store.getPreviousX()[entity], 
+									 (int) store.getPreviousY()[entity]);
+		super.setPosition((int) store.getX()[entity], (int) store.getY()[entity]);
+		motionVector.set(store.getMotionX()[entity], store.getMotionY()[entity]);
+	}
+	
+	
+	/**
+	* Paints the ship and its shield.
+	*
+	* @param	g			graphics context
+	*/
+	public void paint(Graphics2D g)
+	{
+		updateSprite();
+		rotateTo(motionVector.getX() * 8);
+		
+		super.paint(g);
+		
+		// Paint shield?
+		if (isShielded())
+		{
+			// Paint shield around the painted (interpolated) ship
+			int		shieldRadius	= getRadius();
+			Point	center			= getRenderPosition();
+			center.translate(bounds.width / 2 - shieldRadius, 
+							 bounds.height / 2 - shieldRadius);
+			
+			g.setColor(owner.getColor());
+			g.drawOval(center.x - 2,
+					   center.y - 2,
+					   shieldRadius * 2 + 4,
+					   shieldRadius * 2 + 4);
+		}
+	}
 } //end Ship
\ No newline at end of file
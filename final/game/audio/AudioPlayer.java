@@ -1,162 +1,239 @@
-package game.audio;
-
-import javax.sound.sampled.Clip;
-import javax.sound.midi.Sequencer;
-import javax.sound.midi.Sequence;
-import javax.sound.midi.Synthesizer;
-import javax.sound.midi.MidiSystem;
-import javax.sound.midi.MidiChannel;
-import javax.sound.midi.InvalidMidiDataException;
-import javax.sound.midi.MidiUnavailableException;
-import java.util.Map;
-import java.util.HashMap;
-
-import utilities.DataPreLoader;
-
-
-/**
-* 
-* AudioPlayer plays audio clips and midi sequences. It uses a datapreloader as a
-* container for pre-loaded files.
-*
-* @author	Jimmy Stridh
-* @author	Johan Liesn
-* @version	1.1
-*/
-public class AudioPlayer
-{
-	/** Singleton instance of this class */
-	private static AudioPlayer	singleton	= new AudioPlayer();
-	
-	/** The data repository */
-	private DataPreLoader dpl;
-	
-	/** The midi sequencer of the system */
-	private Sequencer sequencer;
-	
-	/** Currently playing sequence	*/
-	private String currentSequence = "";
-	
-	
-	
-	/**
-	* Internal constructor used to initialize instance fields
-	*
-	*/
-	private AudioPlayer()
-	{
-		dpl = DataPreLoader.getInstance();
-		
-		try
-		{
-			// Create a sequencer for the sequence
-			sequencer = MidiSystem.getSequencer();
-			sequencer.open();
-
-	    } 
-	    catch (MidiUnavailableException e)
-	    {
-			System.err.println(e);
-		}
-	}
-
-
-	/**
-	* Get the singleton instance of the audio player.
-	*
-	* @return	Instance of the AudioLoader
-	*/
-	public static AudioPlayer getInstance()
-	{
-		return singleton;
-	}
-		
-	
-	/**
-	*	Play sound effect
-	*
-	*	@param	key	The name of the file from the data repository.
-	*
-	*/
-	public void playEffect(String key, boolean interruptable)
-	{
-		Clip	clip	= dpl.getClip(key);
-		
-		if (clip != null)
-		{
-			playClip(clip, interruptable);
-		}
-	}
-	
-	
-	/**
-	*	Play music track
-	*
-	*	@param	key	The name of the file from the data repository
-	*
-	*/
-	public void playMusic(String key)
-	{
-		Sequence	seq	= dpl.getSequence(key);
-
-		
-		if ((seq != null) && (currentSequence != key))
-		{
-			//Change the indicator of currently playing sequence.
-			currentSequence	= key;
-			playSequence(seq);
-		}
-		
-	}
-	
-	
-	/**
-	* Instantly play a clip.
-	*
-	* @param	clip		audio clip to play
-	*/	
-	public void playClip(Clip clip, boolean interruptable){
-		if(interruptable)
-		{
-			if (clip != null)
-			{
-				clip.setFramePosition(0);
-				clip.start();
-			}
-		}
-		else
-		{
-			if (clip != null && !clip.isRunning())
-			{
-				clip.setFramePosition(0);
-				clip.start();
-			}
-		}
-	}
-	
-	
-	/**
-	* Play (MIDI) sequence.
-	*
-	* @param	seq			sequence to play
-	*/
-	public void playSequence(Sequence seq){
-		try
-		{
-			if (!sequencer.isRunning()) 
-			{
-				sequencer.stop();
-			}
-
-			// Initiate
-		    sequencer.setSequence(seq);
-		    
-		    // Start playing (loop)
-		    sequencer.start();
-		} 
-		catch (InvalidMidiDataException e) 
-		{
-			System.err.println(e);
-	    }
-	}
-} //end class AudioPlayer
+package game.audio;
+
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.midi.Sequencer;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.Synthesizer;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.MidiChannel;
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MidiUnavailableException;
+import java.util.Map;
+import java.util.HashMap;
+
+import utilities.DataPreLoader;
+
+
+/**
+* 
+* AudioPlayer plays audio clips and midi sequences. It uses a datapreloader as a
+* container for pre-loaded files.
+*
+* <p>
+*   Sound effects are mixed by an <code>{@link EffectMixer}</code>, so 
+*   playing one never blocks the caller and the same effect may be heard 
+*   several times at once.
+* </p>
+*
+* @author	Jimmy Stridh
+* @author	Johan Liesén
+* @version	1.1
+*/
+public class AudioPlayer
+{
+	/** Singleton instance of this class */
+	private static AudioPlayer	singleton	= new AudioPlayer();
+	
+	/** The data repository */
+	private DataPreLoader dpl;
+	
+	/** The midi sequencer of the system */
+	private Sequencer sequencer;
+	
+	/** Currently playing sequence	*/
+	private String currentSequence = "";
+	
+	/** Mixes the sound effects */
+	private EffectMixer mixer;
+	
+	
+	
+	/**
+	* Internal constructor used to initialize instance fields
+	*
+	*/
+	private AudioPlayer()
+	{
+		dpl = DataPreLoader.getInstance();
+		
+		try
+		{
+			// Create a sequencer for the sequence
+			sequencer = MidiSystem.getSequencer();
+			sequencer.open();
+
+	    } 
+	    catch (MidiUnavailableException e)
+	    {
+			System.err.println(e);
+		}
+		
+		mixer = new EffectMixer(dpl);
+		
+		try
+		{
+			mixer.start();
+		}
+		catch (LineUnavailableException e)
+		{
+			// Play no effects
+			System.err.println(e);
+		}
+		catch (IllegalArgumentException e)
+		{
+			// Thrown if the system has no line for the mixing format
+			System.err.println(e);
+		}
+	}
+
+
+	/**
+	* Get the singleton instance of the audio player.
+	*
+	* @return	Instance of the AudioLoader
+	*/
+	public static AudioPlayer getInstance()
+	{
+		return singleton;
+	}
+		
+	
+	/**
+	*	Play sound effect. Returns at once; the effect is played by the 
+	*	mixer thread.
+	*
+	*	@param	key	The name of the file from the data repository.
+	*	@param	interruptable	<code>true</code> to restart the effect if
+	*			it's already playing on all its voices, <code>false</code>
+	*			to skip it instead
+	*/
+	public void playEffect(String key, boolean interruptable)
+	{
+		mixer.play(key, interruptable);
+	}
+	
+	
+	/**
+	*	Play a long sound while it's read, rather than from memory. Returns
+	*	at once.
+	*
+	*	@param	key	The name of the stream in the data repository
+	*	@param	loop	<code>true</code> to start over at the end
+	*	@return	the stream, e.g. to stop it, or <code>null</code> if it 
+	*			can't be played
+	*/
+	public AudioStream playStream(String key, boolean loop)
+	{
+		AudioStream	stream	= new AudioStream(dpl, key, loop);
+		
+		return mixer.play(stream) ? stream : null;
+	}
+	
+	
+	/**
+	*	Load the sound effects of a group in the background, so that they
+	*	play the first time they're asked for.
+	*
+	*	@param	group	The name of the group in the data repository
+	*/
+	public void loadEffects(String group)
+	{
+		mixer.loadGroup(group);
+	}
+	
+	
+	/**
+	*	Set how many times an effect can be heard at once.
+	*
+	*	@param	key	The name of the file from the data repository
+	*	@param	voices	number of voices
+	*/
+	public void setVoices(String key, int voices)
+	{
+		mixer.setVoices(key, voices);
+	}
+	
+	
+	/**
+	*	Get the effect mixer, e.g. to see how many effects were dropped.
+	*
+	*	@return	the mixer
+	*/
+	public EffectMixer getMixer()
+	{
+		return mixer;
+	}
+	
+	
+	/**
+	*	Play music track
+	*
+	*	@param	key	The name of the file from the data repository
+	*
+	*/
+	public void playMusic(String key)
+	{
+		Sequence	seq	= dpl.getSequence(key);
+
+		
+		if ((seq != null) && (currentSequence != key))
+		{
+			//Change the indicator of currently playing sequence.
+			currentSequence	= key;
+			playSequence(seq);
+		}
+		
+	}
+	
+	
+	/**
+	* Instantly play a clip.
+	*
+	* @param	clip		audio clip to play
+	*/	
+	public void playClip(Clip clip, boolean interruptable){
+		if(interruptable)
+		{
+			if (clip != null)
+			{
+				clip.setFramePosition(0);
+				clip.start();
+			}
+		}
+		else
+		{
+			if (clip != null && !clip.isRunning())
+			{
+				clip.setFramePosition(0);
+				clip.start();
+			}
+		}
+	}
+	
+	
+	/**
+	* Play (MIDI) sequence.
+	*
+	* @param	seq			sequence to play
+	*/
+	public void playSequence(Sequence seq){
+		try
+		{
+			if (!sequencer.isRunning()) 
+			{
+				sequencer.stop();
+			}
+
+			// Initiate
+		    sequencer.setSequence(seq);
+		    
+		    // Start playing (loop)
+		    sequencer.start();
+		} 
+		catch (InvalidMidiDataException e) 
+		{
+			System.err.println(e);
+	    }
+	}
+} //end class AudioPlayer
@@ -0,0 +1,316 @@
+package	game.audio;
+
+import	java.io.IOException;
+import	java.io.InputStream;
+import	java.util.concurrent.atomic.AtomicInteger;
+import	java.util.concurrent.atomic.AtomicLong;
+import	java.util.concurrent.locks.LockSupport;
+import	javax.sound.sampled.UnsupportedAudioFileException;
+
+import	utilities.DataPreLoader;
+import	utilities.SoundDecoder;
+import	utilities.SoundSample;
+
+
+/**
+* A sound played while it's being read, for sounds too long to keep decoded
+* in memory (e.g. ambient tracks and voice lines).
+*
+* <p>
+*   A reader thread decodes the file into a small ring of buffers, staying
+*   at most <code>{@link #BUFFERS}</code> buffers ahead of the 
+*   <code>{@link EffectMixer}</code>, which mixes from the ring without 
+*   waiting. If the reader falls behind, the stream is silent until it 
+*   catches up; such underruns are counted.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class AudioStream implements Runnable
+{
+	/** Number of buffers in the ring */
+	public static final int		BUFFERS			= 4;
+	
+	/** Frames per buffer (about 90 ms) */
+	public static final int		BUFFER_FRAMES	= 4096;
+	
+	/** Where the sound is */
+	private DataPreLoader		data;
+	
+	/** Name of the sound */
+	private String				key;
+	
+	/** Set to start over at the end */
+	private boolean				loop;
+	
+	/** The ring, and the number of samples in each buffer */
+	private short[][]			buffers	= new short[BUFFERS][BUFFER_FRAMES * SoundSample.CHANNELS];
+	private int[]				lengths	= new int[BUFFERS];
+	
+	/** Number of buffers filled and mixed, respectively */
+	private AtomicLong			written	= new AtomicLong(),
+								read	= new AtomicLong();
+	
+	/** Set when no more buffers will be filled */
+	private volatile boolean	ended;
+	
+	/** Set when asked to stop */
+	private volatile boolean	stopped;
+	
+	/** The reader thread */
+	private Thread				reader;
+	
+	/** Number of periods the mixer found no buffer to mix */
+	private AtomicInteger		underruns	= new AtomicInteger();
+	
+	// Used by the mixer thread only
+	private int					offset;
+	private boolean				finished;
+	
+	
+	
+	/**
+	* Creates a stream. Nothing is read until started.
+	*
+	* @param	data		the data cache, opening the file
+	* @param	key			name of the sound
+	* @param	loop		<code>true</code> to start over at the end
+	*/
+	public AudioStream(DataPreLoader data, String key, boolean loop)
+	{
+		this.data	= data;
+		this.key	= key;
+		this.loop	= loop;
+	}
+	
+	
+	
+	/**
+	* Starts reading on a thread of its own.
+	*
+	*/
+	synchronized void start()
+	{
+		if (reader == null)
+		{
+			reader	= new Thread(this, "Audio stream " + key);
+			reader.setDaemon(true);
+			reader.start();
+		}
+	}
+	
+	
+	/**
+	* Stops playing. The stream can't be restarted.
+	*
+	*/
+	public void stop()
+	{
+		stopped	= true;
+		
+		Thread	t	= reader;
+		
+		if (t != null)
+		{
+			LockSupport.unpark(t);
+		}
+	}
+	
+	
+	/**
+	* Returns whether the stream is still to be heard.
+	*
+	* @return				<code>false</code> once stopped, or played to the
+	*						end
+	*/
+	public boolean isPlaying()
+	{
+		return !stopped && !(ended && (read.get() == written.get()));
+	}
+	
+	
+	/**
+	* Returns the number of times the mixer found no buffer ready, i.e. the
+	* stream wasn't heard for a period.
+	*
+	* @return				underrun count
+	*/
+	public int getUnderrunCount()
+	{
+		return underruns.get();
+	}
+	
+	
+	/**
+	* Reader thread.
+	*
+	*/
+	public void run()
+	{
+		SoundDecoder	decoder	= open();
+		
+		try
+		{
+			while ((decoder != null) && !stopped)
+			{
+				long	w	= written.get();
+				
+				// Wait for the mixer to free a buffer
+				if (w - read.get() >= BUFFERS)
+				{
+					LockSupport.park(this);
+					continue;
+				}
+				
+				int		slot		= (int) (w % BUFFERS);
+				short[]	buffer		= buffers[slot];
+				int		length		= 0;
+				boolean	reopened	= false;
+				
+				while (length < buffer.length)
+				{
+					int	count	= decoder.read(buffer, length, buffer.length - length);
+					
+					if (count >= 0)
+					{
+						length		+= count;
+						reopened	= false;
+						continue;
+					}
+					
+					decoder.close();
+					decoder	= null;
+					
+					// Start over, unless the file is empty
+					if (!loop || stopped || reopened)
+					{
+						break;
+					}
+					
+					decoder		= open();
+					reopened	= true;
+					
+					if (decoder == null)
+					{
+						break;
+					}
+				}
+				
+				if (length > 0)
+				{
+					lengths[slot]	= length;
+					written.set(w + 1);
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println(key + ": " + e);
+		}
+		finally
+		{
+			if (decoder != null)
+			{
+				decoder.close();
+			}
+			
+			ended	= true;
+		}
+	}
+	
+	
+	/**
+	* Opens the file.
+	*
+	* @return				decoder reading the file, or <code>null</code> if
+	*						it can't be opened
+	*/
+	private SoundDecoder open()
+	{
+		try
+		{
+			InputStream	in	= data.openAudioStream(key);
+			
+			if (in == null)
+			{
+				System.err.println(key + ": no such stream");
+				return null;
+			}
+			
+			return new SoundDecoder(in);
+		}
+		catch (UnsupportedAudioFileException e)
+		{
+			System.err.println(key + ": " + e);
+		}
+		catch (IOException e)
+		{
+			System.err.println(key + ": " + e);
+		}
+		
+		return null;
+	}
+	
+	
+	/**
+	* Adds the next period of the stream to a mix. Called by the mixer 
+	* thread; never waits.
+	*
+	* @param	mix			interleaved samples to add to
+	* @return				<code>false</code> once the stream is finished
+	*/
+	boolean mixInto(int[] mix)
+	{
+		if (finished || stopped)
+		{
+			finished	= true;
+			return false;
+		}
+		
+		int	position	= 0;
+		
+		while (position < mix.length)
+		{
+			long	r	= read.get();
+			
+			if (r == written.get())
+			{
+				if (ended && (r == written.get()))
+				{
+					finished	= true;
+					return position > 0;
+				}
+				
+				// Not counting the wait for the first buffer
+				if (r > 0)
+				{
+					underruns.incrementAndGet();
+				}
+				
+				break;
+			}
+			
+			int		slot	= (int) (r % BUFFERS);
+			short[]	buffer	= buffers[slot];
+			int		count	= Math.min(lengths[slot] - offset, mix.length - position);
+			
+			for (int k = 0; k < count; k++)
+			{
+				mix[position + k]	+= buffer[offset + k];
+			}
+			
+			position	+= count;
+			offset		+= count;
+			
+			// Hand the buffer back to the reader
+			if (offset == lengths[slot])
+			{
+				offset	= 0;
+				read.set(r + 1);
+				LockSupport.unpark(reader);
+			}
+		}
+		
+		return true;
+	}
+} //end AudioStream
@@ -0,0 +1,570 @@
+package	game.audio;
+
+import	java.util.ArrayList;
+import	java.util.Arrays;
+import	java.util.HashMap;
+import	java.util.List;
+import	java.util.Map;
+import	java.util.concurrent.ConcurrentHashMap;
+import	java.util.concurrent.BlockingQueue;
+import	java.util.concurrent.LinkedBlockingQueue;
+import	java.util.concurrent.atomic.AtomicInteger;
+import	java.util.concurrent.locks.LockSupport;
+import	javax.sound.sampled.AudioSystem;
+import	javax.sound.sampled.LineUnavailableException;
+import	javax.sound.sampled.SourceDataLine;
+
+import	utilities.DataPreLoader;
+import	utilities.SoundSample;
+
+
+/**
+* Mixes sound effects into a single line on a thread of its own.
+*
+* <p>
+*   <code>{@link #play(String, boolean)}</code> looks the sound up among 
+*   the mixer's own samples and puts a request in a lock-free queue, so the
+*   game loop never waits on <code>javax.sound</code> or the disk. The 
+*   samples are taken from the data cache by a loader thread, ahead of time
+*   with <code>{@link #loadGroup(String)}</code> or on the first request 
+*   for a sound, which is dropped. Once loaded a sample stays with the 
+*   mixer, even if the data cache evicts it. The mixer thread takes the 
+*   requests, starts a voice
+*   for each, and mixes all playing voices a period at a time into a 
+*   <code>SourceDataLine</code>. Each effect has a pool of voices, so it can 
+*   be heard several times at once (e.g. two ships bumping at the same time).
+* </p>
+*
+* <p>
+*   Long sounds are played as <code>{@link AudioStream}</code>s, mixed from
+*   buffers filled by a reader thread of their own.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class EffectMixer implements Runnable
+{
+	/** Voices per effect unless set otherwise */
+	public static final int		DEFAULT_VOICES	= 4;
+	
+	/** Frames mixed at a time (about 12 ms) */
+	private static final int	PERIOD_FRAMES	= 512;
+	
+	/** Periods buffered in the line; more means fewer drop-outs but more 
+	*   latency */
+	private static final int	LINE_PERIODS	= 4;
+	
+	/** Requests which can be waiting at once */
+	private static final int	QUEUE_CAPACITY	= 64;
+	
+	/** How long to sleep at most while there's nothing to play */
+	private static final long	IDLE_NANOS		= 50 * 1000 * 1000;
+	
+	/** Where the sounds are */
+	private DataPreLoader		data;
+	
+	/** The line mixed into, or <code>null</code> if not started */
+	private SourceDataLine		line;
+	
+	/** The mixer thread */
+	private Thread				thread;
+	
+	private volatile boolean	running;
+	
+	/** Requests not yet taken by the mixer thread */
+	private EffectQueue			queue		= new EffectQueue(QUEUE_CAPACITY);
+	
+	/** Number of voices by effect name, where set */
+	private Map					voiceCounts	= new ConcurrentHashMap();
+	
+	/** Requests refused as the queue was full, or dropped as all voices were
+	*   busy */
+	private AtomicInteger		dropped		= new AtomicInteger();
+	
+	/** Loaded sounds by name */
+	private Map					samples		= new ConcurrentHashMap();
+	
+	/** Names of the sounds asked for, loaded or not; unknown sounds stay 
+	*   here so that they are only looked for once */
+	private Map					requested	= new ConcurrentHashMap();
+	
+	/** Names of the sounds for the loader thread to load */
+	private BlockingQueue		toLoad		= new LinkedBlockingQueue();
+	
+	// Used by the mixer thread only
+	private Map					effects		= new HashMap();
+	private List				effectList	= new ArrayList();
+	private List				streams		= new ArrayList();
+	private int[]				mix			= new int[PERIOD_FRAMES * SoundSample.CHANNELS];
+	private byte[]				out			= new byte[mix.length * 2];
+	
+	
+	
+	/**
+	* Creates a mixer playing sounds from the data cache.
+	*
+	* @param	data		the data cache
+	*/
+	public EffectMixer(DataPreLoader data)
+	{
+		this.data	= data;
+		
+		Thread	loader	= new Thread(new Loader(), "Effect loader");
+		
+		loader.setDaemon(true);
+		loader.start();
+	}
+	
+	
+	
+	/**
+	* Opens a line and starts the mixer thread.
+	*
+	* @throws	LineUnavailableException
+	*						if there is no line to play on
+	*/
+	public synchronized void start() throws LineUnavailableException
+	{
+		if (running)
+		{
+			return;
+		}
+		
+		line	= AudioSystem.getSourceDataLine(SoundSample.FORMAT);
+		line.open(SoundSample.FORMAT, out.length * LINE_PERIODS);
+		line.start();
+		
+		running	= true;
+		thread	= new Thread(this, "Effect mixer");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		thread.start();
+	}
+	
+	
+	/**
+	* Stops the mixer thread and closes the line.
+	*
+	*/
+	public synchronized void stop()
+	{
+		running	= false;
+		
+		if (thread != null)
+		{
+			LockSupport.unpark(thread);
+			thread	= null;
+		}
+	}
+	
+	
+	/**
+	* Returns whether the mixer is running.
+	*
+	* @return				<code>true</code> if started
+	*/
+	public boolean isRunning()
+	{
+		return running;
+	}
+	
+	
+	/**
+	* Asks for an effect to be played. Never blocks; if the sound isn't 
+	* loaded yet the request is dropped and the sound is loaded for the next
+	* one.
+	*
+	* @param	key			name of the sound in the data cache
+	* @param	interruptable
+	*						<code>true</code> to restart the oldest voice of 
+	*						the effect if all of them are playing, 
+	*						<code>false</code> to skip playing instead
+	* @return				<code>false</code> if the request was refused as
+	*						too many are waiting, the mixer isn't running or
+	*						the sound isn't loaded
+	*/
+	public boolean play(String key, boolean interruptable)
+	{
+		Thread	t	= thread;
+		
+		if (!running || (t == null))
+		{
+			return false;
+		}
+		
+		SoundSample	sound	= (SoundSample) samples.get(key);
+		
+		if (sound == null)
+		{
+			load(key);
+			return false;
+		}
+		
+		if (!queue.offer(new Request(key, sound, interruptable)))
+		{
+			dropped.incrementAndGet();
+			return false;
+		}
+		
+		LockSupport.unpark(t);
+		
+		return true;
+	}
+	
+	
+	/**
+	* Starts reading a stream and asks for it to be mixed. Never blocks.
+	*
+	* @param	stream		the stream
+	* @return				<code>false</code> if the request was refused as
+	*						too many are waiting, or the mixer isn't running
+	*/
+	public boolean play(AudioStream stream)
+	{
+		Thread	t	= thread;
+		
+		if (!running || (t == null))
+		{
+			return false;
+		}
+		
+		// Let the reader get ahead while the request waits
+		stream.start();
+		
+		if (!queue.offer(stream))
+		{
+			stream.stop();
+			dropped.incrementAndGet();
+			return false;
+		}
+		
+		LockSupport.unpark(t);
+		
+		return true;
+	}
+	
+	
+	/**
+	* Loads a sound on the loader thread, unless already asked for. Never 
+	* blocks.
+	*
+	* @param	key			name of the sound in the data cache
+	*/
+	public void load(String key)
+	{
+		if (requested.put(key, key) == null)
+		{
+			toLoad.add(key);
+		}
+	}
+	
+	
+	/**
+	* Loads the sounds of a group in the data cache on the loader thread, so
+	* that they can be played as soon as they're asked for. Never blocks.
+	*
+	* @param	group		name of the group
+	*/
+	public void loadGroup(String group)
+	{
+		List	names	= data.getSoundNames(group);
+		
+		for (int i = 0; i < names.size(); i++)
+		{
+			load((String) names.get(i));
+		}
+	}
+	
+	
+	/**
+	* Sets how many times an effect can be heard at once. Takes effect for 
+	* effects not yet played.
+	*
+	* @param	key			name of the sound
+	* @param	voices		number of voices, at least one
+	*/
+	public void setVoices(String key, int voices)
+	{
+		voiceCounts.put(key, Integer.valueOf(Math.max(1, voices)));
+	}
+	
+	
+	/**
+	* Returns the number of requests not played since the mixer started, as 
+	* the queue was full or all voices of the effect were busy.
+	*
+	* @return				dropped requests
+	*/
+	public int getDroppedCount()
+	{
+		return dropped.get();
+	}
+	
+	
+	/**
+	* Mixer thread.
+	*
+	*/
+	public void run()
+	{
+		try
+		{
+			while (running)
+			{
+				Object	request;
+				
+				while ((request = queue.poll()) != null)
+				{
+					if (request instanceof AudioStream)
+					{
+						streams.add(request);
+					}
+					else
+					{
+						start((Request) request);
+					}
+				}
+				
+				if (!mix())
+				{
+					// Nothing playing; sleep until asked to play
+					LockSupport.parkNanos(this, IDLE_NANOS);
+					continue;
+				}
+				
+				// Blocks until there's room in the line
+				line.write(out, 0, out.length);
+			}
+		}
+		finally
+		{
+			line.drain();
+			line.close();
+		}
+	}
+	
+	
+	/**
+	* Starts a voice for a request.
+	*
+	* @param	request		the request
+	*/
+	private void start(Request request)
+	{
+		Effect		effect	= (Effect) effects.get(request.key);
+		
+		if (effect == null)
+		{
+			Integer	voices	= (Integer) voiceCounts.get(request.key);
+			
+			effect	= new Effect(voices == null ? DEFAULT_VOICES : voices.intValue());
+			effects.put(request.key, effect);
+			effectList.add(effect);
+		}
+		
+		Voice	voice	= effect.getIdleVoice();
+		
+		if (voice == null)
+		{
+			if (!request.interruptable)
+			{
+				dropped.incrementAndGet();
+				return;
+			}
+			
+			voice	= effect.getOldestVoice();
+		}
+		
+		voice.sound		= request.sound;
+		voice.position	= 0;
+	}
+	
+	
+	/**
+	* Mixes the next period of all playing voices into <code>out</code>.
+	*
+	* @return				<code>false</code> if nothing is playing
+	*/
+	private boolean mix()
+	{
+		boolean	playing	= false;
+		
+		Arrays.fill(mix, 0);
+		
+		for (int i = 0; i < effectList.size(); i++)
+		{
+			Voice[]	voices	= ((Effect) effectList.get(i)).voices;
+			
+			for (int j = 0; j < voices.length; j++)
+			{
+				Voice	voice	= voices[j];
+				
+				if (voice.sound == null)
+				{
+					continue;
+				}
+				
+				short[]	samples	= voice.sound.getSamples();
+				int		from	= voice.position;
+				int		count	= Math.min(mix.length, samples.length - from);
+				
+				for (int k = 0; k < count; k++)
+				{
+					mix[k]	+= samples[from + k];
+				}
+				
+				voice.position	+= count;
+				
+				if (voice.position >= samples.length)
+				{
+					voice.sound	= null;
+				}
+				
+				playing	= true;
+			}
+		}
+		
+		for (int i = streams.size() - 1; i >= 0; i--)
+		{
+			// Silent while waiting for the reader, but still playing
+			if (((AudioStream) streams.get(i)).mixInto(mix))
+			{
+				playing	= true;
+			}
+			else
+			{
+				streams.remove(i);
+			}
+		}
+		
+		if (!playing)
+		{
+			return false;
+		}
+		
+		// Clip to 16 bits, little endian
+		for (int i = 0; i < mix.length; i++)
+		{
+			int	sample	= Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+			
+			out[2 * i]		= (byte) sample;
+			out[2 * i + 1]	= (byte) (sample >> 8);
+		}
+		
+		return true;
+	}
+	
+	
+	
+	/**
+	* Takes the sounds asked for from the data cache, which loads them if 
+	* they aren't there, and keeps them in <code>samples</code>.
+	*
+	*/
+	private class Loader implements Runnable
+	{
+		public void run()
+		{
+			try
+			{
+				while (true)
+				{
+					String		key		= (String) toLoad.take();
+					SoundSample	sound	= data.getSound(key);
+					
+					if (sound != null)
+					{
+						samples.put(key, sound);
+					}
+				}
+			}
+			catch (InterruptedException e)
+			{
+				// Daemon; only interrupted on the way out
+			}
+		}
+	}
+	
+	
+	/**
+	* A request to play an effect, with its sound already looked up.
+	*
+	*/
+	private static class Request
+	{
+		final String		key;
+		final SoundSample	sound;
+		final boolean		interruptable;
+		
+		Request(String key, SoundSample sound, boolean interruptable)
+		{
+			this.key			= key;
+			this.sound			= sound;
+			this.interruptable	= interruptable;
+		}
+	}
+	
+	
+	/**
+	* The voices of an effect.
+	*
+	*/
+	private static class Effect
+	{
+		final Voice[]	voices;
+		
+		Effect(int count)
+		{
+			voices	= new Voice[count];
+			
+			for (int i = 0; i < count; i++)
+			{
+				voices[i]	= new Voice();
+			}
+		}
+		
+		
+		Voice getIdleVoice()
+		{
+			for (int i = 0; i < voices.length; i++)
+			{
+				if (voices[i].sound == null)
+				{
+					return voices[i];
+				}
+			}
+			
+			return null;
+		}
+		
+		
+		Voice getOldestVoice()
+		{
+			Voice	oldest	= voices[0];
+			
+			for (int i = 1; i < voices.length; i++)
+			{
+				if (voices[i].position > oldest.position)
+				{
+					oldest	= voices[i];
+				}
+			}
+			
+			return oldest;
+		}
+	}
+	
+	
+	/**
+	* A sound being played.
+	*
+	*/
+	private static class Voice
+	{
+		/** The sound, or <code>null</code> if the voice is idle */
+		SoundSample	sound;
+		
+		/** Next sample to mix */
+		int			position;
+	}
+} //end EffectMixer
@@ -0,0 +1,99 @@
+package	game.audio;
+
+import	java.util.concurrent.atomic.AtomicLong;
+import	java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+* A bounded queue which any number of threads can offer to without locking 
+* or blocking, and a single thread polls from. When full, offers are 
+* refused rather than waited on.
+*
+* @author	Johan Liesén
+*/
+class EffectQueue
+{
+	/** The slots; <code>null</code> where empty */
+	private final AtomicReferenceArray	slots;
+	
+	/** <code>slots.length() - 1</code>, the length being a power of two */
+	private final int					mask;
+	
+	/** Number of elements taken and claimed, respectively */
+	private final AtomicLong			head	= new AtomicLong(),
+										tail	= new AtomicLong();
+	
+	
+	
+	/**
+	* Creates a queue.
+	*
+	* @param	capacity	least number of elements the queue can hold
+	*/
+	EffectQueue(int capacity)
+	{
+		int	size	= 1;
+		
+		while (size < capacity)
+		{
+			size	<<= 1;
+		}
+		
+		slots	= new AtomicReferenceArray(size);
+		mask	= size - 1;
+	}
+	
+	
+	
+	/**
+	* Adds an element, unless the queue is full. May be called from any 
+	* thread.
+	*
+	* @param	element		the element, not <code>null</code>
+	* @return				<code>false</code> if the queue was full
+	*/
+	boolean offer(Object element)
+	{
+		while (true)
+		{
+			long	t	= tail.get();
+			
+			if (t - head.get() > mask)
+			{
+				return false;
+			}
+			
+			// Claim slot t, then fill it; the poller waits for the filling
+			if (tail.compareAndSet(t, t + 1))
+			{
+				slots.set((int) t & mask, element);
+				return true;
+			}
+		}
+	}
+	
+	
+	/**
+	* Takes the oldest element. Must only be called from one thread.
+	*
+	* @return				the element, or <code>null</code> if none (or the
+	*						oldest is claimed but not yet filled)
+	*/
+	Object poll()
+	{
+		long	h		= head.get();
+		int		slot	= (int) h & mask;
+		Object	element	= slots.get(slot);
+		
+		if (element == null)
+		{
+			return null;
+		}
+		
+		// Empty the slot before giving it back to the offerers
+		slots.set(slot, null);
+		head.set(h + 1);
+		
+		return element;
+	}
+} //end EffectQueue
@@ -1,88 +1,302 @@
-package game.graphics;
-
-import	java.awt.Canvas;
-import	java.awt.Dimension;
-import	java.awt.Graphics;
-import	java.awt.Graphics2D;
-import	java.awt.Image;
-
-
-/**
-* A <code>{@link Canvas}</code> using double-buffering.
-*
-*/
-public abstract class BufferedCanvas extends Canvas 
-{
-	/** Offscreen buffer */
-	private Image		offscreenImage;
-	
-	/** Graphics context assigned to the offscreen image */
-	private Graphics	offscreenGraphics;
-	
-	/** Size of the offscreen image */
-	private Dimension	offscreenSize;
-	
-	
-	
-	/**
-	*
-	*
-	*/
-	public BufferedCanvas(Dimension d)
-	{
-		setSize(d);
-	}
-	
-
-
-	/**
-	* Off-screen version that overrides default update(Graphics) method. All 
-	* drawings are done off-screen before posted.
-	*
-	* @param	g		graphics context
-	*/
-	public final synchronized void update(Graphics g)
-	{
-		int width	= getSize().width;
-		int height	= getSize().height;
-
-
-		if ((offscreenImage == null) ||	
-			(width != offscreenSize.width) ||
-			(height != offscreenSize.height))
-		{
-			// Create new offscreen images
-			offscreenImage		= createImage(width,height );
-			offscreenSize		= getSize();
-			offscreenGraphics	= offscreenImage.getGraphics();
-			
-			// What's this good for?
-			offscreenGraphics.setFont(getFont());
-		}
-
-		// Paint to the buffer image
-		paint(offscreenGraphics);
-		
-		// Publish the buffer
-		g.drawImage(offscreenImage, 0, 0, this);
-	}
-	
-	
-	/**
-	* Paints the Canvas.
-	*
-	* @param	g		graphics context
-	*/
-	public void paint(Graphics g)
-	{
-		render((Graphics2D) g);
-	}
-	
-	
-	/**
-	* Overridden by subclasses to perform drawing.
-	*
-	* @param	g		graphics context
-	*/
-	public abstract void render(Graphics2D g);
+package game.graphics;
+
+import	java.awt.Canvas;
+import	java.awt.Dimension;
+import	java.awt.Graphics;
+import	java.awt.Graphics2D;
+import	java.awt.Image;
+import	java.awt.Rectangle;
+import	java.awt.Toolkit;
+import	java.awt.image.BufferStrategy;
+
+import	game.PerformanceMonitor;
+import	game.PhaseTimer;
+
+
+/**
+* A <code>{@link Canvas}</code> using double-buffering.
+*
+* <p>
+*   By default the canvas is painted passively: <code>repaint()</code> posts a
+*   paint event and the AWT thread draws into an offscreen image which is then
+*   copied to the screen. With active rendering turned on, a thread (e.g. the
+*   game loop) calls <code>{@link #renderFrame()}</code> to draw straight into
+*   a <code>{@link BufferStrategy}</code> and flip it onto the screen.
+* </p>
+*
+* <p>
+*   When painted passively only the dirty region, the union of everything 
+*   passed to <code>repaint()</code> or <code>{@link #markDirty(Rectangle)}
+*   </code> since the last update, is redrawn and copied to the screen. 
+*   Components which know what they changed (e.g. a 
+*   <code>{@link MenuButton}</code> being selected) mark only their own bounds;
+*   a plain <code>repaint()</code> still marks the whole canvas.
+* </p>
+*/
+public abstract class BufferedCanvas extends Canvas 
+{
+	/** Offscreen buffer */
+	private Image		offscreenImage;
+	
+	/** Graphics context assigned to the offscreen image */
+	private Graphics	offscreenGraphics;
+	
+	/** Size of the offscreen image */
+	private Dimension	offscreenSize;
+	
+	/** Union of the areas marked dirty since the last update, or 
+	*   <code>null</code> if none */
+	private Rectangle	dirtyRegion;
+	
+	/** Guards <code>dirtyRegion</code> */
+	private Object		dirtyLock	= new Object();
+	
+	/** Set if frames are pushed by <code>renderFrame()</code> */
+	private boolean		activeRendering;
+	
+	/** Page flipping or blitting buffers used when rendering actively */
+	private BufferStrategy	strategy;
+	
+	// Frame timers
+	private PhaseTimer		updateTimer,
+							renderFrameTimer;
+	
+	
+	
+	/**
+	*
+	*
+	*/
+	public BufferedCanvas(Dimension d)
+	{
+		setSize(d);
+		
+		PerformanceMonitor	monitor	= PerformanceMonitor.getInstance();
+		
+		updateTimer			= monitor.getTimer(PerformanceMonitor.CANVAS_UPDATE);
+		renderFrameTimer	= monitor.getTimer(PerformanceMonitor.CANVAS_RENDER_FRAME);
+	}
+	
+
+
+	/**
+	* Off-screen version that overrides default update(Graphics) method. All 
+	* drawings are done off-screen before posted.
+	*
+	* @param	g		graphics context
+	*/
+	public final synchronized void update(Graphics g)
+	{
+		long	start	= System.nanoTime();
+		int width	= getSize().width;
+		int height	= getSize().height;
+
+
+		Rectangle	dirty;
+		
+		// Take what is dirty; anything marked while painting is left to the
+		// next update
+		synchronized (dirtyLock)
+		{
+			dirty		= dirtyRegion;
+			dirtyRegion	= null;
+		}
+
+		if ((offscreenImage == null) ||	
+			(width != offscreenSize.width) ||
+			(height != offscreenSize.height))
+		{
+			// Create new offscreen images
+			offscreenImage		= createImage(width,height );
+			offscreenSize		= getSize();
+			offscreenGraphics	= offscreenImage.getGraphics();
+			
+			// What's this good for?
+			offscreenGraphics.setFont(getFont());
+			
+			// Nothing in the buffer yet
+			dirty	= null;
+		}
+		
+		if (dirty == null)
+		{
+			dirty	= new Rectangle(0, 0, width, height);
+		}
+		else
+		{
+			dirty	= dirty.intersection(new Rectangle(0, 0, width, height));
+		}
+		
+		if (!dirty.isEmpty())
+		{
+			// Paint the dirty region of the buffer image
+			offscreenGraphics.setClip(dirty);
+			paint(offscreenGraphics);
+			offscreenGraphics.setClip(null);
+			
+			// Publish that part of the buffer
+			g.drawImage(offscreenImage, 
+						dirty.x, dirty.y, dirty.x + dirty.width, dirty.y + dirty.height,
+						dirty.x, dirty.y, dirty.x + dirty.width, dirty.y + dirty.height,
+						this);
+		}
+		
+		updateTimer.stop(start);
+	}
+	
+	
+	/**
+	* Marks an area of the canvas as changed and schedules an update, which 
+	* repaints only the areas marked.
+	*
+	* @param	r		changed area
+	*/
+	public void markDirty(Rectangle r)
+	{
+		repaint(r.x, r.y, r.width, r.height);
+	}
+	
+	
+	/**
+	* Adds the area to the dirty region before scheduling the update. All 
+	* other <code>repaint</code> methods end up here.
+	*
+	* @param	tm		maximum time in milliseconds before update
+	* @param	x		x coordinate
+	* @param	y		y coordinate
+	* @param	width	width
+	* @param	height	height
+	*/
+	public void repaint(long tm, int x, int y, int width, int height)
+	{
+		if ((width <= 0) || (height <= 0))
+		{
+			return;
+		}
+		
+		synchronized (dirtyLock)
+		{
+			if (dirtyRegion == null)
+			{
+				dirtyRegion	= new Rectangle(x, y, width, height);
+			}
+			else
+			{
+				dirtyRegion.add(new Rectangle(x, y, width, height));
+			}
+		}
+		
+		super.repaint(tm, x, y, width, height);
+	}
+	
+	
+	/**
+	* Turns active rendering on or off. While on, paint events from the AWT 
+	* are ignored and the canvas is only updated by 
+	* <code>{@link #renderFrame()}</code>.
+	*
+	* @param	active	<code>true</code> to render actively
+	*/
+	public void setActiveRendering(boolean active)
+	{
+		activeRendering	= active;
+		
+		setIgnoreRepaint(active);
+	}
+	
+	
+	/**
+	* Returns wether the canvas is rendered actively.
+	*
+	* @return			<code>true</code> if active rendering is on
+	*/
+	public boolean isActiveRendering()
+	{
+		return activeRendering;
+	}
+	
+	
+	/**
+	* Renders a frame and shows it at once. With active rendering turned off,
+	* or when the canvas isn't on screen yet, this falls back on 
+	* <code>repaint()</code>.
+	*
+	*/
+	public void renderFrame()
+	{
+		if (!activeRendering || !isShowing())
+		{
+			repaint();
+			return;
+		}
+		
+		long	start	= System.nanoTime();
+		
+		if (strategy == null)
+		{
+			// Let the AWT pick page flipping if possible, else blitting
+			createBufferStrategy(2);
+			strategy	= getBufferStrategy();
+		}
+		
+		// The buffers live in video memory and may be lost at any time (e.g.
+		// when switching display mode); if so, draw the frame again
+		do
+		{
+			do
+			{
+				Graphics2D	g	= (Graphics2D) strategy.getDrawGraphics();
+				
+				try
+				{
+					g.setFont(getFont());
+					render(g);
+				}
+				finally
+				{
+					g.dispose();
+				}
+			}
+			while (strategy.contentsRestored());
+			
+			strategy.show();
+		}
+		while (strategy.contentsLost());
+		
+		// Flush the graphics pipeline (needed on some X11 systems)
+		Toolkit.getDefaultToolkit().sync();
+		
+		renderFrameTimer.stop(start);
+	}
+	
+	
+	/**
+	* Releases the buffer strategy along with the native peer.
+	*
+	*/
+	public void removeNotify()
+	{
+		strategy	= null;
+		
+		super.removeNotify();
+	}
+	
+	
+	/**
+	* Paints the Canvas.
+	*
+	* @param	g		graphics context
+	*/
+	public void paint(Graphics g)
+	{
+		render((Graphics2D) g);
+	}
+	
+	
+	/**
+	* Overridden by subclasses to perform drawing.
+	*
+	* @param	g		graphics context
+	*/
+	public abstract void render(Graphics2D g);
 } //end BufferedCanvas
\ No newline at end of file
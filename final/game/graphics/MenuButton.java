@@ -1,212 +1,273 @@
-package	game.graphics;
-
-import	java.awt.Image;
-import	java.awt.Graphics2D;
-
-import	game.graphics.Paintable;
-
-
-//
-//  MenuButton.java
-//  Button in menu system
-//
-//  Created by Karl on Sun May 02 2004.
-//  Copyright (c) 2004 Group 17. All rights reserved.
-//
-
-/**
-* Button in menu system.
-*
-* @author	Karl Olofsson
-*/
-public class MenuButton implements Paintable
-{
-	// Says wether the button is selected or not
-	private boolean		selected;
-	
-	// Position variables
-	private int			x,
-						y;
-	
-	// Button ID (to make it unique)
-	private int			id;
-	
-	// Images
-	private Image		selectedImage, 
-						unselectedImage;
-						
-	
-	
-	/**
-	* Creates a menu button. 
-	*
-	* @param	selectedImage
-	*						image displayed when the button is selected
-	* @param	unselectedImage
-	*						image displayed when the button is not selected
-	* @param	id			button ID
-	*/
-	public MenuButton(Image selectedImage, Image unselectedImage, int id)
-	{
-	    this(selectedImage, unselectedImage, id, 0, 0);
-	}
-	
-	
-	/**
-	* Creates a menu button at a given position.
-	*
-	* @param	selectedImage
-	*						image displayed when the button is selected
-	* @param	unselectedImage
-	*						image displayed when the button is not selected
-	* @param	id			button ID
-	* @param	x			x coordinate
-	* @param	y			y coordinate
-	*/
-	public MenuButton(Image selectedImage, Image unselectedImage, int id, int x, int y)
-	{
-	    this.id 				= id;
-	    this.unselectedImage	= unselectedImage;
-	    this.selectedImage		= selectedImage;
-	    
-	    setPosition(x, y);
-	}
-	
-	
-	
-	/**
-	* Paints the button.
-	*	
-	* @param	g			graphics context
-	*/
-	public void paint(Graphics2D g)
-	{
-		if (selected)
-	    {
-	        g.drawImage(selectedImage, x, y, null);
-	    }
-	    else
-	    {
-		    g.drawImage(unselectedImage, x, y, null);
-	    }
-	}
-	
-	
-	/**
-	* Positions the button at (<em>x</em>, <em>y</em>) and paints it.
-	*
-	* @param	g			graphics context
-	* @param	x			x position
-	* @param	y			y position
-	* @see		#setPosition(int , int )
-	* @see		#paint(Graphics2D )
-	*/
-	public void paint(Graphics2D g, int x, int y)
-	{
-		setPosition(x, y);
-		paint(g);
-	}
-	
-	
-	/**
-	* Set position for the button
-	*
-	* @param	x			x coordinate
-	* @param	y			y coordinate
-	*/
-	public void setPosition(int x, int y)
-	{
-		this.x	= x;
-		this.y	= y;
-	}
-	
-	
-	/**
-	* Set button state as selected or unselected.
-	*
-	* @param	selected	is the button selected?
-	*/
-	public void setSelected(boolean selected)
-	{
-	    this.selected = selected;
-	}
-	
-	
-	/**
-	* Checks if the button is selected or not.
-	*
-	* @return				<code>true</code> if button is selected, 
-	*						<code>false</code> otherwise
-	*/
-	public boolean isSelected()
-	{
-	    return selected;
-	}
-	
-	
-	/**
-	* Returns height of current image.
-	*
-	* @return				height of current image
-	*/
-	public int getHeight()
-	{
-	    if (selected)
-	    {
-	        return selectedImage.getHeight(null);
-	    }
-	    else
-	    {
-	        return unselectedImage.getHeight(null);
-	    }
-	}
-	
-	/**
-	* Returns width of current image.
-	*
-	* @return				width of current image
-	*/
-	public int getWidth()
-	{
-	    if (selected)
-	    {
-	        return selectedImage.getWidth(null);
-	    }
-	    else
-	    {
-	        return unselectedImage.getWidth(null);
-	    }
-	    
-	}
-	
-	
-	/**
-	* Get button ID.
-	*
-	* @return				ID of button
-	*/
-	public int getID()
-	{
-		return id;
-	}
-	
-	
-	/**
-	* Indicates whether two MenuButton's ID's are equal.
-	*
-	* @param	o			object to compare
-	* @return				<code>true</code> if the object's ID's are the same,
-	*						<code> false</code> otherwise
-	*/
-	public boolean equals(Object o)
-	{
-		if (o instanceof MenuButton)
-		{
-			MenuButton	mb	= (MenuButton) o;
-			
-			return id == mb.getID();
-		}
-		
-		return false;
-	}
-} //end MenuButton
+package	game.graphics;
+
+import	java.awt.Image;
+import	java.awt.Graphics2D;
+import	java.awt.Rectangle;
+
+import	game.graphics.Paintable;
+
+
+//
+//  MenuButton.java
+//  Button in menu system
+//
+//  Created by Karl on Sun May 02 2004.
+//  Copyright (c) 2004 Group 17. All rights reserved.
+//
+
+/**
+* Button in menu system.
+*
+* @author	Karl Olofsson
+*/
+public class MenuButton implements Paintable
+{
+	// Says wether the button is selected or not
+	private boolean		selected;
+	
+	// Position variables
+	private int			x,
+						y;
+	
+	// Button ID (to make it unique)
+	private int			id;
+	
+	// Images
+	private Image		selectedImage, 
+						unselectedImage;
+	
+	// Canvas to tell about changes, if any
+	private BufferedCanvas	canvas;
+						
+	
+	
+	/**
+	* Creates a menu button. 
+	*
+	* @param	selectedImage
+	*						image displayed when the button is selected
+	* @param	unselectedImage
+	*						image displayed when the button is not selected
+	* @param	id			button ID
+	*/
+	public MenuButton(Image selectedImage, Image unselectedImage, int id)
+	{
+	    this(selectedImage, unselectedImage, id, 0, 0);
+	}
+	
+	
+	/**
+	* Creates a menu button at a given position.
+	*
+	* @param	selectedImage
+	*						image displayed when the button is selected
+	* @param	unselectedImage
+	*						image displayed when the button is not selected
+	* @param	id			button ID
+	* @param	x			x coordinate
+	* @param	y			y coordinate
+	*/
+	public MenuButton(Image selectedImage, Image unselectedImage, int id, int x, int y)
+	{
+	    this.id 				= id;
+	    this.unselectedImage	= unselectedImage;
+	    this.selectedImage		= selectedImage;
+	    
+	    setPosition(x, y);
+	}
+	
+	
+	
+	/**
+	* Paints the button.
+	*	
+	* @param	g			graphics context
+	*/
+	public void paint(Graphics2D g)
+	{
+		if (selected)
+	    {
+	        g.drawImage(selectedImage, x, y, null);
+	    }
+	    else
+	    {
+		    g.drawImage(unselectedImage, x, y, null);
+	    }
+	}
+	
+	
+	/**
+	* Positions the button at (<em>x</em>, <em>y</em>) and paints it.
+	*
+	* @param	g			graphics context
+	* @param	x			x position
+	* @param	y			y position
+	* @see		#setPosition(int , int )
+	* @see		#paint(Graphics2D )
+	*/
+	public void paint(Graphics2D g, int x, int y)
+	{
+		setPosition(x, y);
+		paint(g);
+	}
+	
+	
+	/**
+	* Set position for the button
+	*
+	* @param	x			x coordinate
+	* @param	y			y coordinate
+	*/
+	public void setPosition(int x, int y)
+	{
+		if ((x == this.x) && (y == this.y))
+		{
+			return;
+		}
+		
+		markDirty();
+		
+		this.x	= x;
+		this.y	= y;
+		
+		markDirty();
+	}
+	
+	
+	/**
+	* Set button state as selected or unselected.
+	*
+	* @param	selected	is the button selected?
+	*/
+	public void setSelected(boolean selected)
+	{
+		if (selected == this.selected)
+		{
+			return;
+		}
+		
+	    this.selected = selected;
+	    
+	    markDirty();
+	}
+	
+	
+	/**
+	* Makes the button mark its bounds dirty on the canvas whenever it changes,
+	* so that only the button is repainted.
+	*
+	* @param	canvas		canvas the button is painted on, or 
+	*						<code>null</code>
+	*/
+	public void attachTo(BufferedCanvas canvas)
+	{
+		this.canvas	= canvas;
+	}
+	
+	
+	/**
+	* Returns the area the button covers in either state.
+	*
+	* @return				button bounds
+	*/
+	public Rectangle getBounds()
+	{
+		return new Rectangle(x, y, 
+							 Math.max(selectedImage.getWidth(null), 
+							 		  unselectedImage.getWidth(null)),
+							 Math.max(selectedImage.getHeight(null), 
+							 		  unselectedImage.getHeight(null)));
+	}
+	
+	
+	/**
+	* Marks the button dirty on the canvas it's attached to.
+	*
+	*/
+	private void markDirty()
+	{
+		if (canvas != null)
+		{
+			canvas.markDirty(getBounds());
+		}
+	}
+	
+	
+	/**
+	* Checks if the button is selected or not.
+	*
+	* @return				<code>true</code> if button is selected, 
+	*						<code>false</code> otherwise
+	*/
+	public boolean isSelected()
+	{
+	    return selected;
+	}
+	
+	
+	/**
+	* Returns height of current image.
+	*
+	* @return				height of current image
+	*/
+	public int getHeight()
+	{
+	    if (selected)
+	    {
+	        return selectedImage.getHeight(null);
+	    }
+	    else
+	    {
+	        return unselectedImage.getHeight(null);
+	    }
+	}
+	
+	/**
+	* Returns width of current image.
+	*
+	* @return				width of current image
+	*/
+	public int getWidth()
+	{
+	    if (selected)
+	    {
+	        return selectedImage.getWidth(null);
+	    }
+	    else
+	    {
+	        return unselectedImage.getWidth(null);
+	    }
+	    
+	}
+	
+	
+	/**
+	* Get button ID.
+	*
+	* @return				ID of button
+	*/
+	public int getID()
+	{
+		return id;
+	}
+	
+	
+	/**
+	* Indicates whether two MenuButton's ID's are equal.
+	*
+	* @param	o			object to compare
+	* @return				<code>true</code> if the object's ID's are the same,
+	*						<code> false</code> otherwise
+	*/
+	public boolean equals(Object o)
+	{
+		if (o instanceof MenuButton)
+		{
+			MenuButton	mb	= (MenuButton) o;
+			
+			return id == mb.getID();
+		}
+		
+		return false;
+	}
+} //end MenuButton
@@ -1,15 +1,15 @@
-package game.graphics;
-
-public class NoSuchStateException extends Exception 
-{
-	public NoSuchStateException()
-	{
-		super();
-	}
-	
-	
-	public NoSuchStateException(String message)
-	{
-		super(message);
-	}
+package game.graphics;
+
+public class NoSuchStateException extends Exception 
+{
+	public NoSuchStateException()
+	{
+		super();
+	}
+	
+	
+	public NoSuchStateException(String message)
+	{
+		super(message);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package	game.graphics;
+
+import	java.awt.Color;
+import	java.awt.Dimension;
+import	java.awt.Font;
+import	java.awt.FontMetrics;
+import	java.awt.Graphics2D;
+import	java.text.DecimalFormat;
+import	java.util.List;
+
+import	game.PerformanceMonitor;
+import	game.PhaseTimer;
+
+
+/**
+* Shows the median, 99th percentile and maximum of each timer of the 
+* <code>{@link PerformanceMonitor}</code>, in milliseconds, in the lower left
+* corner of the screen.
+*
+* @author	Johan Liesén
+*/
+public class PerformanceOverlay
+{
+	/** Size of the screen */
+	private Dimension		size;
+	
+	/** Font to draw the text in */
+	private Font			font;
+	
+	/** Format of the times */
+	private DecimalFormat	format;
+	
+	/** Background colour */
+	private Color			background;
+	
+	
+	
+	/**
+	* Creates an overlay.
+	*
+	* @param	size		screen size
+	*/
+	public PerformanceOverlay(Dimension size)
+	{
+		this.size		= size;
+		this.font		= new Font("Monospaced", Font.PLAIN, 11);
+		this.format		= new DecimalFormat("0.00");
+		this.background	= new Color(0, 0, 0, 160);
+	}
+	
+	
+	/**
+	* Renders/paints the overlay.
+	*
+	* @param	g			graphics context
+	*/
+	public void render(Graphics2D g)
+	{
+		List		timers		= PerformanceMonitor.getInstance().getTimers();
+		
+		g.setFont(font);
+		
+		FontMetrics	metrics		= g.getFontMetrics();
+		int			lineHeight	= metrics.getHeight();
+		int			nameWidth	= metrics.stringWidth("tick.updateShipPositions ");
+		int			colWidth	= metrics.stringWidth("0000.00 ");
+		int			height		= (timers.size() + 1) * lineHeight + 6;
+		int			x			= 5;
+		int			y			= size.height - height - 5;
+		
+		g.setColor(background);
+		g.fillRect(x, y, nameWidth + 3 * colWidth + 6, height);
+		
+		x	+= 3;
+		y	+= 3 + metrics.getAscent();
+		
+		g.setColor(Color.YELLOW);
+		g.drawString("ms", x, y);
+		g.drawString("p50", x + nameWidth, y);
+		g.drawString("p99", x + nameWidth + colWidth, y);
+		g.drawString("max", x + nameWidth + 2 * colWidth, y);
+		
+		g.setColor(Color.WHITE);
+		
+		for (int i = 0; i < timers.size(); i++)
+		{
+			PhaseTimer	timer	= (PhaseTimer) timers.get(i);
+			
+			y	+= lineHeight;
+			
+			g.drawString(timer.getName(), x, y);
+			g.drawString(millis(timer.getP50Micros()), x + nameWidth, y);
+			g.drawString(millis(timer.getP99Micros()), x + nameWidth + colWidth, y);
+			g.drawString(millis(timer.getMaxMicros()), x + nameWidth + 2 * colWidth, y);
+		}
+	}
+	
+	
+	/**
+	* Formats a time in microseconds as milliseconds.
+	*
+	* @param	micros		time in microseconds
+	* @return				formatted time
+	*/
+	private String millis(double micros)
+	{
+		return format.format(micros / 1000);
+	}
+} //end PerformanceOverlay
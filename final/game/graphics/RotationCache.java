@@ -0,0 +1,361 @@
+package	game.graphics;
+
+import	java.awt.Graphics2D;
+import	java.awt.RenderingHints;
+import	java.awt.Transparency;
+import	java.awt.image.BufferedImage;
+import	java.lang.ref.Reference;
+import	java.lang.ref.WeakReference;
+import	java.util.ArrayList;
+import	java.util.Arrays;
+import	java.util.List;
+import	java.util.Map;
+import	java.util.WeakHashMap;
+import	java.util.concurrent.atomic.AtomicLong;
+
+import	utilities.AssetCache;
+import	utilities.ImageHelper;
+
+
+/**
+* Caches rotated versions of the frames in a <code>{@link Sprite}</code> state.
+* Angles are rounded to a fixed number of buckets around the circle and each
+* bucket is rendered once, the first time it is asked for, and then reused.
+*
+* <p>
+*   Rotated frames are square and big enough to hold the whole frame in any
+*   angle, with the frame's center in the middle. Paint them 
+*   <code>{@link #getOffsetX()}</code> pixels left and 
+*   <code>{@link #getOffsetY()}</code> pixels up of where the frame itself 
+*   would be painted.
+* </p>
+*
+* <p>
+*   There is one cache per set of frames, shared by all sprites painting
+*   them; get it with <code>{@link #getInstance}</code>. All caches share a
+*   memory budget, and when it is used up the least recently used rotated
+*   frames are evicted, so caches of sprites which are no longer painted
+*   give their memory back by themselves. A cache is only weakly held by the
+*   registry, so once its sprites are gone and its rotated frames evicted
+*   it's collected along with its frames.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class RotationCache
+{
+	/** Default number of buckets, i.e. 2 degrees per bucket */
+	public static final int		DEFAULT_BUCKETS	= 180;
+	
+	/** Rotated frames of all caches, under a budget of 4 MB */
+	private static final AssetCache	frameCache	= new AssetCache(4 * 1024 * 1024)
+	{
+		protected void evicted(String name, Object value)
+		{
+			((Slot) value).evict();
+		}
+	};
+	
+	/** The caches by the first of their source frames; each a list of weak
+	*   references, so that neither the caches nor the frames are kept */
+	private static final Map	caches			= new WeakHashMap();
+	
+	/** Number of caches created, to name their frames apart */
+	private static int			cacheCount;
+	
+	/** Number of requests served from a cache */
+	private static final AtomicLong	hits		= new AtomicLong();
+	
+	/** Number of requests which had to render a frame */
+	private static final AtomicLong	misses		= new AtomicLong();
+	
+	/** Unrotated frames */
+	private BufferedImage[]		frames;
+	
+	/** Frames the cache was got for, before mirroring */
+	private BufferedImage[]		source;
+	
+	/** Whether the frames are mirrored copies of the source */
+	private boolean				mirrored;
+	
+	/** Rotated frames, indexed by frame and bucket */
+	private BufferedImage[][]	rotated;
+	
+	/** Names of the rotated frames in <code>frameCache</code> */
+	private String[][]			names;
+	
+	/** Prefix of the names of the rotated frames */
+	private final String		prefix;
+	
+	/** Number of buckets */
+	private int					buckets;
+	
+	/** Width and height of the rotated frames */
+	private int					size;
+	
+	
+	
+	/**
+	* Returns the cache of a set of frames, creating it the first time.
+	*
+	* @param	frames		frames to rotate
+	* @param	mirrored	<code>true</code> to rotate copies of the frames
+	*						mirrored along the y-axis
+	* @return				the cache
+	*/
+	public static synchronized RotationCache getInstance(BufferedImage[] frames,
+														 boolean mirrored)
+	{
+		List			refs	= (List) caches.get(frames[0]);
+		RotationCache	cache;
+		
+		if (refs == null)
+		{
+			refs	= new ArrayList();
+			caches.put(frames[0], refs);
+		}
+		
+		for (int i = refs.size() - 1; i >= 0; i--)
+		{
+			cache	= (RotationCache) ((Reference) refs.get(i)).get();
+			
+			if (cache == null)
+			{
+				// Collected
+				refs.remove(i);
+			}
+			// Images are equal only to themselves, so this tells the sets 
+			// apart by the frames in them
+			else if ((cache.mirrored == mirrored) && Arrays.equals(cache.source, frames))
+			{
+				return cache;
+			}
+		}
+		
+		cache			= new RotationCache(mirrored ? mirror(frames) : frames);
+		cache.source	= frames;
+		cache.mirrored	= mirrored;
+		refs.add(new WeakReference(cache));
+		
+		return cache;
+	}
+	
+	
+	/**
+	* Returns copies of frames mirrored along the y-axis.
+	*
+	* @param	frames		frames to mirror
+	* @return				mirrored frames
+	*/
+	private static BufferedImage[] mirror(BufferedImage[] frames)
+	{
+		BufferedImage[]	mirroredFrames	= new BufferedImage[frames.length];
+		
+		for (int i = 0; i < frames.length; i++)
+		{
+			mirroredFrames[i]	= ImageHelper.mirror(frames[i]);
+		}
+		
+		return mirroredFrames;
+	}
+	
+	
+	
+	/**
+	* Creates a cache with the default number of buckets.
+	*
+	* @param	frames		frames to rotate
+	*/
+	public RotationCache(BufferedImage[] frames)
+	{
+		this(frames, DEFAULT_BUCKETS);
+	}
+	
+	
+	/**
+	* Creates a cache.
+	*
+	* @param	frames		frames to rotate (all of equal size)
+	* @param	buckets		number of angles around the circle to cache
+	*/
+	public RotationCache(BufferedImage[] frames, int buckets)
+	{
+		this.frames		= frames;
+		this.buckets	= buckets;
+		this.rotated	= new BufferedImage[frames.length][buckets];
+		this.names		= new String[frames.length][buckets];
+		
+		synchronized (RotationCache.class)
+		{
+			prefix	= (cacheCount++) + "/";
+		}
+		
+		int	width		= frames[0].getWidth();
+		int	height		= frames[0].getHeight();
+		
+		size	= (int) Math.ceil(Math.sqrt(width * width + height * height));
+	}
+	
+	
+	
+	/**
+	* Returns a frame rotated by (about) the given angle.
+	*
+	* @param	frameIndex	index of the frame
+	* @param	degrees		angle, clockwise
+	* @return				the rotated frame
+	*/
+	public BufferedImage getFrame(int frameIndex, double degrees)
+	{
+		int	bucket	= (int) Math.round(degrees * buckets / 360.0) % buckets;
+		
+		if (bucket < 0)
+		{
+			bucket	+= buckets;
+		}
+		
+		BufferedImage	image	= rotated[frameIndex][bucket];
+		
+		if (image != null)
+		{
+			// Mark it as recently used
+			frameCache.get(names[frameIndex][bucket]);
+			
+			hits.incrementAndGet();
+			return image;
+		}
+		
+		misses.incrementAndGet();
+		image	= render(frames[frameIndex], bucket * 360.0 / buckets);
+		
+		if (names[frameIndex][bucket] == null)
+		{
+			names[frameIndex][bucket]	= prefix + frameIndex + "/" + bucket;
+		}
+		
+		rotated[frameIndex][bucket]	= image;
+		frameCache.put(names[frameIndex][bucket], 
+					   new Slot(frameIndex, bucket), size * size * 4);
+		
+		return image;
+	}
+	
+	
+	/**
+	* Returns how far left of the frame's own position the rotated frames 
+	* should be painted to keep the center in place.
+	*
+	* @return				offset in pixels
+	*/
+	public int getOffsetX()
+	{
+		return (size - frames[0].getWidth()) / 2;
+	}
+	
+	
+	/**
+	* Returns how far up of the frame's own position the rotated frames should
+	* be painted to keep the center in place.
+	*
+	* @return				offset in pixels
+	*/
+	public int getOffsetY()
+	{
+		return (size - frames[0].getHeight()) / 2;
+	}
+	
+	
+	/**
+	* Renders a rotated frame.
+	*
+	* @param	frame		frame to rotate
+	* @param	degrees		angle, clockwise
+	* @return				new image
+	*/
+	private BufferedImage render(BufferedImage frame, double degrees)
+	{
+		BufferedImage	image	= ImageHelper.createCompatibleImage(size, size,
+													Transparency.TRANSLUCENT);
+		Graphics2D		g		= image.createGraphics();
+		
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+						   RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.rotate(Math.toRadians(degrees), size / 2.0, size / 2.0);
+		g.drawImage(frame,
+					(size - frame.getWidth()) / 2,
+					(size - frame.getHeight()) / 2,
+					null);
+		g.dispose();
+		
+		return image;
+	}
+	
+	
+	/**
+	* Sets the memory budget shared by all caches.
+	*
+	* @param	bytes		budget in bytes
+	*/
+	public static void setMemoryLimit(long bytes)
+	{
+		frameCache.setBudget(bytes);
+	}
+	
+	
+	/**
+	* Returns the memory used by all caches.
+	*
+	* @return				bytes used
+	*/
+	public static long getMemoryUsed()
+	{
+		return frameCache.getMemoryUsed();
+	}
+	
+	
+	/**
+	* Returns the number of frames served from the caches.
+	*
+	* @return				cache hits
+	*/
+	public static long getHits()
+	{
+		return hits.get();
+	}
+	
+	
+	/**
+	* Returns the number of frames which had to be rendered.
+	*
+	* @return				cache misses
+	*/
+	public static long getMisses()
+	{
+		return misses.get();
+	}
+	
+	
+	
+	/**
+	* A rotated frame in <code>frameCache</code>, which takes it out of its
+	* cache when evicted. Keeps the cache until then.
+	*
+	*/
+	private class Slot
+	{
+		private final int	frameIndex, bucket;
+		
+		
+		Slot(int frameIndex, int bucket)
+		{
+			this.frameIndex	= frameIndex;
+			this.bucket		= bucket;
+		}
+		
+		
+		void evict()
+		{
+			rotated[frameIndex][bucket]	= null;
+		}
+	}
+} //end RotationCache
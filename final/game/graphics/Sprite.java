@@ -1,423 +1,630 @@
-package game.graphics;
-
-import	java.awt.Graphics;
-import	java.awt.Graphics2D;
-import	java.awt.Image;
-import	java.awt.Point;
-import	java.awt.Rectangle;
-import	java.awt.Shape;
-import	java.awt.geom.AffineTransform;
-import	java.awt.image.AffineTransformOp;
-import	java.awt.image.BufferedImage;
-import	java.util.Collection;
-import	java.util.HashMap;
-import	java.util.Map;
-
-import	utilities.ImageHelper;
-import	utilities.Vector2D;
-
-
-/**
- * Represents a sprite with the abilites to paint itself,
- * rotate, move around.
- *
- * TODO: Add possibility to have different boundaries for each state.
- *	 Add error checking for frames of unequal size.
- *	 goatposition?
- * BUGS: When rotating a certain angle, the picture will get bigger, and will continue to increase in size.
- *
- * @author	Jimmy Stridh
- * @author	Johan Liesn
- * @version 5/11/2004 1:09PM
- */ 
-public class Sprite implements Paintable
-{
-	/** The current position */
-	protected Point	position;	
-	
-	/** The frame(s) for the sprite */
-	protected BufferedImage[] frames;
-	
-	protected BufferedImage[] unrotatedFrames;
-	
-	/** The index of the current frame in the animation */
-	protected int currentFrameIndex;
-	
-	/** The currently selected state */
-	protected String currentStateKey;
-	
-	/** The list of states for the sprite */
-	protected Map states;
-	
-	/** The priority the sprites has in terms of being drawn over another
-	*   sprite. Lower priority means further back. */
-	protected int priority;
-	
-	/** The current rotation of the sprite i degrees */
-	protected double rotation = 0;
-	
-	/** The outer boundaries of the the sprite */
-	protected Rectangle bounds;
-	
-	/** The vector representing the current speed and direction of the sprite */
-	protected Vector2D motionVector;
-	
-	/** Defining if the sprite should be painted or not */
-	protected boolean visible;
-	
-	
-	
-	/**
-	*
-	*
-	*/
-	public Sprite(String initialStateKey,Image[] spriteFrames,int priority){
-		states = new HashMap();
-		addState(initialStateKey,spriteFrames);
-		
-		try
-		{
-			setState(initialStateKey);
-		} 
-		catch(NoSuchStateException e)
-		{
-			e.printStackTrace();
-		}
-		
-		// Get bounds from image size
-		bounds			= new Rectangle(frames[0].getTileWidth(),
-							  			frames[0].getTileHeight());
-		
-		// Start dead
-		motionVector	= new Vector2D(0.0, 0.0);
-		
-		setPriority(priority);
-		
-/*		unrotatedFrames = new BufferedImage[frames.length];
-		
-		for(int i=0;i<frames.length;i++)
-		{
-			unrotatedFrames[i] = (BufferedImage) (frames[i].clone());
-		}*/
-	}
-	
-	
-	
-	/**
-	*
-	*
-	*/
-	public void setVisible(boolean visible)
-	{
-		this.visible = visible;
-	}
-	
-	
-	/**
-	*
-	*
-	*/
-	public boolean isVisible()
-	{
-		return visible;
-	}
-	
-	
-	/**
-	*
-	*
-	*/
-	public double getAngle()
-	{
-		return rotation;
-	}
-	
-
-	/** Rotate the sprite realtively to it's current rotation.
-	 * @param degrees The nr of degrees which to rotate the ship by.
-	 */
-	public BufferedImage getRotatedFrame(double degrees, int currentFrameIndex)
-	{
-		//Create the transformation/rotation
-		AffineTransform tx = new AffineTransform();
-
-		tx.rotate((double)degrees*((2.0*Math.PI)/360.0), frames[0].getTileWidth()/2,
-						   frames[0].getTileHeight()/2);
-		AffineTransformOp op = new AffineTransformOp(tx,
-					       AffineTransformOp.TYPE_BILINEAR);
-		
-		return op.filter(frames[currentFrameIndex], null);
-	}
-	
-
-	public void rotate(double degrees)
-	{
-		rotation = rotation + degrees;
-	}
-	
-	/** Set the direction of the sprite.
-	 * @param degrees The degree the sprite should point towards.
-	 */
-	public void rotateTo(double degrees)
-	{
-		rotation = degrees;
-	} 
-	
-	/** Relocate the sprite to a new position
-	 * @param x The x position
-	 * @param y The y position
-	 */
-	public void setPosition (int x,int y)
-	{
-		setPosition(new Point(x,y));
-	}
-	
-	
-	/** 
-	* Relocate the sprite to a new position
-	*
-	* @param	position	new position
-	*/
-	public void setPosition (Point position) 
-	{
-		this.position = new Point(position);
-		bounds.setLocation(position);
-	}
-	
-	
-	/**
-	*
-	*
-	*/
-	public Point getPosition()
-	{
-		return new Point(position);
-	}
-	
-	
-	/**
-	*
-	*
-	*/
-	public void flip()
-	{
-		// Change the motion
-		motionVector	= motionVector.multiply(new Vector2D(1, -1));
-		
-    	// Mirror the image along the y-axis
-    	AffineTransform tx = AffineTransform.getScaleInstance(-1, 1);
-    	tx.translate(-frames[0].getWidth(null), 0);
-    	AffineTransformOp	op = new AffineTransformOp(tx, AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
-   		for(int i=0;i<frames.length;i++)
-   		{
-   			frames[i] = op.filter(frames[i], null);
-		}   		 
-	}
-	
-	
-	/**
-	*
-	*
-	*/
-	public void setMotionVector(Vector2D motionVector)
-	{
-		this.motionVector = motionVector;
-	}
-	
-	
-	/**
-	*
-	*
-	*/
-	public Vector2D getMotionVector()
-	{
-		return new Vector2D(motionVector);
-	}
-
-
-	/**
-	* Change the current drawing state of the sprite to the one specified. If no
-	*  such state exists a <code>NoSuchStateException</code> will be thrown.
-	*
-	* @throws NoSuchStateException	If the specified state hasn't been 
-	*								previously added.
-	*/
-	public void setState(String stateKey) throws NoSuchStateException
-	{
-		//reset the frame index
-		currentFrameIndex = 0;
-		
-		//retreive the frames matching the key
-		Object framesTemp = states.get(stateKey);
-		
-		//If the result is null, there was no corresponding state.
-		if(framesTemp == null)
-			throw new NoSuchStateException(stateKey);
-		else
-		{
-			frames = (BufferedImage[])framesTemp;
-			currentStateKey = new String(stateKey);
-		}
-	}
-	
-	/** 
-	* Give the sprite another state that can be changed to. If only one
-	* frame is supplied, the sprite will not be animated. If a state with
-	* the same key previously existed, it will be overwritten.
-	* All frames must be of equal dimensions.
-	*
-	* @param stateKey A unique identifier for this state
-	* @param spriteFrames One or more images.
-	*/
-	public void addState(String stateKey,Image[] spriteFrames)
-	{
-		//Convert images to bufferedImages
-		BufferedImage[] bufferedSpriteFrames = 
-					   new BufferedImage[spriteFrames.length];
-		for(int i=0;i<spriteFrames.length;i++)
-		{
-			bufferedSpriteFrames[i] = 
-					    ImageHelper.
-					       toBufferedImage(spriteFrames[i]);
-		}
-		
-		//insert into the list of sprite states
-		states.put(stateKey,bufferedSpriteFrames);
-	}
-	
-	
-	/**
-   	* Retreive a list of the sprites states.
-   	*
-   	* @return 				unique keys for the different states
-   	*/
-	public Collection getStates()
-	{
-		return states.keySet();
-	}
-	
-	
-	/**
-	* Retreive the key for the current selected state.
-	*
-	* @return 				unique key of the current state
-	*/
-	public String getCurrentState()
-	{
-		return new String(currentStateKey);
-	}
-	
-	
-	/**
-	* Returns the sprites priority.
-	*
-	* @return				priority
-	*/
-	public int getPriority()
-	{
-		return priority;
-	}
-	
-	
-	/**
-	* Set the sprites priority.
-	*
-	* @param	priority	priority
-	*/
-	public void setPriority(int priority)
-	{
-		this.priority = priority;
-	}
-	
-
-	/**
-	* Change the boundaries of the sprite. By default, this is the outer
-	* dimensions of the first frame. The Rectangle will be centered on the
-	* sprite.
-	*
-	* @param	r		the sprites bounds
-	*/
-	public void setBounds(Rectangle r)
-	{
-		bounds.setBounds(r);
-	}
-	
-	
-	/**
-	* Get the outer boundaries of the sprite.
-	*
-	* @return			the sprites bounds
-	*/
-	public Rectangle getBounds()
-	{
-		return new Rectangle(bounds);
-	}
-	
-	
-	/**
-	* Returns the centerposition of the sprite.
-	*
-	* @return			sprite center
-	*/
-	public Point getCenterPoint()
-	{
-		// Image top left
-		Point	center	= getPosition();
-		
-		// Image center
-		center.translate(bounds.width / 2, bounds.height / 2);
-		
-		return center;
-	}
-	
-	
-	/**
-	* Sets the sprite's position centered at the given point.
-	*
-	* @param	p			new center for sprite
-	*/
-	public void setCenterAt(Point p)
-	{
-		p.translate(-bounds.width / 2, -bounds.height / 2);
-		
-		setPosition(p);
-	}
-	
-	
-	/**
-	* Test if the sprite collides with the specified area.
-	*
-	* @param	r			Rectangle to test collision with
-	* @return				<code>true</code> if the sprite collides with the 
-	*						section, else <code>false</code>
-	*/
-	public boolean detectCollision(Rectangle r)
-	{
-		return bounds.intersects(r);
-	}
-		
-	
-	/**
-	* Perform the render of the sprite and paint it.
-	*
-	* @param	g			graphics context
-	*/
-	public void paint(Graphics2D g)
-	{
-		if (visible)
-		{
-			if(rotation == 0)
-			 g.drawImage(frames[currentFrameIndex], null, position.x, position.y);
-			else
-			{
-				g.drawImage(getRotatedFrame(rotation, currentFrameIndex), null,
-												position.x, position.y);
-			}
-			// wrap around
-			if (currentFrameIndex == frames.length - 1)
-				currentFrameIndex = 0;
-			else
-				currentFrameIndex++;
-		}
-	}
-} //end Sprite class
+package game.graphics;
+
+import	java.awt.Graphics;
+import	java.awt.Graphics2D;
+import	java.awt.Image;
+import	java.awt.Point;
+import	java.awt.Rectangle;
+import	java.awt.Shape;
+import	java.awt.image.BufferedImage;
+import	java.util.Collection;
+import	java.util.HashMap;
+import	java.util.Map;
+
+import	utilities.ImageHelper;
+import	utilities.Vector2D;
+
+
+/**
+ * Represents a sprite with the abilites to paint itself,
+ * rotate, move around.
+ *
+ * TODO: Add possibility to have different boundaries for each state.
+ *	 Add error checking for frames of unequal size.
+ *	 goatposition?
+ *
+ * @author	Jimmy Stridh
+ * @author	Johan Liesén
+ * @version 5/11/2004 1:09PM
+ */ 
+public class Sprite implements Paintable
+{
+	/** The current position */
+	protected Point	position;	
+	
+	/** The position at the start of the current simulation tick, or 
+	*   <em>null</em> if the sprite isn't interpolated */
+	protected Point	previousPosition;
+	
+	/** How far (0 to 1) between the previous and current position to paint */
+	protected double interpolation = 1.0;
+	
+	/** The frame(s) for the sprite */
+	protected BufferedImage[] frames;
+	
+	protected BufferedImage[] unrotatedFrames;
+	
+	/** Where the frames of the current state are in the texture atlas */
+	protected TextureAtlas.Region[] regions;
+	
+	/** Atlas regions for each state */
+	protected Map stateRegions;
+	
+	/** Set if the frames are painted mirrored along the y-axis */
+	protected boolean mirrored;
+	
+	/** The index of the current frame in the animation */
+	protected int currentFrameIndex;
+	
+	/** The currently selected state */
+	protected String currentStateKey;
+	
+	/** The list of states for the sprite */
+	protected Map states;
+	
+	/** Rotated frames for each state, created when first painted rotated */
+	protected Map rotationCaches;
+	
+	/** The priority the sprites has in terms of being drawn over another
+	*   sprite. Lower priority means further back. */
+	protected int priority;
+	
+	/** The current rotation of the sprite i degrees */
+	protected double rotation = 0;
+	
+	/** The outer boundaries of the the sprite */
+	protected Rectangle bounds;
+	
+	/** The vector representing the current speed and direction of the sprite */
+	protected Vector2D motionVector;
+	
+	/** Defining if the sprite should be painted or not */
+	protected boolean visible;
+	
+	
+	
+	/**
+	*
+	*
+	*/
+	public Sprite(String initialStateKey,Image[] spriteFrames,int priority){
+		states = new HashMap();
+		stateRegions = new HashMap();
+		rotationCaches = new HashMap();
+		addState(initialStateKey,spriteFrames);
+		
+		try
+		{
+			setState(initialStateKey);
+		} 
+		catch(NoSuchStateException e)
+		{
+			e.printStackTrace();
+		}
+		
+		// Get bounds from image size
+		bounds			= new Rectangle(frames[0].getTileWidth(),
+							  			frames[0].getTileHeight());
+		
+		// Start dead
+		motionVector	= new Vector2D(0.0, 0.0);
+		
+		setPriority(priority);
+		
+/*		unrotatedFrames = new BufferedImage[frames.length];
+		
+		for(int i=0;i<frames.length;i++)
+		{
+			unrotatedFrames[i] = (BufferedImage) (frames[i].clone());
+		}*/
+	}
+	
+	
+	
+	/**
+	*
+	*
+	*/
+	public void setVisible(boolean visible)
+	{
+		this.visible = visible;
+	}
+	
+	
+	/**
+	*
+	*
+	*/
+	public boolean isVisible()
+	{
+		return visible;
+	}
+	
+	
+	/**
+	*
+	*
+	*/
+	public double getAngle()
+	{
+		return rotation;
+	}
+	
+
+	/** Get a frame of the current state rotated by (about) a given angle.
+	 * The rotated frames are cached, see <code>{@link RotationCache}</code>.
+	 * @param degrees The nr of degrees which to rotate the frame by.
+	 * @param currentFrameIndex Index of the frame.
+	 */
+	public BufferedImage getRotatedFrame(double degrees, int currentFrameIndex)
+	{
+		return getRotationCache().getFrame(currentFrameIndex, degrees);
+	}
+	
+	
+	/**
+	* Returns the rotation cache of the current state. The caches are shared
+	* by all sprites with the same frames; mirrored sprites get a cache of 
+	* their own, made from mirrored copies of the frames.
+	*
+	* @return				rotation cache
+	*/
+	protected RotationCache getRotationCache()
+	{
+		String			key		= mirrored ? currentStateKey + "/mirrored" 
+											: currentStateKey;
+		RotationCache	cache	= (RotationCache) rotationCaches.get(key);
+		
+		if (cache == null)
+		{
+			cache	= RotationCache.getInstance(frames, mirrored);
+			rotationCaches.put(key, cache);
+		}
+		
+		return cache;
+	}
+	
+
+	public void rotate(double degrees)
+	{
+		rotation = rotation + degrees;
+	}
+	
+	/** Set the direction of the sprite.
+	 * @param degrees The degree the sprite should point towards.
+	 */
+	public void rotateTo(double degrees)
+	{
+		rotation = degrees;
+	} 
+	
+	/** Relocate the sprite to a new position
+	 * @param x The x position
+	 * @param y The y position
+	 */
+	public void setPosition (int x,int y)
+	{
+		if (position == null)
+			position = new Point(x,y);
+		else
+			position.setLocation(x,y);
+		
+		bounds.setLocation(x,y);
+	}
+	
+	
+	/** 
+	* Relocate the sprite to a new position
+	*
+	* @param	position	new position
+	*/
+	public void setPosition (Point position) 
+	{
+		setPosition(position.x, position.y);
+	}
+	
+	
+	/**
+	*
+	*
+	*/
+	public Point getPosition()
+	{
+		return new Point(position);
+	}
+	
+	
+	/**
+	* Copies the position into the given point instead of allocating a new 
+	* one.
+	*
+	* @param	p			point to store the position in
+	* @return				<code>p</code>
+	*/
+	public Point getPosition(Point p)
+	{
+		p.setLocation(position);
+		
+		return p;
+	}
+	
+	
+	/**
+	* Remembers the current position as the start of a simulation tick. The 
+	* sprite is then painted somewhere between the remembered and the current
+	* position, depending on the interpolation factor.
+	*
+	* @see		#setInterpolation(double)
+	*/
+	public void rememberPosition()
+	{
+		if (previousPosition == null)
+		{
+			previousPosition	= new Point(position);
+		}
+		else
+		{
+			previousPosition.setLocation(position);
+		}
+	}
+	
+	
+	/**
+	* Sets how far between the previous and the current position the sprite 
+	* should be painted.
+	*
+	* @param	alpha		interpolation factor ranging from 0 (previous 
+	*						position) to 1 (current position)
+	*/
+	public void setInterpolation(double alpha)
+	{
+		interpolation	= alpha;
+	}
+	
+	
+	/**
+	* Returns the position where the sprite is painted, i.e. the current 
+	* position interpolated from the previous one. Jumps longer than the sprite 
+	* itself (e.g. wrapping around the screen) are not interpolated.
+	*
+	* @return				paint position
+	*/
+	public Point getRenderPosition()
+	{
+		if ((previousPosition == null) || (interpolation >= 1.0))
+		{
+			return new Point(position);
+		}
+		
+		int	dx	= position.x - previousPosition.x;
+		int	dy	= position.y - previousPosition.y;
+		
+		if ((Math.abs(dx) > bounds.width) || (Math.abs(dy) > bounds.height))
+		{
+			return new Point(position);
+		}
+		
+		return new Point(previousPosition.x + (int) Math.round(dx * interpolation),
+						 previousPosition.y + (int) Math.round(dy * interpolation));
+	}
+	
+	
+	/**
+	* Mirrors the sprite along the y-axis and changes its motion accordingly.
+	* The frames themselves are left as they are; they're mirrored when painted.
+	*
+	*/
+	public void flip()
+	{
+		// Change the motion
+		motionVector	= motionVector.multiply(new Vector2D(1, -1));
+		
+		mirrored		= !mirrored;
+	}
+	
+	
+	/**
+	* Returns whether the sprite is painted mirrored along the y-axis.
+	*
+	* @return				<code>true</code> if mirrored
+	*/
+	public boolean isMirrored()
+	{
+		return mirrored;
+	}
+	
+	
+	/**
+	*
+	*
+	*/
+	public void setMotionVector(Vector2D motionVector)
+	{
+		this.motionVector.set(motionVector);
+	}
+	
+	
+	/**
+	* Sets the motion vector given its composants.
+	*
+	* @param	x			x composant
+	* @param	y			y composant
+	*/
+	public void setMotionVector(double x, double y)
+	{
+		motionVector.set(x, y);
+	}
+	
+	
+	/**
+	*
+	*
+	*/
+	public Vector2D getMotionVector()
+	{
+		return new Vector2D(motionVector);
+	}
+	
+	
+	/**
+	* Copies the motion vector into the given vector instead of allocating a
+	* new one.
+	*
+	* @param	v			vector to store the motion in
+	* @return				<code>v</code>
+	*/
+	public Vector2D getMotionVector(Vector2D v)
+	{
+		return v.set(motionVector);
+	}
+
+
+	/**
+	* Change the current drawing state of the sprite to the one specified. If no
+	*  such state exists a <code>NoSuchStateException</code> will be thrown.
+	*  Setting the current state again leaves its animation running.
+	*
+	* @throws NoSuchStateException	If the specified state hasn't been 
+	*								previously added.
+	*/
+	public void setState(String stateKey) throws NoSuchStateException
+	{
+		//retreive the frames matching the key
+		Object framesTemp = states.get(stateKey);
+		
+		//If the result is null, there was no corresponding state.
+		if(framesTemp == null)
+			throw new NoSuchStateException(stateKey);
+		else if(framesTemp != frames)
+		{
+			//reset the frame index
+			currentFrameIndex = 0;
+			
+			frames = (BufferedImage[])framesTemp;
+			regions = (TextureAtlas.Region[])stateRegions.get(stateKey);
+			currentStateKey = stateKey;
+		}
+	}
+	
+	/** 
+	* Give the sprite another state that can be changed to. If only one
+	* frame is supplied, the sprite will not be animated. If a state with
+	* the same key previously existed, it will be overwritten.
+	* All frames must be of equal dimensions.
+	*
+	* @param stateKey A unique identifier for this state
+	* @param spriteFrames One or more images.
+	*/
+	public void addState(String stateKey,Image[] spriteFrames)
+	{
+		//Convert images to bufferedImages
+		BufferedImage[] bufferedSpriteFrames = 
+					   new BufferedImage[spriteFrames.length];
+		for(int i=0;i<spriteFrames.length;i++)
+		{
+			bufferedSpriteFrames[i] = 
+					    ImageHelper.
+					       toBufferedImage(spriteFrames[i]);
+		}
+		
+		//pack the frames into the texture atlas
+		TextureAtlas.Region[] frameRegions = 
+					   new TextureAtlas.Region[bufferedSpriteFrames.length];
+		for(int i=0;i<bufferedSpriteFrames.length;i++)
+		{
+			frameRegions[i] = 
+					    TextureAtlas.getInstance().add(bufferedSpriteFrames[i]);
+		}
+		
+		//insert into the list of sprite states
+		states.put(stateKey,bufferedSpriteFrames);
+		stateRegions.put(stateKey,frameRegions);
+		
+		//forget the rotations of any previous frames
+		rotationCaches.remove(stateKey);
+		rotationCaches.remove(stateKey + "/mirrored");
+
+	}
+	
+	
+	/**
+   	* Retreive a list of the sprites states.
+   	*
+   	* @return 				unique keys for the different states
+   	*/
+	public Collection getStates()
+	{
+		return states.keySet();
+	}
+	
+	
+	/**
+	* Retreive the key for the current selected state.
+	*
+	* @return 				unique key of the current state
+	*/
+	public String getCurrentState()
+	{
+		return new String(currentStateKey);
+	}
+	
+	
+	/**
+	* Returns the sprites priority.
+	*
+	* @return				priority
+	*/
+	public int getPriority()
+	{
+		return priority;
+	}
+	
+	
+	/**
+	* Set the sprites priority.
+	*
+	* @param	priority	priority
+	*/
+	public void setPriority(int priority)
+	{
+		this.priority = priority;
+	}
+	
+
+	/**
+	* Change the boundaries of the sprite. By default, this is the outer
+	* dimensions of the first frame. The Rectangle will be centered on the
+	* sprite.
+	*
+	* @param	r		the sprites bounds
+	*/
+	public void setBounds(Rectangle r)
+	{
+		bounds.setBounds(r);
+	}
+	
+	
+	/**
+	* Get the outer boundaries of the sprite.
+	*
+	* @return			the sprites bounds
+	*/
+	public Rectangle getBounds()
+	{
+		return new Rectangle(bounds);
+	}
+	
+	
+	/**
+	* Copies the outer boundaries of the sprite into the given rectangle 
+	* instead of allocating a new one.
+	*
+	* @param	r			rectangle to store the bounds in
+	* @return				<code>r</code>
+	*/
+	public Rectangle getBounds(Rectangle r)
+	{
+		r.setBounds(bounds);
+		
+		return r;
+	}
+	
+	
+	/**
+	* Returns the centerposition of the sprite.
+	*
+	* @return			sprite center
+	*/
+	public Point getCenterPoint()
+	{
+		// Image top left
+		Point	center	= getPosition();
+		
+		// Image center
+		center.translate(bounds.width / 2, bounds.height / 2);
+		
+		return center;
+	}
+	
+	
+	/**
+	* Copies the centerposition of the sprite into the given point instead of
+	* allocating a new one.
+	*
+	* @param	p			point to store the center in
+	* @return				<code>p</code>
+	*/
+	public Point getCenterPoint(Point p)
+	{
+		p.setLocation(position.x + bounds.width / 2, 
+					  position.y + bounds.height / 2);
+		
+		return p;
+	}
+	
+	
+	/**
+	* Sets the sprite's position centered at the given point.
+	*
+	* @param	p			new center for sprite
+	*/
+	public void setCenterAt(Point p)
+	{
+		p.translate(-bounds.width / 2, -bounds.height / 2);
+		
+		setPosition(p);
+	}
+	
+	
+	/**
+	* Test if the sprite collides with the specified area.
+	*
+	* @param	r			Rectangle to test collision with
+	* @return				<code>true</code> if the sprite collides with the 
+	*						section, else <code>false</code>
+	*/
+	public boolean detectCollision(Rectangle r)
+	{
+		return bounds.intersects(r);
+	}
+		
+	
+	/**
+	* Perform the render of the sprite and paint it.
+	*
+	* @param	g			graphics context
+	*/
+	public void paint(Graphics2D g)
+	{
+		if (visible)
+		{
+			Point	p	= getRenderPosition();
+			
+			if(rotation == 0)
+			 regions[currentFrameIndex].draw(g, p.x, p.y, mirrored);
+			else
+			{
+				RotationCache cache = getRotationCache();
+				
+				g.drawImage(cache.getFrame(currentFrameIndex, rotation), null,
+							p.x - cache.getOffsetX(), p.y - cache.getOffsetY());
+			}
+		}
+	}
+	
+	
+	/**
+	* Advances the animation to the next frame. Called once a tick by what
+	* simulates the sprite rather than when it's painted, so that animations
+	* run at the same speed however often the screen is painted.
+	*
+	*/
+	public void nextFrame()
+	{
+		// wrap around
+		if (currentFrameIndex >= frames.length - 1)
+			currentFrameIndex = 0;
+		else
+			currentFrameIndex++;
+	}
+} //end Sprite class
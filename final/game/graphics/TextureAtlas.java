@@ -0,0 +1,374 @@
+package	game.graphics;
+
+import	java.awt.AlphaComposite;
+import	java.awt.Graphics2D;
+import	java.awt.Transparency;
+import	java.awt.image.BufferedImage;
+import	java.lang.ref.ReferenceQueue;
+import	java.lang.ref.WeakReference;
+import	java.util.ArrayList;
+import	java.util.HashSet;
+import	java.util.List;
+import	java.util.Map;
+import	java.util.Set;
+import	java.util.WeakHashMap;
+
+import	utilities.AcceleratedImage;
+import	utilities.ImageHelper;
+
+
+/**
+* Packs sprite frames into a few large sheets, so that painting the sprites
+* draws from the same source images over and over instead of from one small
+* image per frame. Java2D then keeps fewer images cached in video memory and
+* switches between them less often.
+*
+* <p>
+*   The sheets are drawn through copies in video memory, see 
+*   <code>{@link AcceleratedImage}</code>.
+* </p>
+*
+* <p>
+*   Frames are packed on shelves: rows as high as the highest frame in them,
+*   filled from left to right. A frame too big for a sheet gets a region 
+*   covering the whole frame itself. Adding the same image twice returns the
+*   same region, so sprites sharing frames (e.g. all passengers) share the 
+*   regions too.
+* </p>
+*
+* <p>
+*   A region keeps its frame, and the atlas only keeps the regions weakly.
+*   When no one uses a region any more its place on the sheet is packed
+*   again, so frames evicted from the data cache and loaded anew don't use
+*   up the sheets.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class TextureAtlas
+{
+	/** Default width and height of the sheets */
+	public static final int		DEFAULT_SHEET_SIZE	= 512;
+	
+	/** Empty pixels between frames */
+	private static final int	PADDING				= 1;
+	
+	/** Width and height of the sheets */
+	private int				sheetSize;
+	
+	/** The sheets, the last of which is being filled */
+	private List			sheets		= new ArrayList();
+	
+	/** Slots of the images added, by image. The slots only refer weakly to
+	*   their regions, so that neither regions nor images no longer used 
+	*   elsewhere (e.g. evicted from the data cache) are kept */
+	private Map				regions		= new WeakHashMap();
+	
+	/** Slots of the regions in use; keeps the references themselves */
+	private Set				slots		= new HashSet();
+	
+	/** Slots are queued here when their regions are no longer used */
+	private ReferenceQueue	collected	= new ReferenceQueue();
+	
+	/** Slots which may be packed again */
+	private List			freeSlots	= new ArrayList();
+	
+	/** Where the next frame goes on the current sheet */
+	private int				shelfX, shelfY, shelfHeight;
+	
+	private static TextureAtlas	singleton	= new TextureAtlas(DEFAULT_SHEET_SIZE);
+	
+	
+	
+	/**
+	* Creates an empty atlas.
+	*
+	* @param	sheetSize	width and height of the sheets
+	*/
+	public TextureAtlas(int sheetSize)
+	{
+		this.sheetSize	= sheetSize;
+	}
+	
+	
+	
+	/**
+	* Returns the atlas shared by all sprites.
+	*
+	* @return				the atlas
+	*/
+	public static TextureAtlas getInstance()
+	{
+		return singleton;
+	}
+	
+	
+	/**
+	* Packs an image, unless already packed, and returns its region.
+	*
+	* @param	image		the image
+	* @return				where the image is in the atlas
+	*/
+	public synchronized Region add(BufferedImage image)
+	{
+		reclaim();
+		
+		Slot	slot	= (Slot) regions.get(image);
+		Region	region	= (slot != null) ? (Region) slot.get() : null;
+		
+		if (region != null)
+		{
+			return region;
+		}
+		
+		int	width	= image.getWidth();
+		int	height	= image.getHeight();
+		
+		if ((width + PADDING > sheetSize) || (height + PADDING > sheetSize))
+		{
+			// Too big; use the image as it is. Not shared, since it takes
+			// no room on the sheets
+			return new Region(new AcceleratedImage(image), image, 0, 0, width, height);
+		}
+		
+		slot	= takeFreeSlot(width + PADDING, height + PADDING);
+		
+		if (slot != null)
+		{
+			// Clear what was there, then copy the pixels as they are
+			Graphics2D	g	= slot.sheet.getImage().createGraphics();
+			
+			g.setComposite(AlphaComposite.Clear);
+			g.fillRect(slot.x, slot.y, slot.width, slot.height);
+			g.setComposite(AlphaComposite.Src);
+			g.drawImage(image, slot.x, slot.y, null);
+			g.dispose();
+			
+			slot.sheet.contentsChanged();
+			
+			region	= new Region(slot.sheet, image, slot.x, slot.y, width, height);
+			slot	= new Slot(region, collected, slot.width, slot.height);
+		}
+		else
+		{
+			// Next shelf, or next sheet, if the frame doesn't fit
+			if (shelfX + width + PADDING > sheetSize)
+			{
+				shelfX		= 0;
+				shelfY		+= shelfHeight;
+				shelfHeight	= 0;
+			}
+			
+			if (sheets.isEmpty() || (shelfY + height + PADDING > sheetSize))
+			{
+				BufferedImage	sheet	= ImageHelper.createCompatibleImage(sheetSize, 
+											sheetSize, Transparency.TRANSLUCENT);
+				
+				ImageHelper.track("atlas sheet " + sheets.size(), sheet);
+				sheets.add(new AcceleratedImage(sheet));
+				shelfX		= 0;
+				shelfY		= 0;
+				shelfHeight	= 0;
+			}
+			
+			AcceleratedImage	sheet	= (AcceleratedImage) sheets.get(sheets.size() - 1);
+			Graphics2D			g		= sheet.getImage().createGraphics();
+			
+			// Copy the pixels as they are, alpha included
+			g.setComposite(AlphaComposite.Src);
+			g.drawImage(image, shelfX, shelfY, null);
+			g.dispose();
+			
+			sheet.contentsChanged();
+			
+			region		= new Region(sheet, image, shelfX, shelfY, width, height);
+			slot		= new Slot(region, collected, width + PADDING, height + PADDING);
+			shelfX		+= width + PADDING;
+			shelfHeight	= Math.max(shelfHeight, height + PADDING);
+		}
+		
+		slots.add(slot);
+		regions.put(image, slot);
+		
+		return region;
+	}
+	
+	
+	/**
+	* Frees the slots of regions which are no longer used.
+	*
+	*/
+	private void reclaim()
+	{
+		Slot	slot;
+		
+		while ((slot = (Slot) collected.poll()) != null)
+		{
+			slots.remove(slot);
+			freeSlots.add(slot);
+		}
+	}
+	
+	
+	/**
+	* Takes the first free slot big enough for a frame.
+	*
+	* @param	width		width of the frame and its padding
+	* @param	height		height of the frame and its padding
+	* @return				the slot, or <em>null</em> if none is big enough
+	*/
+	private Slot takeFreeSlot(int width, int height)
+	{
+		for (int i = 0; i < freeSlots.size(); i++)
+		{
+			Slot	slot	= (Slot) freeSlots.get(i);
+			
+			if ((width <= slot.width) && (height <= slot.height))
+			{
+				freeSlots.remove(i);
+				
+				return slot;
+			}
+		}
+		
+		return null;
+	}
+	
+	
+	/**
+	* Returns the number of sheets.
+	*
+	* @return				sheet count
+	*/
+	public synchronized int getSheetCount()
+	{
+		return sheets.size();
+	}
+	
+	
+	/**
+	* Forgets all regions and sheets. Regions handed out before remain valid.
+	*
+	*/
+	public synchronized void clear()
+	{
+		sheets.clear();
+		regions.clear();
+		slots.clear();
+		freeSlots.clear();
+		collected	= new ReferenceQueue();
+		
+		shelfX		= 0;
+		shelfY		= 0;
+		shelfHeight	= 0;
+	}
+	
+	
+	
+	/**
+	* A region's place on a sheet, including the padding, which is packed 
+	* again once the region is no longer used.
+	*
+	*/
+	private static class Slot extends WeakReference
+	{
+		final AcceleratedImage	sheet;
+		final int				x, y, width, height;
+		
+		
+		Slot(Region region, ReferenceQueue queue, int width, int height)
+		{
+			super(region, queue);
+			
+			this.sheet	= region.sheet;
+			this.x		= region.x;
+			this.y		= region.y;
+			this.width	= width;
+			this.height	= height;
+		}
+	}
+	
+	
+	/**
+	* A frame's place on a sheet.
+	*
+	*/
+	public static class Region
+	{
+		/** The sheet */
+		private AcceleratedImage	sheet;
+		
+		/** The frame, kept as long as the region is used */
+		private BufferedImage		image;
+		
+		/** Bounds on the sheet */
+		private int				x, y, width, height;
+		
+		
+		Region(AcceleratedImage sheet, BufferedImage image, 
+			   int x, int y, int width, int height)
+		{
+			this.sheet	= sheet;
+			this.image	= image;
+			this.x		= x;
+			this.y		= y;
+			this.width	= width;
+			this.height	= height;
+		}
+		
+		
+		/**
+		* Draws the frame.
+		*
+		* @param	g			graphics context
+		* @param	dx			x position
+		* @param	dy			y position
+		* @param	mirrored	<code>true</code> to mirror the frame along 
+		*						the y-axis
+		*/
+		public void draw(Graphics2D g, int dx, int dy, boolean mirrored)
+		{
+			if (mirrored)
+			{
+				sheet.draw(g, dx + width, dy, dx, dy + height,
+							  x, y, x + width, y + height);
+			}
+			else
+			{
+				sheet.draw(g, dx, dy, dx + width, dy + height,
+							  x, y, x + width, y + height);
+			}
+		}
+		
+		
+		/**
+		* Draws the frame.
+		*
+		* @param	g			graphics context
+		* @param	dx			x position
+		* @param	dy			y position
+		*/
+		public void draw(Graphics2D g, int dx, int dy)
+		{
+			draw(g, dx, dy, false);
+		}
+		
+		
+		public BufferedImage getSheet()
+		{
+			return sheet.getImage();
+		}
+		
+		
+		public int getWidth()
+		{
+			return width;
+		}
+		
+		
+		public int getHeight()
+		{
+			return height;
+		}
+	}
+} //end TextureAtlas
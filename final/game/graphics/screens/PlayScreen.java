@@ -1,67 +1,233 @@
-package	game.graphics.screens;
-
-import 	java.awt.Color;
-import 	java.awt.Dimension;
-import 	java.awt.Graphics2D;
-import	java.awt.Rectangle;
-
-import	game.Engine;
-import	game.GameController;
-import	game.graphics.ScoreBoard;
-import	game.graphics.Statusbar;
-import 	game.input.KeyboardController;
-import	utilities.DataPreLoader;
-
-
-/**
-*
-*	This is the screen on which the game itself will be showed
-*
-*	@author		Karl Olofsson
-*	@author		Jimmy Stridh
-*	@author		Johan Liesn
-*	@version	1.1-TREKRONOR
-*
-*/
-public class PlayScreen extends Screen
-{
-	private Engine				engine;
-	private	GameController		controller;
-	private boolean				showScoreBoard;
-	private Statusbar			statusbar;
-	
-	
-	
-	/**
-	* The constructor for PlayScreen
-	*
-	*/
-	public PlayScreen(Dimension size, GameController gc,  
-									KeyboardController keyb, Engine engine)
-	{	
-		super(size, gc, keyb);
-		
-		this.engine = engine;
-		engine.setPlayScreen(this);
-		
-		statusbar	= new Statusbar(size, engine);
-		
-		setBackground(DataPreLoader.getInstance().getImage("play_background"));
-	}
-	
-	/**
-	* Paints the game
-	*
-	*/
-	public void render(Graphics2D g)
-	{
-		// Render background
-		super.render(g);
-		
-		// Render statusbar
-		statusbar.render(g);
-		
-		// Render the game!
-		engine.render(g);
-	}
-} //end PlayScreen
+package	game.graphics.screens;
+
+import 	java.awt.Color;
+import 	java.awt.Dimension;
+import 	java.awt.Graphics2D;
+import	java.awt.Rectangle;
+import	java.awt.geom.AffineTransform;
+import	java.awt.image.VolatileImage;
+
+import	game.Engine;
+import	game.GameController;
+import	game.PerformanceMonitor;
+import	game.PhaseTimer;
+import	game.graphics.PerformanceOverlay;
+import	game.graphics.ScoreBoard;
+import	game.graphics.Statusbar;
+import 	game.input.KeyboardController;
+import	utilities.DataPreLoader;
+
+
+/**
+*
+*	This is the screen on which the game itself will be showed
+*
+*	@author		Karl Olofsson
+*	@author		Jimmy Stridh
+*	@author		Johan Liesén
+*	@version	1.1-TREKRONOR
+*
+*/
+public class PlayScreen extends Screen
+{
+	private Engine				engine;
+	private	GameController		controller;
+	private boolean				showScoreBoard;
+	private Statusbar			statusbar;
+	private PerformanceOverlay	overlay;
+	private boolean				showOverlay;
+	private PhaseTimer			renderTimer;
+	
+	/** Background and static parts of the world, painted once per level */
+	private VolatileImage		staticLayer;
+	
+	/** The engine's static layer version when the layer was painted */
+	private int					staticLayerVersion;
+	
+	
+	
+	/**
+	* The constructor for PlayScreen
+	*
+	*/
+	public PlayScreen(Dimension size, GameController gc,  
+									KeyboardController keyb, Engine engine)
+	{	
+		super(size, gc, keyb);
+		
+		this.engine = engine;
+		engine.setPlayScreen(this);
+		
+		statusbar	= new Statusbar(size, engine);
+		overlay		= new PerformanceOverlay(size);
+		renderTimer	= PerformanceMonitor.getInstance().getTimer(PerformanceMonitor.FRAME_RENDER);
+		
+		setBackground(DataPreLoader.getInstance().getImage("play_background"));
+		
+		// The engine's game loop pushes the frames
+		setActiveRendering(true);
+	}
+	
+	/**
+	* Paints the game
+	*
+	*/
+	public void render(Graphics2D g)
+	{
+		long	start	= System.nanoTime();
+		
+		// Render background and the static parts of the game
+		if (!renderStaticLayer(g))
+		{
+			super.render(g);
+			renderWorld(g, false);
+		}
+		
+		// Render statusbar
+		statusbar.render(g);
+		
+		// Render the game!
+		renderWorld(g, true);
+		
+		renderTimer.stop(start);
+		
+		// Render the timings on top, not counting the time this takes
+		if (showOverlay)
+		{
+			overlay.render(g);
+		}
+	}
+	
+	
+	/**
+	* Draws the cached static layer, first painting it if the size of the 
+	* screen or the level has changed, or if its contents were lost.
+	*
+	* @param	g			graphics context
+	* @return				<code>false</code> if no layer can be created 
+	*						(e.g. the screen isn't displayable yet), in which 
+	*						case nothing is drawn
+	*/
+	private boolean renderStaticLayer(Graphics2D g)
+	{
+		int	width	= getWidth();
+		int	height	= getHeight();
+		
+		do
+		{
+			int	status	= (staticLayer == null) 
+							? VolatileImage.IMAGE_INCOMPATIBLE
+							: staticLayer.validate(getGraphicsConfiguration());
+			
+			if ((status == VolatileImage.IMAGE_INCOMPATIBLE) ||
+				(staticLayer.getWidth() != width) || 
+				(staticLayer.getHeight() != height))
+			{
+				if (staticLayer != null)
+				{
+					staticLayer.flush();
+				}
+				
+				staticLayer	= createVolatileImage(width, height);
+				
+				if (staticLayer == null)
+				{
+					return false;
+				}
+				
+				paintStaticLayer();
+			}
+			else if ((status == VolatileImage.IMAGE_RESTORED) ||
+					 (staticLayerVersion != engine.getStaticLayerVersion()))
+			{
+				// Restored surfaces come back empty
+				paintStaticLayer();
+			}
+			
+			g.drawImage(staticLayer, 0, 0, null);
+		}
+		while (staticLayer.contentsLost());
+		
+		return true;
+	}
+	
+	
+	/**
+	* Paints the background and the static parts of the game onto the static
+	* layer.
+	*
+	*/
+	private void paintStaticLayer()
+	{
+		staticLayerVersion	= engine.getStaticLayerVersion();
+		
+		Graphics2D	g	= staticLayer.createGraphics();
+		
+		super.render(g);
+		renderWorld(g, false);
+		
+		g.dispose();
+	}
+	
+	
+	/**
+	* Renders the static or the moving parts of the world, scaled to fit the
+	* screen and centered if the level isn't the size of the screen.
+	*
+	* @param	g			graphics context
+	* @param	dynamic		<code>true</code> for the moving parts
+	*/
+	private void renderWorld(Graphics2D g, boolean dynamic)
+	{
+		int				worldWidth	= engine.getWorldWidth();
+		int				worldHeight	= engine.getWorldHeight();
+		AffineTransform	transform	= null;
+		
+		if ((worldWidth != getWidth()) || (worldHeight != getHeight()))
+		{
+			double	scale	= Math.min((double) getWidth() / worldWidth,
+									   (double) getHeight() / worldHeight);
+			
+			transform	= g.getTransform();
+			g.translate((getWidth() - worldWidth * scale) / 2,
+						(getHeight() - worldHeight * scale) / 2);
+			g.scale(scale, scale);
+		}
+		
+		if (dynamic)
+		{
+			engine.renderDynamic(g);
+		}
+		else
+		{
+			engine.renderStatic(g);
+		}
+		
+		if (transform != null)
+		{
+			g.setTransform(transform);
+		}
+	}
+	
+	
+	/**
+	* Shows or hides the frame and tick timings.
+	*
+	* @param	show		<code>true</code> to show the timings
+	*/
+	public void setShowOverlay(boolean show)
+	{
+		showOverlay	= show;
+	}
+	
+	
+	/**
+	* Returns whether the frame and tick timings are shown.
+	*
+	* @return				<code>true</code> if the timings are shown
+	*/
+	public boolean isShowOverlay()
+	{
+		return showOverlay;
+	}
+} //end PlayScreen
@@ -0,0 +1,142 @@
+package	game.inactor;
+
+import	java.awt.Point;
+
+
+/**
+* The edges of an inactor's outline, computed once and kept in primitive
+* arrays indexed by edge so that collision tests loop over them without
+* allocating. Edge <em>i</em> runs from vertex <em>i</em> to the next.
+*
+* <p>
+*   The arrays returned by the getters are shared and must not be changed.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class Edges
+{
+	/** End points */
+	private final int[]		startX, startY,
+							endX, endY;
+
+	/** Unit vector from the start to the end */
+	private final double[]	directionX, directionY;
+
+	/** Length */
+	private final double[]	length;
+
+	/** Unit normal pointing out of the outline */
+	private final double[]	normalX, normalY;
+
+
+
+	/**
+	* Computes the edges of an outline.
+	*
+	* @param	vertices	the vertices, clockwise on the screen (i.e. with
+	*						the y-axis pointing down)
+	*/
+	public Edges(Point[] vertices)
+	{
+		int	count	= vertices.length;
+
+		startX		= new int[count];
+		startY		= new int[count];
+		endX		= new int[count];
+		endY		= new int[count];
+		directionX	= new double[count];
+		directionY	= new double[count];
+		length		= new double[count];
+		normalX		= new double[count];
+		normalY		= new double[count];
+
+		for (int i = 0; i < count; i++)
+		{
+			Point	p	= vertices[i],
+					q	= vertices[(i + 1) % count];
+			double	dx	= q.x - p.x,
+					dy	= q.y - p.y,
+					l	= Math.sqrt(dx * dx + dy * dy);
+
+			startX[i]		= p.x;
+			startY[i]		= p.y;
+			endX[i]			= q.x;
+			endY[i]			= q.y;
+			length[i]		= l;
+			directionX[i]	= (l > 0) ? dx / l : 0;
+			directionY[i]	= (l > 0) ? dy / l : 0;
+
+			// Turned a quarter to the left, which is outwards when going
+			// clockwise
+			normalX[i]		= directionY[i];
+			normalY[i]		= -directionX[i];
+		}
+	}
+
+
+
+	/**
+	* Returns the number of edges.
+	*
+	* @return				number of edges
+	*/
+	public int size()
+	{
+		return length.length;
+	}
+
+
+	public int[] getStartX()
+	{
+		return startX;
+	}
+
+
+	public int[] getStartY()
+	{
+		return startY;
+	}
+
+
+	public int[] getEndX()
+	{
+		return endX;
+	}
+
+
+	public int[] getEndY()
+	{
+		return endY;
+	}
+
+
+	public double[] getDirectionX()
+	{
+		return directionX;
+	}
+
+
+	public double[] getDirectionY()
+	{
+		return directionY;
+	}
+
+
+	public double[] getLength()
+	{
+		return length;
+	}
+
+
+	public double[] getNormalX()
+	{
+		return normalX;
+	}
+
+
+	public double[] getNormalY()
+	{
+		return normalY;
+	}
+} //end Edges
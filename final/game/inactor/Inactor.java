@@ -1,66 +1,133 @@
-package	game.inactor;
-
-import	java.awt.Graphics2D;
-import 	java.awt.Image;
-import 	java.awt.Point;
-import 	java.awt.Rectangle;
-
-import	game.GameObject;
-
-
-/**
-* An Inactor is a GameObject which cannot act.
-* 
-* @author	Karl Olofsson
-* @author	Johan Liesn
-*/
-public class Inactor extends GameObject
-{
-
-    /**
-    * Creates an Inactor.
-	*
-	* @param	initialStateKey
-	*						initial state
-	* @param	spriteFrames
-	*						frames
-	* @param	priority	priority
-	* @param	position	initial position
-    */   
-    public Inactor(String initialStateKey,
-    			   Image[] spriteFrames,
-    			   int priority,
-    			   Point position)
-    {
-    	super(initialStateKey,spriteFrames,priority,position);
-    }
-    
-	
-	
-	/**
-	* Returns the vertices (position of edges) of the Inactor bounds.
-	*
-	* @return				vertices
-	*/
-	public Point[] getVertices()
-	{
-		Point		position	= getPosition();
-		Rectangle	bounds		= getBounds();
-		
-		return new Point[] { new Point(position.x, position.y),
-							 new Point(position.x + bounds.width - 1, position.y),
-							 new Point(position.x + bounds.width - 1, position.y + bounds.height - 1),
-							 new Point(position.x, position.y + bounds.height - 1) };
-	}
-	
-	
-	/**
-	* Paints the Inactor.
-	*
-	* @param	g		graphics context
-	*/
-	public void paint(Graphics2D g)
-	{
-		super.paint(g);
-	}
+package	game.inactor;
+
+import	java.awt.Graphics2D;
+import 	java.awt.Image;
+import 	java.awt.Point;
+import 	java.awt.Rectangle;
+
+import	game.GameObject;
+
+
+/**
+* An Inactor is a GameObject which cannot act.
+* 
+* @author	Karl Olofsson
+* @author	Johan Liesén
+*/
+public class Inactor extends GameObject
+{
+	/** Vertices of the bounds, computed when first asked for since inactors
+	*   don't move */
+	private Point[]	vertices;
+	
+	/** Edges of the bounds, computed with the vertices */
+	private Edges	edges;
+	
+
+    /**
+    * Creates an Inactor.
+	*
+	* @param	initialStateKey
+	*						initial state
+	* @param	spriteFrames
+	*						frames
+	* @param	priority	priority
+	* @param	position	initial position
+    */   
+    public Inactor(String initialStateKey,
+    			   Image[] spriteFrames,
+    			   int priority,
+    			   Point position)
+    {
+    	super(initialStateKey,spriteFrames,priority,position);
+    }
+    
+	
+	
+	/**
+	* Returns the vertices (position of edges) of the Inactor bounds. The 
+	* array is shared and must not be changed.
+	*
+	* @return				vertices
+	*/
+	public Point[] getVertices()
+	{
+		if (vertices == null)
+		{
+			Point		position	= getPosition();
+			Rectangle	bounds		= getBounds();
+			
+			vertices	= new Point[] { new Point(position.x, position.y),
+										new Point(position.x + bounds.width - 1, position.y),
+										new Point(position.x + bounds.width - 1, position.y + bounds.height - 1),
+										new Point(position.x, position.y + bounds.height - 1) };
+		}
+		
+		return vertices;
+	}
+	
+	
+	/**
+	* Returns the edges of the Inactor bounds, for collision tests.
+	*
+	* @return				edges
+	*/
+	public Edges getEdges()
+	{
+		if (edges == null)
+		{
+			edges	= new Edges(getVertices());
+		}
+		
+		return edges;
+	}
+	
+	
+	/**
+	* Moves the Inactor, which also moves its vertices.
+	*
+	* @param	x			x position
+	* @param	y			y position
+	*/
+	public void setPosition(int x, int y)
+	{
+		super.setPosition(x, y);
+		
+		vertices	= null;
+		edges		= null;
+	}
+	
+	
+	/**
+	* Paints the Inactor.
+	*
+	* @param	g		graphics context
+	*/
+	public void paint(Graphics2D g)
+	{
+		super.paint(g);
+	}
+	
+	
+	/**
+	* Paints the parts of the Inactor which don't change during a round. These
+	* may be painted once into a cached layer rather than each frame.
+	*
+	* @param	g		graphics context
+	*/
+	public void paintStatic(Graphics2D g)
+	{
+		paint(g);
+	}
+	
+	
+	/**
+	* Paints the parts of the Inactor which may change during a round, on top
+	* of the static parts. Nothing by default.
+	*
+	* @param	g		graphics context
+	*/
+	public void paintDynamic(Graphics2D g)
+	{
+	}
 } //end Inactor
\ No newline at end of file
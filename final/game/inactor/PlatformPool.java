@@ -0,0 +1,124 @@
+package	game.inactor;
+
+import	game.RandomSource;
+
+
+/**
+* The platforms a passenger may be spawned on or sent to, i.e. those which
+* are neither inhabited nor a destination and aren't refuel platforms. The
+* platforms keep the pool up to date as their state changes, so a free
+* platform is drawn in constant time however many there are.
+*
+* @author	Johan Liesén
+*/
+public class PlatformPool
+{
+	/** The free platforms; each knows its index in the array */
+	private Platform[]	platforms	= new Platform[16];
+
+	/** Number of free platforms */
+	private int			size;
+
+
+
+	/**
+	* Adds a platform to the pool, which will then follow its state. A
+	* platform can only be in one pool.
+	*
+	* @param	platform	the platform
+	*/
+	public void add(Platform platform)
+	{
+		platform.setPool(this);
+	}
+
+
+	/**
+	* Puts a platform in or takes it out of the free ones after its state has
+	* changed.
+	*
+	* @param	platform	the platform
+	*/
+	void update(Platform platform)
+	{
+		int	index	= platform.getPoolIndex();
+
+		if (platform.isFree() && (index < 0))
+		{
+			if (size == platforms.length)
+			{
+				Platform[]	grown	= new Platform[size * 2];
+
+				System.arraycopy(platforms, 0, grown, 0, size);
+				platforms	= grown;
+			}
+
+			platforms[size]	= platform;
+			platform.setPoolIndex(size++);
+		}
+		else if (!platform.isFree() && (index >= 0))
+		{
+			// Move the last platform into the hole
+			Platform	last	= platforms[--size];
+
+			platforms[index]	= last;
+			last.setPoolIndex(index);
+
+			platforms[size]		= null;
+			platform.setPoolIndex(-1);
+		}
+	}
+
+
+	/**
+	* Returns the number of free platforms.
+	*
+	* @return				number of free platforms
+	*/
+	public int size()
+	{
+		return size;
+	}
+
+
+	/**
+	* Draws a random free platform.
+	*
+	* @param	random		random generator
+	* @return				the platform, or <em>null</em> if none is free
+	*/
+	public Platform draw(RandomSource random)
+	{
+		return draw(random, null);
+	}
+
+
+	/**
+	* Draws a random free platform other than a given one.
+	*
+	* @param	random		random generator
+	* @param	except		platform not to draw, or <em>null</em>
+	* @return				the platform, or <em>null</em> if no other is free
+	*/
+	public Platform draw(RandomSource random, Platform except)
+	{
+		int	excluded	= (except != null) ? except.getPoolIndex() : -1;
+		int	count		= (excluded >= 0) ? size - 1 : size;
+
+		if (count <= 0)
+		{
+			return null;
+		}
+
+		// Draw among all but the last and let the last stand in for the
+		// excluded platform
+		int	index	= random.nextInt(count);
+
+		if (index == excluded)
+		{
+			index	= size - 1;
+		}
+
+		return platforms[index];
+	}
+} //end PlatformPool
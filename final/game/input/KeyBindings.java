@@ -0,0 +1,97 @@
+package	game.input;
+
+import	java.awt.event.KeyEvent;
+import	java.util.HashMap;
+import	java.util.Map;
+
+import	game.Engine;
+
+
+/**
+* Maps keys to the controls of the players, i.e. to a player and one of the
+* <code>Engine.INPUT_*</code> bits.
+*
+* @author	Johan Liesén
+*/
+public class KeyBindings
+{
+	/** Keys of the default layouts: left, right, up and down of each player */
+	private static final int[][]	DEFAULT_KEYS	= {
+		{ KeyEvent.VK_LEFT,		KeyEvent.VK_RIGHT,		KeyEvent.VK_UP,		KeyEvent.VK_DOWN },
+		{ KeyEvent.VK_A,		KeyEvent.VK_D,			KeyEvent.VK_W,		KeyEvent.VK_S },
+		{ KeyEvent.VK_J,		KeyEvent.VK_L,			KeyEvent.VK_I,		KeyEvent.VK_K },
+		{ KeyEvent.VK_NUMPAD4,	KeyEvent.VK_NUMPAD6,	KeyEvent.VK_NUMPAD8,	KeyEvent.VK_NUMPAD5 } };
+
+	/** Input bits in the order of the default layouts */
+	private static final int[]		DEFAULT_BITS	= {
+		Engine.INPUT_LEFT, Engine.INPUT_RIGHT, Engine.INPUT_UP, Engine.INPUT_DOWN };
+
+	/** Player and bit, packed as <code>player &lt;&lt; 8 | bit</code>, by
+	*   key code */
+	private Map		bindings	= new HashMap();
+
+
+
+	/**
+	* Creates the default bindings, which cover four players.
+	*
+	* @return				the bindings
+	*/
+	public static KeyBindings createDefault()
+	{
+		KeyBindings	keys	= new KeyBindings();
+
+		for (int player = 0; player < DEFAULT_KEYS.length; player++)
+		{
+			for (int i = 0; i < DEFAULT_BITS.length; i++)
+			{
+				keys.bind(DEFAULT_KEYS[player][i], player, DEFAULT_BITS[i]);
+			}
+		}
+
+		return keys;
+	}
+
+
+
+	/**
+	* Binds a key to a control, replacing what the key was bound to.
+	*
+	* @param	keyCode		virtual key code
+	* @param	player		index of the player
+	* @param	bit			one of the <code>Engine.INPUT_*</code> bits
+	*/
+	public void bind(int keyCode, int player, int bit)
+	{
+		bindings.put(Integer.valueOf(keyCode), Integer.valueOf((player << 8) | bit));
+	}
+
+
+	/**
+	* Returns the player a key controls.
+	*
+	* @param	keyCode		virtual key code
+	* @return				index of the player, or -1 if the key isn't bound
+	*/
+	public int getPlayer(int keyCode)
+	{
+		Integer	binding	= (Integer) bindings.get(Integer.valueOf(keyCode));
+
+		return (binding != null) ? binding.intValue() >> 8 : -1;
+	}
+
+
+	/**
+	* Returns the input bit a key controls.
+	*
+	* @param	keyCode		virtual key code
+	* @return				one of the <code>Engine.INPUT_*</code> bits, or 0 if
+	*						the key isn't bound
+	*/
+	public int getBit(int keyCode)
+	{
+		Integer	binding	= (Integer) bindings.get(Integer.valueOf(keyCode));
+
+		return (binding != null) ? binding.intValue() & 0xFF : 0;
+	}
+} //end KeyBindings
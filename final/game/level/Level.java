@@ -0,0 +1,538 @@
+package	game.level;
+
+import	java.awt.Dimension;
+import	java.awt.Point;
+import	java.io.BufferedInputStream;
+import	java.io.BufferedOutputStream;
+import	java.io.BufferedReader;
+import	java.io.DataInputStream;
+import	java.io.DataOutputStream;
+import	java.io.File;
+import	java.io.FileInputStream;
+import	java.io.FileOutputStream;
+import	java.io.IOException;
+import	java.io.InputStreamReader;
+import	java.util.ArrayList;
+import	java.util.List;
+
+import	game.inactor.Inactor;
+import	game.inactor.Platform;
+import	game.inactor.RefuelPlatform;
+import	game.inactor.Topborder;
+
+
+/**
+* A level: the size of the world, its gravity, where the ships start and the
+* platforms, refuel platforms and borders in it. The size and gravity default
+* to those of the original level.
+*
+* <p>
+*   Levels are written as text, one item per line, see
+*   <code>resources/levels/default.txt</code>, and compiled by
+*   <code>{@link LevelCompiler}</code> into a binary file which loads without
+*   parsing. The binary file starts with the magic number, the version, the
+*   world size and the gravity, followed by the number of spawn points and
+*   their coordinates and last the number of inactors and the type and
+*   coordinates of each. Everything is big-endian. <code>read</code> tells
+*   the two apart by the magic number.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class Level
+{
+	/** "ITXL" */
+	public static final int		MAGIC	= 0x4954584C;
+
+	/** Version of the binary format */
+	public static final int		VERSION	= 1;
+
+	/** Inactor types */
+	public static final byte	PLATFORM	= 0,
+								REFUEL		= 1,
+								BORDER		= 2;
+
+	/** Names of the inactor types in the text format */
+	private static final String[]	TYPE_NAMES	= { "platform", "refuel", "border" };
+
+	/** The level the game is played on, as text */
+	public static final String	DEFAULT_TEXT	= "resources/levels/default.txt";
+
+	/** The level the game is played on, compiled */
+	public static final String	DEFAULT_BINARY	= "resources/levels/default.lvl";
+
+	/** Path the level was read from, or <em>null</em> */
+	private String		name;
+	
+	/** Size of the world */
+	private Dimension	size	= new Dimension(640, 480);
+
+	/** Gravity, added to the ships' motion each tick */
+	private double		gravityX	= 0,
+						gravityY	= 0.075;
+
+	/** Where the ships start, in the order of the players */
+	private List		spawnPoints	= new ArrayList();
+
+	// The inactors
+	private byte[]		types		= new byte[16];
+	private int[]		xs			= new int[16],
+						ys			= new int[16];
+	private int			count;
+
+
+
+	/**
+	* Reads a level, either as text or compiled.
+	*
+	* @param	path		path to the level
+	* @return				the level
+	* @throws	IOException	if the file can't be read or isn't a level
+	*/
+	public static Level read(String path) throws IOException
+	{
+		BufferedInputStream	in	= new BufferedInputStream(new FileInputStream(path));
+
+		try
+		{
+			// Compiled levels start with the magic number
+			in.mark(4);
+
+			int		magic	= new DataInputStream(in).readInt();
+			Level	level;
+
+			in.reset();
+
+			if (magic == MAGIC)
+			{
+				level	= readBinary(new DataInputStream(in), path);
+			}
+			else
+			{
+				level	= readText(new BufferedReader(new InputStreamReader(in, "ISO-8859-1")), path);
+			}
+
+			level.name	= path;
+
+			return level;
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+
+
+	/**
+	* Reads the level the game is played on, preferring the compiled level
+	* unless the text is newer. Either way the level is named after the 
+	* text, which is what is kept.
+	*
+	* @return				the level
+	* @throws	IOException	if neither can be read
+	*/
+	public static Level readDefault() throws IOException
+	{
+		File	binary	= new File(DEFAULT_BINARY);
+		Level	level;
+
+		if (binary.lastModified() >= new File(DEFAULT_TEXT).lastModified())
+		{
+			level	= read(DEFAULT_BINARY);
+		}
+		else
+		{
+			level	= read(DEFAULT_TEXT);
+		}
+
+		level.name	= DEFAULT_TEXT;
+
+		return level;
+	}
+
+
+	/**
+	* Reads a level written as text.
+	*
+	*/
+	private static Level readText(BufferedReader in, String path) throws IOException
+	{
+		Level	level	= new Level();
+		String	line;
+		int		lineNo	= 0;
+
+		while ((line = in.readLine()) != null)
+		{
+			lineNo++;
+			line	= line.trim();
+
+			if ((line.length() == 0) || line.startsWith("#"))	continue;
+
+			String[]	fields	= line.split("\\s+");
+
+			if (fields.length != 3)
+			{
+				throw new IOException(path + ":" + lineNo + ": expected <item> <x> <y>");
+			}
+
+			try
+			{
+				if (fields[0].equals("size"))
+				{
+					level.setSize(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+				}
+				else if (fields[0].equals("gravity"))
+				{
+					level.setGravity(Double.parseDouble(fields[1]), Double.parseDouble(fields[2]));
+				}
+				else if (fields[0].equals("spawn"))
+				{
+					level.addSpawnPoint(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+				}
+				else
+				{
+					byte	type	= getType(fields[0]);
+
+					if (type < 0)
+					{
+						throw new IOException(path + ":" + lineNo + ": unknown item " + fields[0]);
+					}
+
+					level.add(type, Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+				}
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IOException(path + ":" + lineNo + ": " + e.getMessage());
+			}
+		}
+
+		return level;
+	}
+
+
+	/**
+	* Returns the inactor type of a name in the text format.
+	*
+	*/
+	private static byte getType(String name)
+	{
+		for (byte i = 0; i < TYPE_NAMES.length; i++)
+		{
+			if (TYPE_NAMES[i].equals(name))
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+
+	/**
+	* Reads a compiled level.
+	*
+	*/
+	private static Level readBinary(DataInputStream in, String path) throws IOException
+	{
+		if ((in.readInt() != MAGIC) || (in.readInt() != VERSION))
+		{
+			throw new IOException(path + ": not a level of version " + VERSION);
+		}
+
+		Level	level	= new Level();
+
+		level.setSize(in.readInt(), in.readInt());
+		level.setGravity(in.readDouble(), in.readDouble());
+
+		int		spawns	= in.readInt();
+
+		for (int i = 0; i < spawns; i++)
+		{
+			level.addSpawnPoint(in.readInt(), in.readInt());
+		}
+
+		int		count	= in.readInt();
+
+		level.ensureCapacity(count);
+
+		for (int i = 0; i < count; i++)
+		{
+			byte	type	= in.readByte();
+
+			if ((type < 0) || (type >= TYPE_NAMES.length))
+			{
+				throw new IOException(path + ": unknown inactor type " + type);
+			}
+
+			level.add(type, in.readInt(), in.readInt());
+		}
+
+		return level;
+	}
+
+
+	/**
+	* Writes the level compiled.
+	*
+	* @param	path		path to the file
+	* @throws	IOException	if the file can't be written
+	*/
+	public void write(String path) throws IOException
+	{
+		DataOutputStream	out	= new DataOutputStream(new BufferedOutputStream(
+														 new FileOutputStream(path)));
+
+		try
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(size.width);
+			out.writeInt(size.height);
+			out.writeDouble(gravityX);
+			out.writeDouble(gravityY);
+
+			out.writeInt(spawnPoints.size());
+
+			for (int i = 0; i < spawnPoints.size(); i++)
+			{
+				Point	p	= (Point) spawnPoints.get(i);
+
+				out.writeInt(p.x);
+				out.writeInt(p.y);
+			}
+
+			out.writeInt(count);
+
+			for (int i = 0; i < count; i++)
+			{
+				out.writeByte(types[i]);
+				out.writeInt(xs[i]);
+				out.writeInt(ys[i]);
+			}
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+
+	/**
+	* Creates the inactors of the level. Each call creates new ones, so that
+	* every round starts with empty platforms.
+	*
+	* @return				list of <code>{@link Inactor}</code>s
+	*/
+	public List createInactors()
+	{
+		List	inactors	= new ArrayList(count);
+
+		for (int i = 0; i < count; i++)
+		{
+			Point	p	= new Point(xs[i], ys[i]);
+			Inactor	inactor;
+
+			switch (types[i])
+			{
+				case REFUEL:
+					inactor	= new RefuelPlatform(p);
+					break;
+
+				case BORDER:
+					inactor	= new Topborder(p);
+					break;
+
+				default:
+					inactor	= new Platform(p);
+					break;
+			}
+
+			// Computed now rather than at the first collision
+			inactor.getEdges();
+			inactors.add(inactor);
+		}
+
+		return inactors;
+	}
+
+
+	/**
+	* Adds an inactor.
+	*
+	* @param	type		<code>PLATFORM</code>, <code>REFUEL</code> or
+	*						<code>BORDER</code>
+	* @param	x			x position
+	* @param	y			y position
+	*/
+	public void add(byte type, int x, int y)
+	{
+		ensureCapacity(count + 1);
+
+		types[count]	= type;
+		xs[count]		= x;
+		ys[count]		= y;
+		count++;
+	}
+
+
+	/**
+	* Makes room for a number of inactors.
+	*
+	*/
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity <= types.length)
+		{
+			return;
+		}
+
+		capacity	= Math.max(capacity, types.length * 2);
+
+		byte[]	grownTypes	= new byte[capacity];
+		int[]	grownXs		= new int[capacity],
+				grownYs		= new int[capacity];
+
+		System.arraycopy(types, 0, grownTypes, 0, count);
+		System.arraycopy(xs, 0, grownXs, 0, count);
+		System.arraycopy(ys, 0, grownYs, 0, count);
+
+		types	= grownTypes;
+		xs		= grownXs;
+		ys		= grownYs;
+	}
+
+
+	/**
+	* Returns the path the level was read from.
+	*
+	* @return				the path, or <em>null</em> if the level wasn't 
+	*						read from a file
+	*/
+	public String getName()
+	{
+		return name;
+	}
+	
+	
+	/**
+	* Returns a checksum of everything in the level, which tells whether a
+	* level is the same as another, e.g. the one a game was recorded on.
+	*
+	* @return				the checksum
+	*/
+	public long getChecksum()
+	{
+		long	hash	= size.width;
+		
+		hash	= hash * 31 + size.height;
+		hash	= hash * 31 + Double.doubleToLongBits(gravityX);
+		hash	= hash * 31 + Double.doubleToLongBits(gravityY);
+		
+		for (int i = 0; i < spawnPoints.size(); i++)
+		{
+			Point	p	= (Point) spawnPoints.get(i);
+			
+			hash	= hash * 31 + p.x;
+			hash	= hash * 31 + p.y;
+		}
+		
+		for (int i = 0; i < count; i++)
+		{
+			hash	= hash * 31 + types[i];
+			hash	= hash * 31 + xs[i];
+			hash	= hash * 31 + ys[i];
+		}
+		
+		return hash;
+	}
+	
+	
+	/**
+	* Returns the number of inactors.
+	*
+	* @return				number of inactors
+	*/
+	public int getInactorCount()
+	{
+		return count;
+	}
+
+
+	/**
+	* Sets the size of the world.
+	*
+	* @param	width		world width
+	* @param	height		world height
+	*/
+	public void setSize(int width, int height)
+	{
+		size.setSize(width, height);
+	}
+
+
+	/**
+	* Returns the size of the world.
+	*
+	* @return				world size
+	*/
+	public Dimension getSize()
+	{
+		return new Dimension(size);
+	}
+
+
+	/**
+	* Sets the gravity.
+	*
+	* @param	x			added to the ships' horizontal motion each tick
+	* @param	y			added to the ships' vertical motion each tick
+	*/
+	public void setGravity(double x, double y)
+	{
+		gravityX	= x;
+		gravityY	= y;
+	}
+
+
+	public double getGravityX()
+	{
+		return gravityX;
+	}
+
+
+	public double getGravityY()
+	{
+		return gravityY;
+	}
+
+
+	/**
+	* Adds a point where a ship starts.
+	*
+	* @param	x			x position
+	* @param	y			y position
+	*/
+	public void addSpawnPoint(int x, int y)
+	{
+		spawnPoints.add(new Point(x, y));
+	}
+
+
+	/**
+	* Returns the points where the ships start, in the order of the players.
+	*
+	* @return				the spawn points
+	*/
+	public Point[] getSpawnPoints()
+	{
+		Point[]	points	= new Point[spawnPoints.size()];
+
+		for (int i = 0; i < points.length; i++)
+		{
+			points[i]	= new Point((Point) spawnPoints.get(i));
+		}
+
+		return points;
+	}
+} //end Level
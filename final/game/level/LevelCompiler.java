@@ -0,0 +1,38 @@
+package	game.level;
+
+import	java.io.File;
+import	java.io.IOException;
+
+
+/**
+* Compiles a level written as text into the binary format, which the game 
+* then reads instead. Run from the game directory whenever the level changes:
+*
+* <pre>
+*	java game.level.LevelCompiler [level [compiled]]
+* </pre>
+*
+* @author	Johan Liesén
+*/
+public class LevelCompiler
+{
+	/**
+	* Compiles a level.
+	*
+	* @param	args		path to the level as text and to the compiled level
+	*						(default the level the game is played on)
+	* @throws	IOException	if the level can't be read or written
+	*/
+	public static void main(String[] args) throws IOException
+	{
+		String	text		= (args.length > 0) ? args[0] : Level.DEFAULT_TEXT;
+		String	compiled	= (args.length > 1) ? args[1] : Level.DEFAULT_BINARY;
+		Level	level		= Level.read(text);
+		
+		level.write(compiled);
+		
+		System.out.println("Compiled " + text + " into " + compiled + " (" + 
+						   level.getInactorCount() + " inactors, " +
+						   new File(compiled).length() + " bytes)");
+	}
+} //end LevelCompiler
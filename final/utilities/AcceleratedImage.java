@@ -0,0 +1,198 @@
+package	utilities;
+
+import	java.awt.AlphaComposite;
+import	java.awt.Graphics2D;
+import	java.awt.GraphicsConfiguration;
+import	java.awt.image.BufferedImage;
+import	java.awt.image.VolatileImage;
+
+
+/**
+* An image drawn through a copy in video memory. Managed images are only 
+* cached in video memory once Java2D thinks it worthwhile, and may drop out
+* of it again; a <code>VolatileImage</code> stays there as long as the 
+* surface isn't lost, in which case it's restored from the original.
+*
+* <p>
+*   Meant for the few images drawn most often, e.g. the texture atlas 
+*   sheets. Where no <code>VolatileImage</code> can be created (e.g. 
+*   headless, or when drawing on another image) the original is drawn 
+*   instead.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class AcceleratedImage
+{
+	/** The original */
+	private BufferedImage	image;
+	
+	/** Copy in video memory, or <code>null</code> if not created yet */
+	private VolatileImage	copy;
+	
+	/** Set if the copy is out of date */
+	private boolean			changed;
+	
+	/** Configuration for which no copy could be created, if any */
+	private GraphicsConfiguration	unavailable;
+	
+	
+	
+	/**
+	* Creates an accelerated image.
+	*
+	* @param	image		the original
+	*/
+	public AcceleratedImage(BufferedImage image)
+	{
+		this.image	= image;
+	}
+	
+	
+	
+	/**
+	* Returns the original image.
+	*
+	* @return				the image
+	*/
+	public BufferedImage getImage()
+	{
+		return image;
+	}
+	
+	
+	/**
+	* Tells that the original has been drawn on, so that the copy is updated
+	* before it's drawn next time.
+	*
+	*/
+	public void contentsChanged()
+	{
+		changed	= true;
+	}
+	
+	
+	/**
+	* Returns whether the image is drawn from video memory.
+	*
+	* @return				<code>true</code> if there is a copy in video 
+	*						memory
+	*/
+	public boolean isAccelerated()
+	{
+		return (copy != null) && copy.getCapabilities().isAccelerated();
+	}
+	
+	
+	/**
+	* Draws the image.
+	*
+	* @param	g			graphics context
+	* @param	x			x position
+	* @param	y			y position
+	*/
+	public void draw(Graphics2D g, int x, int y)
+	{
+		draw(g, x, y, x + image.getWidth(), y + image.getHeight(),
+				0, 0, image.getWidth(), image.getHeight());
+	}
+	
+	
+	/**
+	* Draws an area of the image, scaled (or mirrored) as 
+	* <code>Graphics.drawImage</code> with the same parameters does.
+	*
+	* @param	g			graphics context
+	* @param	dx1			x coordinate of the first destination corner
+	* @param	dy1			y coordinate of the first destination corner
+	* @param	dx2			x coordinate of the second destination corner
+	* @param	dy2			y coordinate of the second destination corner
+	* @param	sx1			x coordinate of the first source corner
+	* @param	sy1			y coordinate of the first source corner
+	* @param	sx2			x coordinate of the second source corner
+	* @param	sy2			y coordinate of the second source corner
+	*/
+	public void draw(Graphics2D g, int dx1, int dy1, int dx2, int dy2,
+								   int sx1, int sy1, int sx2, int sy2)
+	{
+		VolatileImage	volatileImage	= validate(g.getDeviceConfiguration());
+		
+		if (volatileImage == null)
+		{
+			g.drawImage(image, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null);
+			return;
+		}
+		
+		g.drawImage(volatileImage, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null);
+		
+		// Lost while drawing; draw the original this time
+		if (volatileImage.contentsLost())
+		{
+			changed	= true;
+			g.drawImage(image, dx1, dy1, dx2, dy2, sx1, sy1, sx2, sy2, null);
+		}
+	}
+	
+	
+	/**
+	* Makes sure the copy exists and is up to date.
+	*
+	* @param	gc			configuration of the surface drawn on
+	* @return				the copy, or <code>null</code> if there is none
+	*/
+	private synchronized VolatileImage validate(GraphicsConfiguration gc)
+	{
+		if ((gc == null) || (gc == unavailable))
+		{
+			return null;
+		}
+		
+		int	status	= (copy == null) ? VolatileImage.IMAGE_INCOMPATIBLE 
+									 : copy.validate(gc);
+		
+		if (status == VolatileImage.IMAGE_INCOMPATIBLE)
+		{
+			if (copy != null)
+			{
+				copy.flush();
+			}
+			
+			try
+			{
+				copy	= gc.createCompatibleVolatileImage(image.getWidth(), 
+								image.getHeight(), image.getTransparency());
+			}
+			catch (RuntimeException e)
+			{
+				// E.g. offscreen surfaces which can't have volatile images
+				copy	= null;
+			}
+			
+			if (copy == null)
+			{
+				unavailable	= gc;
+				return null;
+			}
+			
+			changed	= true;
+		}
+		else if (status == VolatileImage.IMAGE_RESTORED)
+		{
+			changed	= true;
+		}
+		
+		if (changed)
+		{
+			Graphics2D	g	= copy.createGraphics();
+			
+			// Replace the pixels, transparent ones too
+			g.setComposite(AlphaComposite.Src);
+			g.drawImage(image, 0, 0, null);
+			g.dispose();
+			
+			changed	= false;
+		}
+		
+		return copy;
+	}
+} //end AcceleratedImage
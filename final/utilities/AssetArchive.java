@@ -0,0 +1,304 @@
+package	utilities;
+
+import	java.awt.image.BufferedImage;
+import	java.io.DataInputStream;
+import	java.io.IOException;
+import	java.io.InputStream;
+import	java.io.RandomAccessFile;
+import	java.nio.ByteBuffer;
+import	java.nio.IntBuffer;
+import	java.nio.MappedByteBuffer;
+import	java.nio.channels.FileChannel;
+import	java.util.ArrayList;
+import	java.util.Collections;
+import	java.util.HashMap;
+import	java.util.List;
+import	java.util.Map;
+
+
+/**
+* An archive of all assets in one file, written by 
+* <code>{@link AssetPacker}</code> and read through a memory mapping.
+*
+* <p>
+*   The file starts with a header: the magic number, the version and the 
+*   number of entries, followed by each entry's group, name, type, width, 
+*   height, transparency, offset and length. The data follows, starting at 
+*   the first multiple of four after the header; offsets are relative to 
+*   the start of the data. Images are stored decoded as ARGB ints, sounds, music
+*   and streams as their original files. Everything is big-endian.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class AssetArchive
+{
+	/** "ITXP" */
+	public static final int		MAGIC	= 0x49545850;
+	
+	/** Version of the format. Version 2 added streams; version 1 archives 
+	*   can still be read */
+	public static final int		VERSION	= 2;
+	
+	/** Entry types */
+	public static final byte	IMAGE	= 0,
+								SOUND	= 1,
+								MUSIC	= 2,
+								STREAM	= 3;
+	
+	/** The mapped file */
+	private MappedByteBuffer	data;
+	
+	/** Start of the data */
+	private int					base;
+	
+	/** Entries in the order they were packed */
+	private List				entries	= new ArrayList();
+	
+	/** Entries by name */
+	private Map					names	= new HashMap();
+	
+	
+	
+	/**
+	* Maps an archive and reads its header.
+	*
+	* @param	path		path to the archive
+	* @throws	IOException	if the file can't be read or isn't an archive
+	*/
+	public AssetArchive(String path) throws IOException
+	{
+		RandomAccessFile	file	= new RandomAccessFile(path, "r");
+		
+		try
+		{
+			// The mapping stays valid after the file is closed
+			data	= file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+		}
+		finally
+		{
+			file.close();
+		}
+		
+		ByteBuffer		header	= data.duplicate();
+		DataInputStream	in		= new DataInputStream(new ByteBufferInputStream(header));
+		
+		int	magic	= in.readInt();
+		int	version	= in.readInt();
+		
+		if ((magic != MAGIC) || (version < 1) || (version > VERSION))
+		{
+			throw new IOException(path + ": not an asset archive of version " + VERSION);
+		}
+		
+		int	count	= in.readInt();
+		
+		for (int i = 0; i < count; i++)
+		{
+			Entry	entry	= new Entry(in.readUTF(), in.readUTF(), in.readByte(),
+										in.readInt(), in.readInt(), in.readByte(),
+										in.readInt(), in.readInt());
+			
+			entries.add(entry);
+			names.put(entry.name, entry);
+		}
+		
+		base	= (header.position() + 3) & ~3;
+	}
+	
+	
+	
+	/**
+	* Returns the entries.
+	*
+	* @return				list of <code>{@link Entry}</code>s
+	*/
+	public List getEntries()
+	{
+		return Collections.unmodifiableList(entries);
+	}
+	
+	
+	/**
+	* Returns an entry by name.
+	*
+	* @param	name		asset name
+	* @return				the entry, or <em>null</em> if not in the archive
+	*/
+	public Entry getEntry(String name)
+	{
+		return (Entry) names.get(name);
+	}
+	
+	
+	/**
+	* Returns the data of an entry, without copying it.
+	*
+	* @param	entry		the entry
+	* @return				read-only view of the mapped data
+	*/
+	public ByteBuffer getData(Entry entry)
+	{
+		// Duplicates have their own position, so this is safe to call from 
+		// several threads
+		ByteBuffer	buffer	= data.duplicate();
+		
+		buffer.position(base + entry.offset);
+		buffer.limit(base + entry.offset + entry.length);
+		
+		return buffer.slice();
+	}
+	
+	
+	/**
+	* Returns a stream reading the data of an entry.
+	*
+	* @param	entry		the entry
+	* @return				the stream
+	*/
+	public InputStream openStream(Entry entry)
+	{
+		return new ByteBufferInputStream(getData(entry));
+	}
+	
+	
+	/**
+	* Copies the pixels of an image entry into a new image compatible with the
+	* screen.
+	*
+	* @param	entry		the entry
+	* @return				the image
+	*/
+	public BufferedImage readImage(Entry entry)
+	{
+		BufferedImage	image	= ImageHelper.createCompatibleImage(entry.width, 
+										entry.height, entry.transparency);
+		int[]			pixels	= new int[entry.width * entry.height];
+		IntBuffer		src		= getData(entry).asIntBuffer();
+		
+		src.get(pixels);
+		
+		// Copying straight into the raster keeps the image managed (i.e. it
+		// may be cached in video memory); the other formats need converting
+		if ((image.getType() == BufferedImage.TYPE_INT_ARGB) || 
+			(image.getType() == BufferedImage.TYPE_INT_RGB))
+		{
+			image.getRaster().setDataElements(0, 0, entry.width, entry.height, pixels);
+		}
+		else
+		{
+			image.setRGB(0, 0, entry.width, entry.height, pixels, 0, entry.width);
+		}
+		
+		return image;
+	}
+	
+	
+	
+	/**
+	* An asset in the archive.
+	*
+	*/
+	public static class Entry
+	{
+		/** Group and name of the asset, as in the manifest */
+		public final String	group, name;
+		
+		/** <code>IMAGE</code>, <code>SOUND</code> or <code>MUSIC</code> */
+		public final byte	type;
+		
+		/** Size of an image, zero for others */
+		public final int	width, height;
+		
+		/** Transparency of an image, one of the <code>Transparency</code> 
+		*   constants */
+		public final int	transparency;
+		
+		/** Where the data is, relative to the start of the data */
+		public final int	offset, length;
+		
+		
+		public Entry(String group, String name, byte type, int width, int height,
+					 int transparency, int offset, int length)
+		{
+			this.group			= group;
+			this.name			= name;
+			this.type			= type;
+			this.width			= width;
+			this.height			= height;
+			this.transparency	= transparency;
+			this.offset			= offset;
+			this.length			= length;
+		}
+	}
+	
+	
+	/**
+	* Reads from a byte buffer.
+	*
+	*/
+	private static class ByteBufferInputStream extends InputStream
+	{
+		private ByteBuffer	buffer;
+		
+		
+		ByteBufferInputStream(ByteBuffer buffer)
+		{
+			this.buffer	= buffer;
+		}
+		
+		
+		public int read()
+		{
+			return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+		}
+		
+		
+		public int read(byte[] b, int off, int len)
+		{
+			if (!buffer.hasRemaining())
+			{
+				return (len == 0) ? 0 : -1;
+			}
+			
+			len	= Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			
+			return len;
+		}
+		
+		
+		public long skip(long n)
+		{
+			int	skipped	= (int) Math.max(0, Math.min(n, buffer.remaining()));
+			
+			buffer.position(buffer.position() + skipped);
+			
+			return skipped;
+		}
+		
+		
+		public int available()
+		{
+			return buffer.remaining();
+		}
+		
+		
+		public boolean markSupported()
+		{
+			return true;
+		}
+		
+		
+		public synchronized void mark(int readlimit)
+		{
+			buffer.mark();
+		}
+		
+		
+		public synchronized void reset()
+		{
+			buffer.reset();
+		}
+	}
+} //end AssetArchive
@@ -0,0 +1,232 @@
+package	utilities;
+
+import	java.util.Iterator;
+import	java.util.LinkedHashMap;
+import	java.util.Map;
+
+
+/**
+* A cache of named assets with a budget in bytes. When the assets take up 
+* more than the budget, the least recently used are evicted. The size of 
+* each asset is given when it's put in the cache.
+*
+* <p>
+*   Subclasses may override <code>{@link #evicted(String, Object)}</code> to
+*   release evicted assets, e.g. close audio clips.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class AssetCache
+{
+	/** Entries, least recently used first */
+	private LinkedHashMap	entries	= new LinkedHashMap(16, 0.75f, true);
+	
+	/** Budget in bytes */
+	private long			budget;
+	
+	/** Bytes taken up by the assets */
+	private long			used;
+	
+	/** Number of assets evicted */
+	private int				evictions;
+	
+	
+	
+	/**
+	* Creates an empty cache.
+	*
+	* @param	budget		budget in bytes
+	*/
+	public AssetCache(long budget)
+	{
+		this.budget	= budget;
+	}
+	
+	
+	
+	/**
+	* Returns an asset and marks it as the most recently used.
+	*
+	* @param	name		name of the asset
+	* @return				the asset, or <em>null</em> if not cached
+	*/
+	public synchronized Object get(String name)
+	{
+		Entry	entry	= (Entry) entries.get(name);
+		
+		return (entry != null) ? entry.value : null;
+	}
+	
+	
+	/**
+	* Returns whether an asset is cached, without marking it as used.
+	*
+	* @param	name		name of the asset
+	* @return				<code>true</code> if cached
+	*/
+	public synchronized boolean contains(String name)
+	{
+		return entries.containsKey(name);
+	}
+	
+	
+	/**
+	* Puts an asset in the cache, replacing any asset with the same name, and
+	* evicts the least recently used assets if over budget. The asset just 
+	* put is never evicted by this call.
+	*
+	* @param	name		name of the asset
+	* @param	value		the asset
+	* @param	bytes		size of the asset in bytes
+	*/
+	public synchronized void put(String name, Object value, long bytes)
+	{
+		Entry	old		= (Entry) entries.put(name, new Entry(value, bytes));
+		
+		used	+= bytes;
+		
+		if (old != null)
+		{
+			used	-= old.bytes;
+			
+			if (old.value != value)
+			{
+				evicted(name, old.value);
+			}
+		}
+		
+		trim(name);
+	}
+	
+	
+	/**
+	* Sets the budget, evicting assets if over it.
+	*
+	* @param	budget		budget in bytes
+	*/
+	public synchronized void setBudget(long budget)
+	{
+		this.budget	= budget;
+		
+		trim(null);
+	}
+	
+	
+	/**
+	* Returns the budget.
+	*
+	* @return				budget in bytes
+	*/
+	public synchronized long getBudget()
+	{
+		return budget;
+	}
+	
+	
+	/**
+	* Returns how much the cached assets take up.
+	*
+	* @return				size in bytes
+	*/
+	public synchronized long getMemoryUsed()
+	{
+		return used;
+	}
+	
+	
+	/**
+	* Returns the number of cached assets.
+	*
+	* @return				asset count
+	*/
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+	
+	
+	/**
+	* Returns the number of assets evicted so far.
+	*
+	* @return				eviction count
+	*/
+	public synchronized int getEvictions()
+	{
+		return evictions;
+	}
+	
+	
+	/**
+	* Evicts all assets.
+	*
+	*/
+	public synchronized void clear()
+	{
+		Iterator	it	= entries.entrySet().iterator();
+		
+		while (it.hasNext())
+		{
+			Map.Entry	e	= (Map.Entry) it.next();
+			
+			it.remove();
+			evicted((String) e.getKey(), ((Entry) e.getValue()).value);
+		}
+		
+		used	= 0;
+	}
+	
+	
+	/**
+	* Called when an asset has been evicted. Does nothing by default.
+	*
+	* @param	name		name of the asset
+	* @param	value		the asset
+	*/
+	protected void evicted(String name, Object value)
+	{
+	}
+	
+	
+	/**
+	* Evicts the least recently used assets until within budget.
+	*
+	* @param	keep		name of an asset not to evict, or <em>null</em>
+	*/
+	private void trim(String keep)
+	{
+		Iterator	it	= entries.entrySet().iterator();
+		
+		while ((used > budget) && it.hasNext())
+		{
+			Map.Entry	e		= (Map.Entry) it.next();
+			Entry		entry	= (Entry) e.getValue();
+			
+			if (e.getKey().equals(keep))	continue;
+			
+			it.remove();
+			used	-= entry.bytes;
+			evictions++;
+			
+			evicted((String) e.getKey(), entry.value);
+		}
+	}
+	
+	
+	
+	/**
+	* An asset and its size.
+	*
+	*/
+	private static class Entry
+	{
+		Object	value;
+		long	bytes;
+		
+		Entry(Object value, long bytes)
+		{
+			this.value	= value;
+			this.bytes	= bytes;
+		}
+	}
+} //end AssetCache
@@ -0,0 +1,160 @@
+package	utilities;
+
+import	java.awt.image.BufferedImage;
+import	java.io.BufferedOutputStream;
+import	java.io.ByteArrayOutputStream;
+import	java.io.DataOutputStream;
+import	java.io.File;
+import	java.io.FileInputStream;
+import	java.io.FileOutputStream;
+import	java.io.IOException;
+import	java.io.InputStream;
+import	java.util.List;
+import	javax.imageio.ImageIO;
+
+
+/**
+* Packs the assets listed in the manifest into one 
+* <code>{@link AssetArchive}</code>, which the 
+* <code>{@link DataPreLoader}</code> then reads instead of the loose files.
+* Run from the game directory whenever the resources change:
+*
+* <pre>
+*	java utilities.AssetPacker [manifest [archive]]
+* </pre>
+*
+* @author	Johan Liesén
+*/
+public class AssetPacker
+{
+	/**
+	* Packs the assets of a manifest.
+	*
+	* @param	manifest	path to the manifest
+	* @param	archive		path to the archive to write
+	* @throws	IOException	if an asset can't be read or the archive written
+	*/
+	public static void pack(String manifest, String archive) throws IOException
+	{
+		List					assets	= DataPreLoader.readManifest(manifest);
+		ByteArrayOutputStream	header	= new ByteArrayOutputStream();
+		ByteArrayOutputStream	data	= new ByteArrayOutputStream();
+		DataOutputStream		h		= new DataOutputStream(header);
+		DataOutputStream		d		= new DataOutputStream(data);
+		
+		h.writeInt(AssetArchive.MAGIC);
+		h.writeInt(AssetArchive.VERSION);
+		h.writeInt(assets.size());
+		
+		for (int i = 0; i < assets.size(); i++)
+		{
+			// Group, type, path and name
+			String[]	asset	= (String[]) assets.get(i);
+			int			offset	= d.size();
+			int			width	= 0,
+						height	= 0,
+						transparency	= 0;
+			byte		type;
+			
+			if (asset[1].equals("Image"))
+			{
+				BufferedImage	image	= ImageIO.read(new File(asset[2]));
+				
+				if (image == null)
+				{
+					throw new IOException(asset[2] + ": unknown image format");
+				}
+				
+				type			= AssetArchive.IMAGE;
+				width			= image.getWidth();
+				height			= image.getHeight();
+				transparency	= ImageHelper.getTransparency(image);
+				
+				int[]	pixels	= image.getRGB(0, 0, width, height, null, 0, width);
+				
+				for (int j = 0; j < pixels.length; j++)
+				{
+					d.writeInt(pixels[j]);
+				}
+			}
+			else
+			{
+				type	= asset[1].equals("Sound") ? AssetArchive.SOUND : 
+						  asset[1].equals("Music") ? AssetArchive.MUSIC : 
+						  							 AssetArchive.STREAM;
+				
+				copy(asset[2], d);
+			}
+			
+			// Keep the entries aligned for reading ints
+			while ((d.size() & 3) != 0)
+			{
+				d.writeByte(0);
+			}
+			
+			h.writeUTF(asset[0]);
+			h.writeUTF(asset[3]);
+			h.writeByte(type);
+			h.writeInt(width);
+			h.writeInt(height);
+			h.writeByte(transparency);
+			h.writeInt(offset);
+			h.writeInt(d.size() - offset);
+		}
+		
+		while ((h.size() & 3) != 0)
+		{
+			h.writeByte(0);
+		}
+		
+		DataOutputStream	out	= new DataOutputStream(new BufferedOutputStream(
+												new FileOutputStream(archive)));
+		
+		try
+		{
+			header.writeTo(out);
+			data.writeTo(out);
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+	
+	
+	/**
+	* Copies a file to a stream.
+	*
+	* @param	path		path to the file
+	* @param	out			stream to write to
+	*/
+	private static void copy(String path, DataOutputStream out) throws IOException
+	{
+		InputStream	in		= new FileInputStream(path);
+		byte[]		buffer	= new byte[8192];
+		
+		try
+		{
+			for (int n; (n = in.read(buffer)) > 0; )
+			{
+				out.write(buffer, 0, n);
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+	}
+	
+	
+	public static void main(String[] args) throws IOException
+	{
+		String	manifest	= (args.length > 0) ? args[0] : DataPreLoader.MANIFEST;
+		String	archive		= (args.length > 1) ? args[1] : DataPreLoader.ARCHIVE;
+		
+		pack(manifest, archive);
+		
+		System.out.println("Packed " + manifest + " into " + archive + " (" + 
+						   new File(archive).length() + " bytes)");
+	}
+} //end AssetPacker
@@ -1,318 +1,1091 @@
-package	utilities;
-
-import	java.awt.Image;
-import	java.awt.Toolkit;
-import	java.io.File;
-import	java.io.FileNotFoundException;
-import	java.io.IOException;
-import	java.util.HashMap;
-import	java.util.Map;
-import	java.util.Observable;
-import	javax.sound.midi.Sequence;
-import	javax.sound.midi.InvalidMidiDataException;
-import	javax.sound.midi.MidiSystem;
-import	javax.sound.sampled.AudioFileFormat;
-import	javax.sound.sampled.AudioFormat;
-import	javax.sound.sampled.AudioInputStream;
-import	javax.sound.sampled.AudioSystem;
-import	javax.sound.sampled.Clip;
-import	javax.sound.sampled.DataLine;
-import	javax.sound.sampled.LineUnavailableException;
-import	javax.sound.sampled.UnsupportedAudioFileException;
-import 	javax.swing.ImageIcon;
-
-
-/**
-* DataPreLoader
-* Caches files that are to be used later on.
-*
-* @author	Jimmy Stridh
-* @author	Johan Liesn
-* @author	Karl Olofsson
-* @version	5/16/2004
-*/
-public class DataPreLoader extends Observable
-{
-	private Map						imageCache;
-	private Map 					sequenceCache;
-	private Map 					clipCache;	
-	private String 					lastLoadedFileType;
-	private String 					lastLoadedFileName;
-	private int						totalNrofFiles;
-	private String					currentDir;
-	private static DataPreLoader	singleton = new DataPreLoader();
-	
-	
-	
-	/**
-	*
-	*
-	*/
-	private DataPreLoader()
-	{
-		imageCache		= new HashMap();
-		sequenceCache	= new HashMap();
-		clipCache		= new HashMap();
-		
-		setCurrentDir("");
-	}
-	
-	
-
-	/**
-	* Get the singleton instance of the cache.
-	*
-	* @return				instance of the DataPreLoader
-	*/
-	public static DataPreLoader getInstance()
-	{
-		return singleton;
-	}
-	
-	/**
-	* Returns the image specified as an Image object.
-	*
-	* @param	name 		name of the image resource
-	* @return		The cached image, or null if it does not exist
-	*/
-	public Image getImage(String name)
-	{
-		Object	image	= imageCache.get(name);
-		
-		return (image != null) ? (Image) image : null;
-	}
-	
-	
-	/**
-	* Change the current working directory
-	* @param	path	The absolute path to the working dir
-	*/
-	public void setCurrentDir(String path)
-	{
-		// Check for a trailing slash or backslash
-		if(path.length() != 0)
-			if(path.charAt(path.length() - 1) != '\\' && 
-										path.charAt(path.length() - 1) != '/')
-				// Not present, add one
-				path += "/";
-				
-		currentDir = new String(path);
-	}
-	
-	
-	/**
-	* Returns the midi sequence specified as a Sequence object.
-	*
-	* @param name The name of the Sequence resource
-	* @return		The cached sequence, or null if it does not exist
-	*/	
-	public Sequence getSequence(String name){
-		return (Sequence)sequenceCache.get(name);
-	}
-
-	/**
-	 * Returns the audio clip specified as a Clip object
-	 * @param name The name of the Clip resource
-	* @return		The cached Clip, or null if it does not exist
-	 */	
-	public Clip getClip(String name){
-		return (Clip)clipCache.get(name);
-	}
-	
-	/**
-	* Checks whether a file exists or not
-	*
-	* @param	path		path to file
-	*/
-	private boolean fileExists(String path)
-	{
-		File f = new File(path);
-		return f.exists();
-	}
-		
-	
-	/**
-	 * Load an image file into the cache.
-	 * @param path The path to the image.
-	 * @param name The name to put the image under in the cache
-	 */
-	public void loadImage(String path, String name) throws FileNotFoundException
-	{
-		setChanged();
-		notifyObservers(new String[] { "Image", name });		
-		
-		path	= currentDir + path;
-		
-		//check if file exists
-		if(!fileExists(path))
-			throw new FileNotFoundException(path);
-		
-		Image image = Toolkit.getDefaultToolkit().getImage(path);
-
-		//Make sure the whole image is loaded.
-		image = new ImageIcon(image).getImage();
-		
-		imageCache.put(name, image);
-	}
-	
-	
-	/**
-	* Load a midi sequence into the cache.
-	*
-	* @param	path		path to the midi sequence.
-	* @param	name		name to put the sequence under in the cache
-	*/
-	private void loadSequence(String path, String name) 
-													throws FileNotFoundException
-	{
-		setChanged();
-		notifyObservers(new String[] { "Music", name });
-		
-		path = currentDir + path;
-		
-		// check if file exists
-		if(!fileExists(path))
-			throw new FileNotFoundException(path);
-		
-		// Create sequence									   
-		Sequence	sequence	= null;
-		
-		try
-		{
-			sequence	= MidiSystem.getSequence(new File(path));
-			
-			sequenceCache.put(name, sequence);
-		}
-		catch (IOException e)
-		{
-			e.printStackTrace();
-		}
-		catch (InvalidMidiDataException e)
-		{
-			e.printStackTrace();
-		}
-	}
-	
-
-	/**
-	* Load an audio clip into the cache.
-	*
-	* @param path The path to the audio clip.
-	* @param name The name to put the clip under in the cache
-	*/
-	private void loadClip(String path, String name) throws FileNotFoundException
-	{
-		setChanged();
-		notifyObservers(new String[] { "Sound", name });
-		
-		path = currentDir + path;
-	
-		//check if file exists
-		if(!fileExists(path))
-			throw new FileNotFoundException(path);
-
-		// Create clip
-		Clip	soundclip	= null;
-		File	f			= new File(path);
-		
-		try
-		{
-			// Gather information about the (soon to be) clip
-			AudioFileFormat		format	= AudioSystem.getAudioFileFormat(f);
-			AudioInputStream	stream	= AudioSystem.getAudioInputStream(f);
-			DataLine.Info		info	= new DataLine.Info(Clip.class, 
-															stream.getFormat(),
-															(int) (stream.getFrameLength() * format.getFormat().getFrameSize()));
-			
-			// Get line from the Line.Info object and open it
-			soundclip	= (Clip) AudioSystem.getLine(info);
-			soundclip.open(stream);
-			
-			// Add to the cache
-			clipCache.put(name, soundclip);
-		}
-		// Thrown if the file doesn't point to a valid audio file data
-		catch (UnsupportedAudioFileException e)
-		{
-			System.err.println(e);
-		}
-		catch (IOException e)
-		{
-			System.err.println(e);
-		}
-		// Thrown if a matching line is not available
-		catch (LineUnavailableException e)		
-		{
-			System.err.println(e);
-		}
-	}
-
-
-	/**
-	* Load files.
-	*
-	*/
-	public void initiateLoad()
-	{
-		totalNrofFiles = 33;
-		
-		setChanged();
-		notifyObservers(new Integer(totalNrofFiles));
-		
-		try
-		{
-        	// Load images
-			setCurrentDir("resources/images/");
-			loadImage("splash_background.jpg", "splash_background");
-			loadImage("passenger_walk_1.gif", "manWalk1");
-			loadImage("passenger_walk_2.gif", "manWalk2");
-			loadImage("passenger_walk_3.gif", "manWalk3");
-			loadImage("passenger_walk_4.gif", "manWalk4");
-			loadImage("passenger_walk_5.gif", "manWalk5");
-			loadImage("passenger_walk_6.gif", "manWalk6");
-			loadImage("menu_background.jpg", "menu_background");
-			loadImage("ship.gif", "ship");
-			loadImage("ship_thrust.gif", "ship_thrust");
-			loadImage("platform.gif", "platform");
-			loadImage("platform_base.gif", "platform_base");
-			loadImage("ship_player_one.gif", "shipPlayer1");
-			loadImage("ship_thrust_player_one.gif", "ship_thrustPlayer1");
-			loadImage("ship_player_two.gif", "shipPlayer2");
-			loadImage("ship_thrust_player_two.gif", "ship_thrustPlayer2");
-                        
-                        loadImage("platform.gif", "platform");
-                        loadImage("topborder.gif", "topborder");
-
-			loadImage("refuel_platform.gif", "refuel_platform");
-			loadImage("refuel_base.gif", "refuel_base");			
-			loadImage("menu_play_off.jpg", "menu_play_off");
-			loadImage("menu_play_on.jpg", "menu_play_on");
-			loadImage("menu_instructions_off.jpg", "menu_instructions_off");
-			loadImage("menu_instructions_on.jpg", "menu_instructions_on");				
-			loadImage("menu_credits_off.jpg", "menu_credits_off");		
-			loadImage("menu_credits_on.jpg", "menu_credits_on");
-			loadImage("menu_exit_on.jpg", "menu_exit_on");
-			loadImage("menu_exit_off.jpg", "menu_exit_off");
-			loadImage("play_background.jpg", "play_background");
-			loadImage("shipicon.gif", "shipIcon");
-			
-			// Load sounds
-			setCurrentDir("resources/sound/");
-			loadClip("menuaccept.wav", "menuAccept");
-			loadClip("menubutton.wav", "menuButton");
-			loadClip("shieldbump.wav", "shieldBump");
-			loadClip("taxi1.wav", "Taxi1");
-			loadClip("taxi2.wav", "Taxi2");			
-			loadClip("taxi3.wav", "Taxi3");			
-        	
-        	// Load Music
-			setCurrentDir("resources/music/");
-			loadSequence("menu.mid", "music_menu");
-			loadSequence("in-game.mid", "music_game1");
-		}
-		catch(FileNotFoundException e)
-		{
-			e.printStackTrace();
-		}
-	}
-} //end DataPreLoader
+package	utilities;
+
+import	java.awt.Image;
+import	java.awt.Toolkit;
+import	java.awt.image.BufferedImage;
+import	java.awt.image.DataBuffer;
+import	java.io.BufferedInputStream;
+import	java.io.BufferedReader;
+import	java.io.File;
+import	java.io.FileInputStream;
+import	java.io.FileNotFoundException;
+import	java.io.FileReader;
+import	java.io.IOException;
+import	java.io.InputStream;
+import	java.util.ArrayList;
+import	java.util.HashMap;
+import	java.util.Iterator;
+import	java.util.List;
+import	java.util.Map;
+import	java.util.Observable;
+import	java.util.concurrent.Callable;
+import	java.util.concurrent.ExecutorService;
+import	java.util.concurrent.Executors;
+import	java.util.concurrent.atomic.AtomicInteger;
+import	javax.imageio.ImageIO;
+import	javax.imageio.ImageReader;
+import	javax.imageio.stream.ImageInputStream;
+import	javax.sound.midi.Sequence;
+import	javax.sound.midi.InvalidMidiDataException;
+import	javax.sound.midi.MidiSystem;
+import	javax.sound.sampled.UnsupportedAudioFileException;
+import 	javax.swing.ImageIcon;
+
+
+/**
+* DataPreLoader
+* Caches files that are to be used later on.
+*
+* <p>
+*   The files are listed in a manifest, <code>resources/assets.txt</code>, 
+*   in groups such as "menu", "play" and "level-1". A group is loaded as a 
+*   whole when one of its files is first asked for, or when 
+*   <code>{@link #loadGroup(String)}</code> is called, e.g. by the screen 
+*   manager before the screen with the same name is shown. Images, sounds and
+*   sequences are kept in caches with a budget in bytes each; when over 
+*   budget the least recently used files are dropped, and loaded again (with
+*   the rest of their group) if asked for later.
+* </p>
+*
+* <p>
+*   If there is an archive packed by <code>{@link AssetPacker}</code> which is
+*   newer than the manifest, the groups and files are read from it instead,
+*   through a memory mapping.
+* </p>
+*
+* <p>
+*   The files are loaded in parallel by a pool of threads. Observers are
+*   first told the number of files (an <code>Integer</code>) and then, as 
+*   each file is done, its type and name (a <code>String[2]</code>). The 
+*   notifications come from the loading threads but never two at a time.
+* </p>
+*
+* @author	Jimmy Stridh
+* @author	Johan Liesén
+* @author	Karl Olofsson
+* @version	5/16/2004
+*/
+public class DataPreLoader extends Observable
+{
+	/** Path of the manifest */
+	public static final String		MANIFEST	= "resources/assets.txt";
+	
+	/** Path of the packed archive */
+	public static final String		ARCHIVE		= "resources/assets.pak";
+	
+	/** The packed archive, or <em>null</em> if reading loose files */
+	private AssetArchive			archive;
+	
+	private AssetCache				imageCache;
+	private AssetCache				sequenceCache;
+	private AssetCache				soundCache;	
+	
+	/** Manifest entries by group name; each a list of <code>LoadTask</code>s */
+	private Map						groups		= new HashMap();
+	
+	/** Manifest entries by asset name */
+	private Map						assets		= new HashMap();
+	
+	/** Sounds played while read, by name; each a path or an archive entry */
+	private Map						streams		= new HashMap();
+	
+	/** Names of the archive entry types */
+	private static final String[]	TYPES		= { "Image", "Sound", "Music", "Stream" };
+	
+	/** Held while loading a group, so that a group is only loaded once */
+	private final Object			groupLock	= new Object();
+	private String 					lastLoadedFileType;
+	private String 					lastLoadedFileName;
+	private int						totalNrofFiles;
+	private AtomicInteger			loadedNrofFiles	= new AtomicInteger();
+	private String					currentDir;
+	private boolean					headless;
+	private static DataPreLoader	singleton = new DataPreLoader();
+	
+	
+	
+	/**
+	*
+	*
+	*/
+	private DataPreLoader()
+	{
+		imageCache		= new AssetCache(16 * 1024 * 1024);
+		sequenceCache	= new AssetCache(1024 * 1024);
+		
+		soundCache		= new AssetCache(8 * 1024 * 1024);
+		
+		setCurrentDir("");
+	}
+	
+	
+
+	/**
+	* Get the singleton instance of the cache.
+	*
+	* @return				instance of the DataPreLoader
+	*/
+	public static DataPreLoader getInstance()
+	{
+		return singleton;
+	}
+	
+	/**
+	* Returns the image specified as an Image object.
+	*
+	* @param	name 		name of the image resource
+	* @return		The cached image, or null if it does not exist
+	*/
+	public Image getImage(String name)
+	{
+		Object	image	= imageCache.get(name);
+		
+		if (image == null && loadGroupOf(name))
+		{
+			image	= imageCache.get(name);
+		}
+		
+		return (Image) image;
+	}
+	
+	
+	/**
+	* Turns headless mode on or off. A headless loader doesn't decode any 
+	* images but caches blank stand-ins of the right size, which is all sprites
+	* need to collide, and skips sounds and music altogether. Must be set 
+	* before loading.
+	*
+	* @param	headless	<code>true</code> to load headless
+	*/
+	public void setHeadless(boolean headless)
+	{
+		this.headless = headless;
+	}
+	
+	
+	/**
+	* Returns whether the loader is headless.
+	*
+	* @return		<code>true</code> if headless
+	*/
+	public boolean isHeadless()
+	{
+		return headless;
+	}
+	
+	
+	/**
+	* Change the current working directory
+	* @param	path	The absolute path to the working dir
+	*/
+	public void setCurrentDir(String path)
+	{
+		// Check for a trailing slash or backslash
+		if(path.length() != 0)
+			if(path.charAt(path.length() - 1) != '\\' && 
+										path.charAt(path.length() - 1) != '/')
+				// Not present, add one
+				path += "/";
+				
+		currentDir = new String(path);
+	}
+	
+	
+	/**
+	* Returns the midi sequence specified as a Sequence object.
+	*
+	* @param name The name of the Sequence resource
+	* @return		The cached sequence, or null if it does not exist
+	*/	
+	public Sequence getSequence(String name){
+		Object	sequence	= sequenceCache.get(name);
+		
+		if (sequence == null && loadGroupOf(name))
+			sequence	= sequenceCache.get(name);
+		
+		return (Sequence) sequence;
+	}
+
+	/**
+	 * Returns the sound specified, decoded for mixing
+	 * @param name The name of the sound resource
+	* @return		The cached sound, or null if it does not exist
+	 */	
+	public SoundSample getSound(String name){
+		Object	sound	= soundCache.get(name);
+		
+		if (sound == null && loadGroupOf(name))
+			sound	= soundCache.get(name);
+		
+		return (SoundSample) sound;
+	}
+	
+	
+	/**
+	* Opens a sound which is to be played while it's read rather than 
+	* loaded into the cache, i.e. one listed as "stream" in the manifest.
+	*
+	* @param	name		name of the sound
+	* @return				the sound file, to be closed by the caller, or 
+	*						<code>null</code> if there is no such stream
+	* @throws	IOException	if the file can't be opened
+	*/
+	public InputStream openAudioStream(String name) throws IOException
+	{
+		Object			stream;
+		AssetArchive	packed;
+		
+		synchronized (groupLock)
+		{
+			stream	= streams.get(name);
+			packed	= archive;
+		}
+		
+		if (stream instanceof AssetArchive.Entry)
+		{
+			return packed.openStream((AssetArchive.Entry) stream);
+		}
+		
+		return (stream == null) ? null : new FileInputStream((String) stream);
+	}
+	
+	
+	/**
+	* Returns the image cache, e.g. to change its budget.
+	*
+	* @return				image cache
+	*/
+	public AssetCache getImageCache()
+	{
+		return imageCache;
+	}
+	
+	
+	/**
+	* Returns the sound cache.
+	*
+	* @return				sound cache
+	*/
+	public AssetCache getSoundCache()
+	{
+		return soundCache;
+	}
+	
+	
+	/**
+	* Returns the midi sequence cache.
+	*
+	* @return				sequence cache
+	*/
+	public AssetCache getSequenceCache()
+	{
+		return sequenceCache;
+	}
+	
+	/**
+	* Checks whether a file exists or not
+	*
+	* @param	path		path to file
+	*/
+	private boolean fileExists(String path)
+	{
+		File f = new File(path);
+		return f.exists();
+	}
+		
+	
+	/**
+	 * Load an image file into the cache.
+	 * @param path The path to the image.
+	 * @param name The name to put the image under in the cache
+	 */
+	public void loadImage(String path, String name) throws FileNotFoundException
+	{
+		readImage(currentDir + path, name);
+		fileLoaded("Image", name);
+	}
+	
+	
+	/**
+	* Decodes an image file into the cache.
+	*
+	* @param	path		path to the image, including the current dir
+	* @param	name		name to put the image under in the cache
+	*/
+	private void readImage(String path, String name) throws FileNotFoundException
+	{
+		//check if file exists
+		if(!fileExists(path))
+			throw new FileNotFoundException(path);
+		
+		if(headless)
+		{
+			Image	standIn	= loadStandIn(path);
+			
+			imageCache.put(name, standIn, sizeOf(standIn));
+			return;
+		}
+		
+		Image	image	= null;
+		
+		try
+		{
+			BufferedImage	decoded	= ImageIO.read(new File(path));
+			
+			if (decoded != null)
+			{
+				image	= ImageHelper.toCompatibleImage(decoded);
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println(e);
+		}
+		
+		// No image reader for the format; let the toolkit try
+		if (image == null)
+		{
+			image	= new ImageIcon(Toolkit.getDefaultToolkit().getImage(path)).getImage();
+		}
+		
+		imageCache.put(name, image, sizeOf(image));
+		ImageHelper.track(name, image);
+	}
+	
+	
+	/**
+	* Returns about how many bytes an image takes up.
+	*
+	* @param	image		the image
+	* @return				size in bytes
+	*/
+	private static long sizeOf(Image image)
+	{
+		if (image instanceof BufferedImage)
+		{
+			DataBuffer	buffer	= ((BufferedImage) image).getRaster().getDataBuffer();
+			
+			return (long) buffer.getSize() * buffer.getNumBanks() 
+					* DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+		}
+		
+		// Assume 32 bits per pixel
+		return 4L * image.getWidth(null) * image.getHeight(null);
+	}
+	
+	
+	/**
+	* Creates a blank image as big as an image file. Only the header of the
+	* file is read.
+	*
+	* @param	path		path to the image
+	* @return				blank one bit per pixel image
+	*/
+	private Image loadStandIn(String path)
+	{
+		int	width	= 1,
+			height	= 1;
+		
+		try
+		{
+			ImageInputStream	in		= ImageIO.createImageInputStream(new File(path));
+			Iterator			readers	= ImageIO.getImageReaders(in);
+			
+			try
+			{
+				if (readers.hasNext())
+				{
+					ImageReader	reader	= (ImageReader) readers.next();
+					
+					reader.setInput(in);
+					width	= reader.getWidth(0);
+					height	= reader.getHeight(0);
+					reader.dispose();
+				}
+			}
+			finally
+			{
+				in.close();
+			}
+		}
+		catch (IOException e)
+		{
+			System.err.println(e);
+		}
+		
+		return new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+	}
+	
+	
+	/**
+	* Load a midi sequence into the cache.
+	*
+	* @param	path		path to the midi sequence, including the current dir
+	* @param	name		name to put the sequence under in the cache
+	* @return				<code>false</code> if the file couldn't be read
+	*/
+	private boolean readSequence(String path, String name) 
+													throws FileNotFoundException
+	{
+		// check if file exists
+		if(!fileExists(path))
+			throw new FileNotFoundException(path);
+		
+		if(headless)
+			return true;
+		
+		try
+		{
+			return openSequence(new FileInputStream(path), new File(path).length(), name);
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return false;
+		}
+	}
+	
+	
+	/**
+	* Reads a midi sequence into the cache.
+	*
+	* @param	in			stream to read the midi file from; closed after
+	* @param	length		length of the file
+	* @param	name		name to put the sequence under in the cache
+	* @return				<code>false</code> if the file couldn't be read
+	*/
+	private boolean openSequence(InputStream in, long length, String name)
+	{
+		// Create sequence									   
+		Sequence	sequence	= null;
+		
+		try
+		{
+			sequence	= MidiSystem.getSequence(new BufferedInputStream(in));
+			
+			sequenceCache.put(name, sequence, length);
+			return true;
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+			return false;
+		}
+		catch (InvalidMidiDataException e)
+		{
+			e.printStackTrace();
+			return false;
+		}
+		finally
+		{
+			close(in);
+		}
+	}
+	
+
+	/**
+	* Load a sound into the cache.
+	*
+	* @param path The path to the sound, including the current dir
+	* @param name The name to put the sound under in the cache
+	* @return		<code>false</code> if the file couldn't be read
+	*/
+	private boolean readSound(String path, String name) throws FileNotFoundException
+	{
+		//check if file exists
+		if(!fileExists(path))
+			throw new FileNotFoundException(path);
+
+		if(headless)
+			return true;
+
+		try
+		{
+			return openSound(new FileInputStream(path), name);
+		}
+		catch (IOException e)
+		{
+			System.err.println(e);
+			return false;
+		}
+	}
+	
+	
+	/**
+	* Decodes a sound into the cache. Sounds are mixed by the audio player 
+	* rather than played through lines of their own, so no line is opened.
+	*
+	* @param	in			stream to read the audio file from; closed after
+	* @param	name		name to put the sound under in the cache
+	* @return				<code>false</code> if the file couldn't be read
+	*/
+	private boolean openSound(InputStream in, String name)
+	{
+		try
+		{
+			SoundSample	sound	= SoundSample.read(in);
+			
+			// Add to the cache
+			soundCache.put(name, sound, sound.getByteSize());
+			return true;
+		}
+		// Thrown if the file doesn't point to a valid audio file data
+		catch (UnsupportedAudioFileException e)
+		{
+			System.err.println(name + ": " + e);
+			return false;
+		}
+		catch (IOException e)
+		{
+			System.err.println(e);
+			return false;
+		}
+		finally
+		{
+			close(in);
+		}
+	}
+	
+	
+	/**
+	* Reads a file from the archive into its cache.
+	*
+	* @param	entry		archive entry
+	* @return				<code>false</code> if the file couldn't be read
+	*/
+	private boolean readPacked(AssetArchive.Entry entry)
+	{
+		if (entry.type == AssetArchive.IMAGE)
+		{
+			// Stand-ins don't need the pixels
+			BufferedImage	image	= headless ?
+				new BufferedImage(entry.width, entry.height, BufferedImage.TYPE_BYTE_BINARY) :
+				archive.readImage(entry);
+			
+			imageCache.put(entry.name, image, sizeOf(image));
+			ImageHelper.track(entry.name, image);
+			return true;
+		}
+		else if (headless)
+		{
+			return true;
+		}
+		else if (entry.type == AssetArchive.SOUND)
+		{
+			return openSound(archive.openStream(entry), entry.name);
+		}
+		else
+		{
+			return openSequence(archive.openStream(entry), entry.length, entry.name);
+		}
+	}
+	
+	
+	/**
+	* Closes a stream, ignoring errors.
+	*
+	* @param	in			the stream
+	*/
+	private static void close(InputStream in)
+	{
+		try
+		{
+			in.close();
+		}
+		catch (IOException e)
+		{
+		}
+	}
+
+
+	/**
+	* Tells the observers that a file has been loaded.
+	*
+	* @param	type		type of file
+	* @param	name		name of the file in the cache
+	*/
+	private synchronized void fileLoaded(String type, String name)
+	{
+		loadedNrofFiles.incrementAndGet();
+		
+		setChanged();
+		notifyObservers(new String[] { type, name });
+	}
+	
+	
+	/**
+	* Returns the number of files loaded so far.
+	*
+	* @return				file count
+	*/
+	public int getLoadedCount()
+	{
+		return loadedNrofFiles.get();
+	}
+	
+	
+	/**
+	* Loads files on a pool of threads and waits for all of them.
+	*
+	* @param	tasks		list of <code>LoadTask</code>s
+	*/
+	private void load(List tasks)
+	{
+		synchronized (this)
+		{
+			totalNrofFiles	= tasks.size();
+			
+			setChanged();
+			notifyObservers(new Integer(totalNrofFiles));
+		}
+		
+		// Most of the time is spent waiting for the disk and the sound 
+		// system, so use a few more threads than processors
+		int				threads		= Math.min(tasks.size(), 
+										Runtime.getRuntime().availableProcessors() * 2);
+		ExecutorService	executor	= Executors.newFixedThreadPool(Math.max(1, threads));
+		
+		// ImageIO doesn't need to cache the streams to disk for local files
+		ImageIO.setUseCache(false);
+		
+		try
+		{
+			executor.invokeAll(tasks);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+
+	/**
+	* Reads the archive, or the manifest if there is no up to date archive, 
+	* and loads the menu, i.e. what's needed to start.
+	*
+	*/
+	public void initiateLoad()
+	{
+		File	packed	= new File(ARCHIVE);
+		
+		try
+		{
+			if (packed.lastModified() >= new File(MANIFEST).lastModified())
+			{
+				try
+				{
+					openArchive(ARCHIVE);
+				}
+				catch (IOException e)
+				{
+					// E.g. packed by an older version; use the loose files
+					System.err.println(e);
+					loadManifest(MANIFEST);
+				}
+			}
+			else
+			{
+				loadManifest(MANIFEST);
+			}
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+		
+		loadGroup("menu");
+	}
+	
+	
+	/**
+	* Maps an archive, replacing any manifest or archive read before. The 
+	* files are then read from the archive.
+	*
+	* @param	path		path to the archive
+	* @throws	IOException	if the archive can't be read
+	*/
+	public void openArchive(String path) throws IOException
+	{
+		AssetArchive	packed	= new AssetArchive(path);
+		List			entries	= packed.getEntries();
+		Map				groups	= new HashMap();
+		Map				assets	= new HashMap();
+		Map				streams	= new HashMap();
+		
+		for (int i = 0; i < entries.size(); i++)
+		{
+			AssetArchive.Entry	entry	= (AssetArchive.Entry) entries.get(i);
+			
+			// Streams aren't loaded, only opened when played
+			if (entry.type == AssetArchive.STREAM)
+			{
+				streams.put(entry.name, entry);
+				continue;
+			}
+			
+			addTask(groups, assets, entry.group, new LoadTask(entry));
+		}
+		
+		synchronized (groupLock)
+		{
+			this.archive	= packed;
+			this.groups		= groups;
+			this.assets		= assets;
+			this.streams	= streams;
+		}
+	}
+	
+	
+	/**
+	* Reads a manifest, replacing any read before. Each line holds a group, a
+	* type ("image", "sound", "music" or "stream"), a path relative to the 
+	* manifest and
+	* a name, separated by white space. Empty lines and lines starting with 
+	* <code>#</code> are skipped.
+	*
+	* @param	path		path to the manifest
+	* @throws	IOException	if the manifest can't be read
+	*/
+	public void loadManifest(String path) throws IOException
+	{
+		List	manifest	= readManifest(path);
+		Map		groups		= new HashMap();
+		Map		assets		= new HashMap();
+		Map		streams		= new HashMap();
+		
+		for (int i = 0; i < manifest.size(); i++)
+		{
+			String[]	asset	= (String[]) manifest.get(i);
+			
+			// Streams aren't loaded, only opened when played
+			if (asset[1].equals("Stream"))
+			{
+				streams.put(asset[3], asset[2]);
+				continue;
+			}
+			
+			addTask(groups, assets, asset[0], new LoadTask(asset[1], asset[2], asset[3]));
+		}
+		
+		synchronized (groupLock)
+		{
+			this.archive	= null;
+			this.groups		= groups;
+			this.assets		= assets;
+			this.streams	= streams;
+		}
+	}
+	
+	
+	/**
+	* Reads a manifest.
+	*
+	* @param	path		path to the manifest
+	* @return				list of assets, each a <code>String[]</code> of 
+	*						group, type ("Image", "Sound", "Music" or 
+	*						"Stream"), path 
+	*						and name
+	* @throws	IOException	if the manifest can't be read
+	* @see					#loadManifest(String)
+	*/
+	public static List readManifest(String path) throws IOException
+	{
+		List			manifest	= new ArrayList();
+		File			dir			= new File(path).getAbsoluteFile().getParentFile();
+		BufferedReader	in			= new BufferedReader(new FileReader(path));
+		
+		try
+		{
+			String	line;
+			int		lineNo	= 0;
+			
+			while ((line = in.readLine()) != null)
+			{
+				lineNo++;
+				line	= line.trim();
+				
+				if ((line.length() == 0) || line.startsWith("#"))	continue;
+				
+				String[]	fields	= line.split("\\s+");
+				
+				if (fields.length != 4)
+				{
+					throw new IOException(path + ":" + lineNo + ": expected <group> <type> <path> <name>");
+				}
+				
+				String		type	= fields[1].equals("image") ? "Image" :
+									  fields[1].equals("sound") ? "Sound" :
+									  fields[1].equals("music") ? "Music" : 
+									  fields[1].equals("stream") ? "Stream" : null;
+				
+				if (type == null)
+				{
+					throw new IOException(path + ":" + lineNo + ": unknown type " + fields[1]);
+				}
+				
+				manifest.add(new String[] { fields[0], type, 
+											new File(dir, fields[2]).getPath(),
+											fields[3] });
+			}
+		}
+		finally
+		{
+			in.close();
+		}
+		
+		return manifest;
+	}
+	
+	
+	/**
+	* Adds a load task to a group.
+	*
+	* @param	groups		tasks by group
+	* @param	assets		group by asset name
+	* @param	group		name of the group
+	* @param	task		the task
+	*/
+	private static void addTask(Map groups, Map assets, String group, LoadTask task)
+	{
+		List	tasks	= (List) groups.get(group);
+		
+		if (tasks == null)
+		{
+			tasks	= new ArrayList();
+			groups.put(group, tasks);
+		}
+		
+		tasks.add(task);
+		assets.put(task.name, group);
+	}
+	
+	
+	/**
+	* Returns whether the manifest has a group.
+	*
+	* @param	group		name of the group
+	* @return				<code>true</code> if the group exists
+	*/
+	public boolean hasGroup(String group)
+	{
+		synchronized (groupLock)
+		{
+			return groups.containsKey(group);
+		}
+	}
+	
+	
+	/**
+	* Returns the names of the sounds in a group.
+	*
+	* @param	group		name of the group
+	* @return				list of names, empty if there is no such group
+	*/
+	public List getSoundNames(String group)
+	{
+		List	names	= new ArrayList();
+		
+		synchronized (groupLock)
+		{
+			List	entries	= (List) groups.get(group);
+			
+			for (int i = 0; (entries != null) && (i < entries.size()); i++)
+			{
+				LoadTask	task	= (LoadTask) entries.get(i);
+				
+				if (task.type.equals("Sound"))
+				{
+					names.add(task.name);
+				}
+			}
+		}
+		
+		return names;
+	}
+	
+	
+	/**
+	* Loads the files of a group which aren't already cached. Does nothing if
+	* there is no such group.
+	*
+	* @param	group		name of the group
+	*/
+	public void loadGroup(String group)
+	{
+		synchronized (groupLock)
+		{
+			List	entries	= (List) groups.get(group);
+			List	tasks	= new ArrayList();
+			
+			if (entries == null)
+			{
+				return;
+			}
+			
+			for (int i = 0; i < entries.size(); i++)
+			{
+				LoadTask	task	= (LoadTask) entries.get(i);
+				
+				if (!task.isCached())
+				{
+					tasks.add(task);
+				}
+			}
+			
+			if (!tasks.isEmpty())
+			{
+				load(tasks);
+			}
+		}
+	}
+	
+	
+	/**
+	* Loads the group an asset belongs to.
+	*
+	* @param	name		name of the asset
+	* @return				<code>true</code> if the asset is in the manifest
+	*/
+	private boolean loadGroupOf(String name)
+	{
+		String	group;
+		
+		synchronized (groupLock)
+		{
+			group	= (String) assets.get(name);
+		}
+		
+		if (group == null)
+		{
+			return false;
+		}
+		
+		loadGroup(group);
+		
+		return true;
+	}
+	
+	
+	
+	/**
+	* Loads one file into the cache.
+	*
+	*/
+	private class LoadTask implements Callable
+	{
+		/** Type of file: "Image", "Sound" or "Music" */
+		private String	type;
+		
+		/** Path to the file, including the current dir */
+		private String	path;
+		
+		/** Name of the file in the cache */
+		private String	name;
+		
+		/** Where the file is in the archive, or <em>null</em> if loose */
+		private AssetArchive.Entry	entry;
+		
+		/** Set if the file couldn't be loaded, so that it isn't tried again */
+		private volatile boolean	failed;
+		
+		
+		/**
+		* Creates a task loading a loose file.
+		*
+		* @param	type		"Image", "Sound" or "Music"
+		* @param	path		path to the file
+		* @param	name		name to put the file under in the cache
+		*/
+		public LoadTask(String type, String path, String name)
+		{
+			this.type	= type;
+			this.path	= path;
+			this.name	= name;
+		}
+		
+		
+		/**
+		* Creates a task loading a file from the archive.
+		*
+		* @param	entry		archive entry
+		*/
+		public LoadTask(AssetArchive.Entry entry)
+		{
+			this(TYPES[entry.type], ARCHIVE + ":" + entry.name, entry.name);
+			
+			this.entry	= entry;
+		}
+		
+		
+		/**
+		* Returns whether the file is in its cache.
+		*
+		* @return				<code>true</code> if cached
+		*/
+		public boolean isCached()
+		{
+			if (failed)
+			{
+				return true;
+			}
+			
+			// Sounds and music aren't loaded when headless
+			if (type.equals("Image"))
+			{
+				return imageCache.contains(name);
+			}
+			
+			return headless || (type.equals("Sound") ? soundCache : sequenceCache).contains(name);
+		}
+		
+		
+		public Object call()
+		{
+			boolean	read	= false;
+			
+			try
+			{
+				if (entry != null)
+				{
+					read	= readPacked(entry);
+				}
+				else if (type.equals("Image"))
+				{
+					readImage(path, name);
+					read	= true;
+				}
+				else if (type.equals("Sound"))
+				{
+					read	= readSound(path, name);
+				}
+				else
+				{
+					read	= readSequence(path, name);
+				}
+			}
+			catch (FileNotFoundException e)
+			{
+				e.printStackTrace();
+			}
+			catch (RuntimeException e)
+			{
+				// Would otherwise be kept quietly by the executor
+				e.printStackTrace();
+			}
+			finally
+			{
+				// Not whether it's cached; it may already have been evicted
+				failed	= !read;
+				
+				// Count failed files too, or the progress would never finish
+				fileLoaded(type, name);
+			}
+			
+			return name;
+		}
+	}
+} //end DataPreLoader
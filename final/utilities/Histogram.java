@@ -0,0 +1,207 @@
+package	utilities;
+
+import	java.util.concurrent.atomic.AtomicLong;
+import	java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+* A histogram of non-negative <code>long</code> values, e.g. durations in 
+* nanoseconds, which can be recorded into from any thread without locking.
+*
+* <p>
+*   The buckets are log-linear: each power of two is split into 
+*   <code>{@link #SUB_BUCKETS}</code> equally wide buckets, so a value is 
+*   known to within about 6% however large it is. Percentiles are reported 
+*   as the highest value of the bucket they fall in.
+* </p>
+*
+* <p>
+*   Reading while others record gives a close, but not exact, snapshot.
+* </p>
+*
+* @author	Johan Liesén
+*/
+public class Histogram
+{
+	/** Number of bits below the leading one kept for each value */
+	private static final int	SUB_BUCKET_BITS	= 4;
+	
+	/** Number of buckets each power of two is split into */
+	public static final int		SUB_BUCKETS		= 1 << SUB_BUCKET_BITS;
+	
+	/** Number of buckets, enough for any positive long */
+	private static final int	BUCKETS			= (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	
+	/** Counts per bucket */
+	private final AtomicLongArray	counts	= new AtomicLongArray(BUCKETS);
+	
+	/** Number of values recorded */
+	private final AtomicLong		count	= new AtomicLong();
+	
+	/** Sum of the values recorded */
+	private final AtomicLong		total	= new AtomicLong();
+	
+	/** Largest value recorded */
+	private final AtomicLong		max		= new AtomicLong();
+	
+	
+	
+	/**
+	* Records a value. Negative values are recorded as zero.
+	*
+	* @param	value		the value
+	*/
+	public void record(long value)
+	{
+		if (value < 0)
+		{
+			value	= 0;
+		}
+		
+		counts.incrementAndGet(indexOf(value));
+		count.incrementAndGet();
+		total.addAndGet(value);
+		
+		// Raise the maximum unless someone else raised it further
+		long	current	= max.get();
+		
+		while ((value > current) && !max.compareAndSet(current, value))
+		{
+			current	= max.get();
+		}
+	}
+	
+	
+	/**
+	* Returns the number of values recorded.
+	*
+	* @return				the count
+	*/
+	public long getCount()
+	{
+		return count.get();
+	}
+	
+	
+	/**
+	* Returns the largest value recorded.
+	*
+	* @return				the maximum, or zero if nothing is recorded
+	*/
+	public long getMax()
+	{
+		return max.get();
+	}
+	
+	
+	/**
+	* Returns the mean of the values recorded.
+	*
+	* @return				the mean, or zero if nothing is recorded
+	*/
+	public double getMean()
+	{
+		long	n	= count.get();
+		
+		return (n == 0) ? 0 : (double) total.get() / n;
+	}
+	
+	
+	/**
+	* Returns the value below or at which a given percentage of the recorded
+	* values are.
+	*
+	* @param	percentile	percentage, 0 to 100
+	* @return				the value, or zero if nothing is recorded
+	*/
+	public long getPercentile(double percentile)
+	{
+		long	n		= 0;
+		long[]	snapshot	= new long[BUCKETS];
+		
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			snapshot[i]	= counts.get(i);
+			n			+= snapshot[i];
+		}
+		
+		if (n == 0)
+		{
+			return 0;
+		}
+		
+		long	rank	= (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * n);
+		long	seen	= 0;
+		
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen	+= snapshot[i];
+			
+			if ((seen >= rank) && (snapshot[i] > 0))
+			{
+				return Math.min(highestValueOf(i), getMax());
+			}
+		}
+		
+		return getMax();
+	}
+	
+	
+	/**
+	* Forgets all recorded values.
+	*
+	*/
+	public void reset()
+	{
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			counts.set(i, 0);
+		}
+		
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+	
+	
+	/**
+	* Returns the bucket a value belongs to.
+	*
+	* @param	value		non-negative value
+	* @return				bucket index
+	*/
+	private static int indexOf(long value)
+	{
+		if (value < SUB_BUCKETS)
+		{
+			return (int) value;
+		}
+		
+		// Position of the leading one, and how far below it is kept
+		int	exponent	= 63 - Long.numberOfLeadingZeros(value);
+		int	shift		= exponent - SUB_BUCKET_BITS;
+		int	mantissa	= (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		
+		return (shift + 1) * SUB_BUCKETS + mantissa;
+	}
+	
+	
+	/**
+	* Returns the highest value belonging to a bucket.
+	*
+	* @param	index		bucket index
+	* @return				the value
+	*/
+	private static long highestValueOf(int index)
+	{
+		if (index < SUB_BUCKETS)
+		{
+			return index;
+		}
+		
+		int		shift		= index / SUB_BUCKETS - 1;
+		long	lowest		= (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		
+		return lowest + (1L << shift) - 1;
+	}
+} //end Histogram
@@ -1,115 +1,375 @@
-package utilities;
-
-import 	java.awt.Graphics;
-import 	java.awt.GraphicsConfiguration;
-import 	java.awt.GraphicsDevice;
-import 	java.awt.GraphicsEnvironment;
-import 	java.awt.HeadlessException;
-import 	java.awt.Image;
-import 	java.awt.Transparency;
-import 	java.awt.image.BufferedImage;
-import 	java.awt.image.ColorModel;
-import 	java.awt.image.PixelGrabber;
-import 	javax.swing.ImageIcon;
-
-/**
-*	This class contains helper methods for loading and using images.
-*	Since there is no way to convert an <code>Image</code> to a <code>
-*	BufferedImage </code> using the API, this code is needed. Most of it comes
-*	from http://javaalmanac.com/egs/java.awt.image.
-*/
-public class ImageHelper{
-
-// below code is from http://javaalmanac.com/egs/java.awt.image/HasAlpha.htm	
-	/**
-	 *	Checks if a specified image has transparent pixels
-	 *	@param image	The image to be tested
-	 *	@return		true if the image has transparent pixels
-	 */   
-	public static boolean hasAlpha(Image image) {
-		// If buffered image, the color model is readily available
-	        if (image instanceof BufferedImage) {
-	        	BufferedImage bimage = (BufferedImage)image;
-	        	return bimage.getColorModel().hasAlpha();
-	        }
-	    
-	        // Use a pixel grabber to retrieve the image's color model;
-	        // grabbing a single pixel is usually sufficient
-	         PixelGrabber pg = new PixelGrabber(image, 0, 0, 1, 1, false);
-	        try {
-	            pg.grabPixels();
-	        } catch (InterruptedException e) {
-	        }
-	    
-	        // Get the image's color model
-	        ColorModel cm = pg.getColorModel();
-	        //return cm.hasAlpha();
-	        
-	        // Fix (?) by Liesn @ 2004-05-14 00:36
-	        return (cm == null) ? false : cm.hasAlpha();
-	    }
-	    
-//below code is from http://javaalmanac.com/egs/java.awt.image/Image2Buf.html   
-	/**
-	*	Converts an <code>Image</code> object to a <code>BufferedImage</code>
-	*	object
-	*	@param	image	The <code>Image</code> object to be converted
-	*	@return		a <code>BufferedImage</code> conversion from the input
-	*/
-	// This method returns a buffered image with the contents of an image
-	public static BufferedImage toBufferedImage(Image image) {
-		if (image instanceof BufferedImage) {
-			return (BufferedImage)image;
-	        }
-	    
-	        // This code ensures that all the pixels in the image are loaded
-	        image = new ImageIcon(image).getImage();
-	    
-	        // Determine if the image has transparent pixels; 
-	        // for this method's
-	        // implementation, see Determining If an Image Has
-	        // Transparent Pixels
-	        boolean hasAlpha = hasAlpha(image);
-	    
-	        // Create a buffered image with a format that's compatible
-	        // with the screen
-	        BufferedImage bimage = null;
-	        GraphicsEnvironment ge = GraphicsEnvironment.
-	        				  getLocalGraphicsEnvironment();
-	        try {
-			// Determine the type of transparency of the new
-			//				 buffered image
-			int transparency = Transparency.OPAQUE;
-			if (hasAlpha) {
-				transparency = Transparency.BITMASK;
-			}
-			
-			// Create the buffered image
-			GraphicsDevice gs = ge.getDefaultScreenDevice();
-			GraphicsConfiguration gc = gs.getDefaultConfiguration();
-			bimage = gc.createCompatibleImage(
-			image.getWidth(null),image.getHeight(null),transparency);
-	        } catch (HeadlessException e) {
-	            // The system does not have a screen
-	        }
-	    
-	        if (bimage == null) {
-	            // Create a buffered image using the default color model
-	            int type = BufferedImage.TYPE_INT_RGB;
-	            if (hasAlpha) {
-	                type = BufferedImage.TYPE_INT_ARGB;
-	            }
-	            bimage = new BufferedImage(image.getWidth(null),
-	            				   image.getHeight(null), type);
-	        }
-	    
-	        // Copy image to buffered image
-	        Graphics g = bimage.createGraphics();
-	    
-	        // Paint the image onto the buffered image
-	        g.drawImage(image, 0, 0, null);
-	        g.dispose();
-	    
-	        return bimage;
-	    }
+package utilities;
+
+import 	java.awt.Graphics;
+import 	java.awt.Graphics2D;
+import 	java.awt.GraphicsConfiguration;
+import 	java.awt.GraphicsEnvironment;
+import 	java.awt.HeadlessException;
+import 	java.awt.Image;
+import 	java.awt.Transparency;
+import 	java.awt.image.BufferedImage;
+import 	java.awt.image.ColorModel;
+import 	java.awt.image.PixelGrabber;
+import 	java.io.PrintStream;
+import 	java.util.ArrayList;
+import 	java.util.Iterator;
+import 	java.util.List;
+import 	java.util.Map;
+import 	java.util.WeakHashMap;
+import 	javax.swing.ImageIcon;
+
+/**
+*	This class contains helper methods for loading and using images.
+*	Since there is no way to convert an <code>Image</code> to a <code>
+*	BufferedImage </code> using the API, this code is needed. Most of it comes
+*	from http://javaalmanac.com/egs/java.awt.image.
+*	<p>
+*	All images used at runtime should go through <code>toBufferedImage
+*	</code> or <code>toCompatibleImage</code>, which make sure they have a 
+*	format compatible with the screen (so that Java2D can keep them in video
+*	memory) and no more transparency than their pixels need. Images handed to
+*	<code>track</code> are listed by <code>printAccelerationReport</code>,
+*	telling which of them aren't accelerated.
+*	</p>
+*/
+public class ImageHelper{
+	
+	/** Compatible copies of incompatible images, so that converting an 
+	 *  image twice gives the same copy */
+	private static Map converted = new WeakHashMap();
+	
+	/** Names of the tracked images */
+	private static Map tracked = new WeakHashMap();
+	
+	/** One-pixel compatible images by transparency, which images are 
+	 *  compared with; made again when the screen configuration changes */
+	private static BufferedImage[] probes = new BufferedImage[4];
+	
+	/** Configuration the probes were made for */
+	private static GraphicsConfiguration probeConfiguration;
+
+// below code is from http://javaalmanac.com/egs/java.awt.image/HasAlpha.htm	
+	/**
+	 *	Checks if a specified image has transparent pixels
+	 *	@param image	The image to be tested
+	 *	@return		true if the image has transparent pixels
+	 */   
+	public static boolean hasAlpha(Image image) {
+		// If buffered image, the color model is readily available
+	        if (image instanceof BufferedImage) {
+	        	BufferedImage bimage = (BufferedImage)image;
+	        	return bimage.getColorModel().hasAlpha();
+	        }
+	    
+	        // Use a pixel grabber to retrieve the image's color model;
+	        // grabbing a single pixel is usually sufficient
+	         PixelGrabber pg = new PixelGrabber(image, 0, 0, 1, 1, false);
+	        try {
+	            pg.grabPixels();
+	        } catch (InterruptedException e) {
+	        }
+	    
+	        // Get the image's color model
+	        ColorModel cm = pg.getColorModel();
+	        //return cm.hasAlpha();
+	        
+	        // Fix (?) by Liesén @ 2004-05-14 00:36
+	        return (cm == null) ? false : cm.hasAlpha();
+	    }
+	    
+//below code is from http://javaalmanac.com/egs/java.awt.image/Image2Buf.html   
+	/**
+	*	Converts an <code>Image</code> object to a <code>BufferedImage</code>
+	*	object
+	*	@param	image	The <code>Image</code> object to be converted
+	*	@return		a <code>BufferedImage</code> conversion from the input
+	*/
+	// This method returns a buffered image with the contents of an image
+	public static BufferedImage toBufferedImage(Image image) {
+		if (image instanceof BufferedImage) {
+			BufferedImage bimage = (BufferedImage)image;
+			
+			if (isCompatible(bimage)) {
+				return bimage;
+			}
+			
+			// Convert once; the copy lives as long as the original
+			synchronized (converted) {
+				BufferedImage copy = (BufferedImage)converted.get(bimage);
+				
+				if (copy == null) {
+					copy = toCompatibleImage(bimage);
+					converted.put(bimage, copy);
+				}
+				
+				return copy;
+			}
+	        }
+	    
+	        // This code ensures that all the pixels in the image are loaded
+	        image = new ImageIcon(image).getImage();
+	    
+	        // Without alpha in the color model the image is opaque; 
+	        // for this method's
+	        // implementation, see Determining If an Image Has
+	        // Transparent Pixels
+	        if (!hasAlpha(image)) {
+		        BufferedImage bimage = createCompatibleImage(image.getWidth(null),
+		        				image.getHeight(null), Transparency.OPAQUE);
+		        
+		        Graphics g = bimage.createGraphics();
+		        g.drawImage(image, 0, 0, null);
+		        g.dispose();
+		        
+		        return bimage;
+	        }
+	        
+	        // Otherwise copy the pixels so that they can be looked at, and let
+	        // them decide on the transparency
+	        BufferedImage argb = new BufferedImage(image.getWidth(null),
+	        				image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+	    
+	        Graphics g = argb.createGraphics();
+	        g.drawImage(image, 0, 0, null);
+	        g.dispose();
+	    
+	        return toCompatibleImage(argb);
+	    }
+	
+	/**
+	*	Finds the transparency an image needs by looking at the alpha of 
+	*	every pixel, rather than trusting its color model: an ARGB image 
+	*	whose pixels are all either opaque or fully transparent only needs
+	*	<code>BITMASK</code>, which is accelerated on more systems than 
+	*	<code>TRANSLUCENT</code>.
+	*	@param	image		the image
+	*	@return		<code>Transparency.OPAQUE</code>, <code>BITMASK</code>
+	*			or <code>TRANSLUCENT</code>
+	*/
+	public static int getTransparency(BufferedImage image) {
+		if (!image.getColorModel().hasAlpha()) {
+			return Transparency.OPAQUE;
+		}
+		
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int[] row = new int[width];
+		int transparency = Transparency.OPAQUE;
+		
+		// Row by row, so that the raster is left alone (and managed)
+		for (int y = 0; y < height; y++) {
+			image.getRGB(0, y, width, 1, row, 0, width);
+			
+			for (int x = 0; x < width; x++) {
+				int alpha = row[x] >>> 24;
+				
+				if (alpha == 0) {
+					transparency = Transparency.BITMASK;
+				} else if (alpha != 0xff) {
+					return Transparency.TRANSLUCENT;
+				}
+			}
+		}
+		
+		return transparency;
+	}
+	
+	/**
+	*	Checks if an image has the format of a compatible image with the same
+	*	transparency, i.e. if it can be drawn on the screen without 
+	*	conversion.
+	*	@param	image		the image
+	*	@return		<code>true</code> if the image is compatible
+	*/
+	public static boolean isCompatible(BufferedImage image) {
+		BufferedImage probe = getProbe(image.getTransparency());
+		
+		return (probe.getType() == image.getType()) &&
+			probe.getColorModel().equals(image.getColorModel());
+	}
+	
+	/**
+	*	Returns a compatible one-pixel image to compare formats with.
+	*/
+	private static synchronized BufferedImage getProbe(int transparency) {
+		GraphicsConfiguration gc = getDefaultConfiguration();
+		
+		if (gc != probeConfiguration) {
+			probes = new BufferedImage[4];
+			probeConfiguration = gc;
+		}
+		
+		if (probes[transparency] == null) {
+			probes[transparency] = createCompatibleImage(1, 1, transparency);
+		}
+		
+		return probes[transparency];
+	}
+	
+	/**
+	*	Creates a compatible copy of an image mirrored along the y-axis.
+	*	@param	image		the image
+	*	@return		a mirrored copy
+	*/
+	public static BufferedImage mirror(BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		BufferedImage bimage = createCompatibleImage(width, height,
+						getTransparency(image));
+		
+		Graphics2D g = bimage.createGraphics();
+		g.drawImage(image, width, 0, 0, height, 0, 0, width, height, null);
+		g.dispose();
+		
+		return bimage;
+	}
+	
+	/**
+	*	Copies a decoded image (e.g. from <code>ImageIO</code>) into an image
+	*	with a format that's compatible with the screen, keeping its
+	*	transparency. Images read by <code>ImageIO</code> are often indexed
+	*	or in some other format which has to be converted every time it's 
+	*	drawn.
+	*	@param	image		the image
+	*	@return		a compatible copy of the image
+	*/
+	public static BufferedImage toCompatibleImage(BufferedImage image) {
+		BufferedImage bimage = createCompatibleImage(image.getWidth(),
+						image.getHeight(), getTransparency(image));
+		
+		Graphics g = bimage.createGraphics();
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		
+		return bimage;
+	}
+	
+	/**
+	*	Creates an empty image with a format that's compatible with the
+	*	screen, so that it can be drawn without conversion. When running 
+	*	headless an image using the default color model is created instead.
+	*	@param	width		width of the image
+	*	@param	height		height of the image
+	*	@param	transparency	one of the <code>Transparency</code> constants
+	*	@return		a new, empty image
+	*/
+	public static BufferedImage createCompatibleImage(int width, int height,
+							int transparency) {
+		BufferedImage bimage = null;
+		
+		// Asking first is much cheaper than catching the exception, which
+		// matters when many sprites are created headless
+		GraphicsConfiguration gc = getDefaultConfiguration();
+		
+		if (gc != null) {
+			bimage = gc.createCompatibleImage(width, height, transparency);
+		}
+		
+		if (bimage == null) {
+			// Create a buffered image using the default color model
+			int type = BufferedImage.TYPE_INT_RGB;
+			if (transparency != Transparency.OPAQUE) {
+				type = BufferedImage.TYPE_INT_ARGB;
+			}
+			bimage = new BufferedImage(width, height, type);
+		}
+		
+		return bimage;
+	}
+	
+	/**
+	*	Returns the configuration of the default screen.
+	*	@return		the configuration, or <code>null</code> if the system
+	*			does not have a screen
+	*/
+	public static GraphicsConfiguration getDefaultConfiguration() {
+		if (GraphicsEnvironment.isHeadless()) {
+			return null;
+		}
+		
+		try {
+			return GraphicsEnvironment.getLocalGraphicsEnvironment().
+				getDefaultScreenDevice().getDefaultConfiguration();
+		} catch (HeadlessException e) {
+			return null;
+		}
+	}
+	
+	/**
+	*	Names an image to be listed in the acceleration report.
+	*	@param	name		name of the image
+	*	@param	image		the image
+	*/
+	public static void track(String name, Image image) {
+		synchronized (tracked) {
+			tracked.put(image, name);
+		}
+	}
+	
+	/**
+	*	Returns the names of the tracked images which aren't accelerated,
+	*	i.e. not cached in video memory. Images are cached once they have 
+	*	been drawn a few times, so this is only meaningful while the game is
+	*	running.
+	*	@return		names of the images
+	*/
+	public static List getUnacceleratedImages() {
+		List names = new ArrayList();
+		GraphicsConfiguration gc = getDefaultConfiguration();
+		
+		synchronized (tracked) {
+			for (Iterator i = tracked.entrySet().iterator(); i.hasNext(); ) {
+				Map.Entry entry = (Map.Entry)i.next();
+				Image image = (Image)entry.getKey();
+				
+				if ((gc == null) || 
+				    !image.getCapabilities(gc).isAccelerated()) {
+					names.add(entry.getValue());
+				}
+			}
+		}
+		
+		return names;
+	}
+	
+	/**
+	*	Prints each tracked image, whether it's accelerated and if not, why
+	*	it might not be.
+	*	@param	out		stream to print to
+	*/
+	public static void printAccelerationReport(PrintStream out) {
+		GraphicsConfiguration gc = getDefaultConfiguration();
+		int count = 0;
+		int accelerated = 0;
+		
+		synchronized (tracked) {
+			for (Iterator i = tracked.entrySet().iterator(); i.hasNext(); ) {
+				Map.Entry entry = (Map.Entry)i.next();
+				Image image = (Image)entry.getKey();
+				String status;
+				
+				count++;
+				
+				if (gc == null) {
+					status = "not accelerated (no screen)";
+				} else if (image.getCapabilities(gc).isAccelerated()) {
+					status = "accelerated";
+					accelerated++;
+				} else if ((image instanceof BufferedImage) &&
+					   !isCompatible((BufferedImage)image)) {
+					status = "NOT ACCELERATED (incompatible format)";
+				} else if (!(image instanceof BufferedImage)) {
+					status = "NOT ACCELERATED (toolkit image)";
+				} else {
+					status = "not accelerated (not drawn enough yet, or "
+						+ "its pixels were accessed directly)";
+				}
+				
+				out.println(entry.getValue() + " " + image.getWidth(null) 
+					+ "x" + image.getHeight(null) + ": " + status);
+			}
+		}
+		
+		out.println(accelerated + " of " + count + " images accelerated");
+	}
 }//end class ImageHelper
\ No newline at end of file
@@ -0,0 +1,188 @@
+package	utilities;
+
+import	java.io.BufferedInputStream;
+import	java.io.IOException;
+import	java.io.InputStream;
+import	javax.sound.sampled.AudioFormat;
+import	javax.sound.sampled.AudioInputStream;
+import	javax.sound.sampled.AudioSystem;
+import	javax.sound.sampled.UnsupportedAudioFileException;
+
+
+/**
+* Reads an audio file bit by bit, converting it to the mixing format of 
+* <code>{@link SoundSample}</code>: 16 bit signed stereo at 
+* <code>SoundSample.SAMPLE_RATE</code> Hz. Mono is played on both channels,
+* extra channels are dropped, and other sample rates are resampled linearly.
+*
+* @author	Johan Liesén
+*/
+public class SoundDecoder
+{
+	/** Frames of the file read at a time */
+	private static final int	CHUNK_FRAMES	= 2048;
+	
+	/** The file, as 16 bit samples at its own rate and channels */
+	private AudioInputStream	stream;
+	
+	/** Number of channels in the file */
+	private int					channels;
+	
+	/** File frames per mixing frame */
+	private double				step;
+	
+	/** Frames read from the file but not yet used, and the number of them */
+	private short[]				source;
+	private int					sourceFrames;
+	
+	/** Index in the file of the first frame in <code>source</code> */
+	private long				sourceStart;
+	
+	/** Set when the whole file is read */
+	private boolean				eof;
+	
+	/** Index of the next mixing frame */
+	private long				frame;
+	
+	/** Buffer for reading bytes */
+	private byte[]				bytes;
+	
+	
+	
+	/**
+	* Opens an audio file.
+	*
+	* @param	in			the audio file; closed by <code>close()</code>
+	* @throws	UnsupportedAudioFileException
+	*						if the file isn't in a known audio format
+	* @throws	IOException	if the file can't be read
+	*/
+	public SoundDecoder(InputStream in) 
+							throws UnsupportedAudioFileException, IOException
+	{
+		AudioInputStream	decoded	= AudioSystem.getAudioInputStream(
+											new BufferedInputStream(in));
+		AudioFormat			format	= decoded.getFormat();
+		
+		channels	= format.getChannels();
+		step		= format.getSampleRate() / SoundSample.SAMPLE_RATE;
+		
+		// Let javax.sound decode into 16 bit samples, keeping rate and 
+		// channels; the rest is done here
+		AudioFormat			pcm		= new AudioFormat(format.getSampleRate(), 16,
+													  channels, true, false);
+		
+		stream	= format.matches(pcm) ? decoded 
+									  : AudioSystem.getAudioInputStream(pcm, decoded);
+		source	= new short[CHUNK_FRAMES * channels];
+		bytes	= new byte[CHUNK_FRAMES * channels * 2];
+	}
+	
+	
+	
+	/**
+	* Reads samples in the mixing format.
+	*
+	* @param	buffer		buffer to read into
+	* @param	offset		where to start in the buffer
+	* @param	length		most samples to read; rounded down to whole 
+	*						frames
+	* @return				number of samples read, or <code>-1</code> at the
+	*						end of the file
+	* @throws	IOException	if the file can't be read
+	*/
+	public int read(short[] buffer, int offset, int length) throws IOException
+	{
+		int	frames	= length / SoundSample.CHANNELS;
+		int	count	= 0;
+		
+		while (count < frames)
+		{
+			double	position	= frame * step;
+			long	index		= (long) position;
+			
+			// Make sure the frame and the next one are read, if there is one
+			while (!eof && (index + 1 >= sourceStart + sourceFrames))
+			{
+				fill(index);
+			}
+			
+			// Past the last frame (interpolating beyond it would repeat it)
+			if ((index >= sourceStart + sourceFrames) ||
+				(eof && (index == sourceStart + sourceFrames - 1) && (position > index)))
+			{
+				break;
+			}
+			
+			int		i			= (int) (index - sourceStart);
+			int		j			= Math.min(i + 1, sourceFrames - 1);
+			double	fraction	= position - index;
+			
+			for (int c = 0; c < SoundSample.CHANNELS; c++)
+			{
+				int		sc	= Math.min(c, channels - 1);
+				double	a	= source[i * channels + sc];
+				double	b	= source[j * channels + sc];
+				
+				buffer[offset + count * SoundSample.CHANNELS + c]	= 
+									(short) Math.round(a + (b - a) * fraction);
+			}
+			
+			count++;
+			frame++;
+		}
+		
+		return ((count == 0) && (frames > 0)) ? -1 : count * SoundSample.CHANNELS;
+	}
+	
+	
+	/**
+	* Drops the frames before <code>index</code> and reads more of the file.
+	*
+	* @param	index		first frame still needed
+	*/
+	private void fill(long index) throws IOException
+	{
+		int	drop	= (int) Math.min(sourceFrames, Math.max(0, index - sourceStart));
+		
+		System.arraycopy(source, drop * channels, source, 0, (sourceFrames - drop) * channels);
+		sourceStart		+= drop;
+		sourceFrames	-= drop;
+		
+		int	wanted	= (source.length / channels - sourceFrames) * channels * 2;
+		int	read	= stream.read(bytes, 0, wanted);
+		
+		if (read < 0)
+		{
+			eof	= true;
+			return;
+		}
+		
+		int	samples	= read / 2;
+		int	start	= sourceFrames * channels;
+		
+		for (int k = 0; k < samples; k++)
+		{
+			source[start + k]	= (short) ((bytes[2 * k] & 0xff) | (bytes[2 * k + 1] << 8));
+		}
+		
+		sourceFrames	+= samples / channels;
+	}
+	
+	
+	/**
+	* Closes the file.
+	*
+	*/
+	public void close()
+	{
+		try
+		{
+			stream.close();
+		}
+		catch (IOException e)
+		{
+			// Nothing to do about it
+		}
+	}
+} //end SoundDecoder
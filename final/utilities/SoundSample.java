@@ -0,0 +1,118 @@
+package	utilities;
+
+import	java.io.IOException;
+import	java.io.InputStream;
+import	javax.sound.sampled.AudioFormat;
+import	javax.sound.sampled.UnsupportedAudioFileException;
+
+
+/**
+* A decoded sound, ready to be mixed: 16 bit signed stereo samples at 
+* <code>{@link #SAMPLE_RATE}</code> Hz, whatever the format of the file it
+* was read from. Having all sounds in the same format lets any number of them
+* be mixed into a single line.
+*
+* @author	Johan Liesén
+*/
+public class SoundSample
+{
+	/** Samples per second */
+	public static final float		SAMPLE_RATE	= 44100;
+	
+	/** Channels, interleaved left first */
+	public static final int			CHANNELS	= 2;
+	
+	/** The format of the samples, as bytes */
+	public static final AudioFormat	FORMAT		= new AudioFormat(SAMPLE_RATE, 16, 
+																  CHANNELS, true, 
+																  false);
+	
+	/** Interleaved samples */
+	private final short[]	samples;
+	
+	
+	
+	/**
+	* Creates a sound.
+	*
+	* @param	samples		interleaved stereo samples at 
+	*						<code>SAMPLE_RATE</code>
+	*/
+	public SoundSample(short[] samples)
+	{
+		this.samples	= samples;
+	}
+	
+	
+	
+	/**
+	* Decodes an audio file, converting it to the mixing format.
+	*
+	* @param	in			the audio file; not closed
+	* @return				the sound
+	* @throws	UnsupportedAudioFileException
+	*						if the file isn't in a known audio format
+	* @throws	IOException	if the file can't be read
+	* @see		SoundDecoder
+	*/
+	public static SoundSample read(InputStream in) 
+							throws UnsupportedAudioFileException, IOException
+	{
+		SoundDecoder	decoder	= new SoundDecoder(in);
+		short[]			samples	= new short[64 * 1024];
+		int				length	= 0;
+		int				read;
+		
+		while ((read = decoder.read(samples, length, samples.length - length)) >= 0)
+		{
+			length	+= read;
+			
+			if (length == samples.length)
+			{
+				short[]	larger	= new short[2 * samples.length];
+				
+				System.arraycopy(samples, 0, larger, 0, length);
+				samples	= larger;
+			}
+		}
+		
+		short[]	trimmed	= new short[length];
+		
+		System.arraycopy(samples, 0, trimmed, 0, length);
+		
+		return new SoundSample(trimmed);
+	}
+	
+	
+	/**
+	* Returns the samples. Not to be changed.
+	*
+	* @return				interleaved samples
+	*/
+	public short[] getSamples()
+	{
+		return samples;
+	}
+	
+	
+	/**
+	* Returns the length in frames (one sample per channel).
+	*
+	* @return				number of frames
+	*/
+	public int getFrameLength()
+	{
+		return samples.length / CHANNELS;
+	}
+	
+	
+	/**
+	* Returns the memory used by the samples.
+	*
+	* @return				size in bytes
+	*/
+	public long getByteSize()
+	{
+		return 2L * samples.length;
+	}
+} //end SoundSample